@@ -0,0 +1,71 @@
+package openmods.geometry;
+
+import java.util.Map;
+import java.util.Random;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.Vec3d;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class BoundingBoxIndexBenchmark {
+
+	private static final int QUERY_COUNT = 256;
+
+	@Param({ "10", "100", "1000" })
+	public int boxCount;
+
+	private BoundingBoxMap<Integer> map;
+
+	private BoundingBoxIndex<Integer> index;
+
+	private Vec3d[] points;
+
+	private Vec3d[] rayEnds;
+
+	private int query;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(boxCount);
+		map = BoundingBoxMap.create();
+		for (int i = 0; i < boxCount; i++) {
+			final double x = random.nextDouble() * 16;
+			final double y = random.nextDouble() * 16;
+			final double z = random.nextDouble() * 16;
+			map.addBox(new AxisAlignedBB(x, y, z, x + random.nextDouble() * 4, y + random.nextDouble() * 4, z + random.nextDouble() * 4), i);
+		}
+		index = map.buildIndex();
+
+		points = new Vec3d[QUERY_COUNT];
+		rayEnds = new Vec3d[QUERY_COUNT];
+		for (int i = 0; i < QUERY_COUNT; i++) {
+			points[i] = new Vec3d(random.nextDouble() * 20, random.nextDouble() * 20, random.nextDouble() * 20);
+			rayEnds[i] = new Vec3d(25, random.nextDouble() * 20, random.nextDouble() * 20);
+		}
+	}
+
+	private int nextQuery() {
+		query = (query + 1) % QUERY_COUNT;
+		return query;
+	}
+
+	@Benchmark
+	public Map.Entry<AxisAlignedBB, Integer> mapPoint() {
+		return map.findEntryContainingPoint(points[nextQuery()]);
+	}
+
+	@Benchmark
+	public Map.Entry<AxisAlignedBB, Integer> indexPoint() {
+		return index.findEntryContainingPoint(points[nextQuery()]);
+	}
+
+	@Benchmark
+	public Map.Entry<AxisAlignedBB, Integer> indexRay() {
+		final int i = nextQuery();
+		return index.findClosestEntryOnRay(new Vec3d(-5, points[i].y, points[i].z), rayEnds[i]);
+	}
+}
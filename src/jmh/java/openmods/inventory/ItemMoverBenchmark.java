@@ -0,0 +1,60 @@
+package openmods.inventory;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.IItemHandlerModifiable;
+import net.minecraftforge.items.wrapper.InvWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class ItemMoverBenchmark {
+
+	private static final int MAX_SIZE = Integer.MAX_VALUE;
+
+	@Param({ "27", "108" })
+	public int slotCount;
+
+	private IItemHandlerModifiable source;
+
+	private IItemHandlerModifiable target;
+
+	private Iterable<IItemHandler> targets;
+
+	@Setup(Level.Trial)
+	public void setupTrial() {
+		Bootstrap.register();
+		source = new InvWrapper(new GenericInventory("source", false, slotCount));
+		target = new InvWrapper(new GenericInventory("target", false, slotCount));
+		targets = ImmutableList.of(target);
+	}
+
+	@Setup(Level.Invocation)
+	public void fill() {
+		// mixed contents, with half of target already partially filled
+		for (int i = 0; i < slotCount; i++) {
+			source.setStackInSlot(i, new ItemStack((i % 2 == 0)? Items.COAL : Items.IRON_INGOT, 16));
+			target.setStackInSlot(i, (i % 4 == 0)? new ItemStack(Items.COAL, 8) : ItemStack.EMPTY);
+		}
+	}
+
+	@Benchmark
+	public int pushEachSlot() {
+		int moved = 0;
+		for (int i = 0; i < slotCount; i++)
+			moved += ItemMover.pushFromSlot(source, i, MAX_SIZE, targets);
+		return moved;
+	}
+
+	@Benchmark
+	public int pushAll() {
+		return ItemMover.pushAll(source, MAX_SIZE, targets);
+	}
+}
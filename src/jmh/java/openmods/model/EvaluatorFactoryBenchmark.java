@@ -0,0 +1,61 @@
+package openmods.model;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import openmods.model.eval.EvaluatorFactory;
+import openmods.model.eval.IVarExpander;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class EvaluatorFactoryBenchmark {
+
+	private static final String[] STATEMENTS = {
+			"f(x) := 2 * x + x / 2",
+			"g(x) := x + f(5 + x/2)",
+			"angle := min(max(progress, 0), 1) * 90",
+			"offset := sin(rad(angle)) * scale",
+			"ans := g(-offset) + max(progress, 0.5, scale)",
+			"active := number(progress > 0.5 & scale <> 0)"
+	};
+
+	private IVarExpander arithmeticExpander;
+
+	private IVarExpander constExpander;
+
+	private Map<String, Float> args;
+
+	private float progress;
+
+	private static EvaluatorFactory createFactory(String... statements) {
+		final EvaluatorFactory factory = new EvaluatorFactory();
+		for (String statement : statements)
+			factory.appendStatement(statement);
+		return factory;
+	}
+
+	@Setup
+	public void setup() {
+		arithmeticExpander = createFactory(STATEMENTS).createExpander();
+		constExpander = createFactory("a := 1.3 / 2.5 + 3.2 - -4.4 * 56", "b := (1.4 + 4.5) * +5.4 + 2 ** 3").createExpander();
+		args = ImmutableMap.of("progress", 0.3f, "scale", 2.0f);
+	}
+
+	@Benchmark
+	public EvaluatorFactory parse() {
+		return createFactory(STATEMENTS);
+	}
+
+	@Benchmark
+	public Map<String, Float> evaluate() {
+		progress = (progress + 0.01f) % 1.0f;
+		return arithmeticExpander.expand(ImmutableMap.of("progress", progress, "scale", 2.0f));
+	}
+
+	@Benchmark
+	public Map<String, Float> evaluateConstants() {
+		return constExpander.expand(args);
+	}
+}
@@ -0,0 +1,55 @@
+package openmods.network.rpc;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.EnumFacing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class MethodParamsCodecBenchmark {
+
+	public interface IBenchmarkRpc {
+		public void noArgs();
+
+		public void update(int id, float value, EnumFacing side, @NullableArg String label, int[] slots);
+	}
+
+	private MethodParamsCodec noArgsCodec;
+
+	private MethodParamsCodec updateCodec;
+
+	private final Object[] updateArgs = { 17, 0.25f, EnumFacing.NORTH, null, new int[] { 1, 2, 3, 4 } };
+
+	private PacketBuffer buffer;
+
+	@Setup
+	public void setup() throws Exception {
+		noArgsCodec = new MethodParamsCodec(IBenchmarkRpc.class.getMethod("noArgs"));
+		updateCodec = new MethodParamsCodec(IBenchmarkRpc.class.getMethod("update", int.class, float.class, EnumFacing.class, String.class, int[].class));
+		buffer = new PacketBuffer(Unpooled.buffer());
+	}
+
+	@Benchmark
+	public Object[] encodeNoArgs() {
+		buffer.clear();
+		noArgsCodec.writeArgs(buffer);
+		return noArgsCodec.readArgs(buffer);
+	}
+
+	@Benchmark
+	public PacketBuffer encode() {
+		buffer.clear();
+		updateCodec.writeArgs(buffer, updateArgs);
+		return buffer;
+	}
+
+	@Benchmark
+	public Object[] roundTrip() {
+		buffer.clear();
+		updateCodec.writeArgs(buffer, updateArgs);
+		return updateCodec.readArgs(buffer);
+	}
+}
@@ -0,0 +1,41 @@
+package openmods.physics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class ClothBenchmark {
+
+	// 40 and 100 are above ArrayCloth.PARALLEL_THRESHOLD (1024 constraints), so partitioned variant runs in parallel
+	@Param({ "10", "40", "100" })
+	public int density;
+
+	@Param({ "false", "true" })
+	public boolean partitioned;
+
+	private Cloth cloth;
+
+	private ArrayCloth arrayCloth;
+
+	@Setup
+	public void setup() {
+		cloth = new Cloth(density, 1, 1);
+		arrayCloth = new ArrayCloth(density, 1, 1);
+		arrayCloth.setPartitioned(partitioned);
+	}
+
+	@Benchmark
+	public Cloth objectCloth() {
+		cloth.update();
+		return cloth;
+	}
+
+	@Benchmark
+	public ArrayCloth arrayCloth() {
+		arrayCloth.update();
+		return arrayCloth;
+	}
+}
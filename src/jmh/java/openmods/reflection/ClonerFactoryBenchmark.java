@@ -0,0 +1,46 @@
+package openmods.reflection;
+
+import openmods.reflection.ClonerFactory.ICloner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class ClonerFactoryBenchmark {
+
+	public static class Base {
+		public int a = 1;
+		public double b = 2.5;
+		public String c = "hello";
+	}
+
+	public static class Derived extends Base {
+		public long d = 4;
+		public float[] e = { 1, 2, 3 };
+		public Object f = new Object();
+	}
+
+	private final Derived from = new Derived();
+
+	private final Derived to = new Derived();
+
+	private ICloner<Derived> cloner;
+
+	@Setup
+	public void setup() {
+		cloner = ClonerFactory.instance.getCloner(Derived.class);
+	}
+
+	@Benchmark
+	public Derived cachedLookup() {
+		ClonerFactory.instance.getCloner(Derived.class).clone(from, to);
+		return to;
+	}
+
+	@Benchmark
+	public Derived copyFields() {
+		cloner.clone(from, to);
+		return to;
+	}
+}
@@ -0,0 +1,82 @@
+package openmods.serializable;
+
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import net.minecraft.network.PacketBuffer;
+import openmods.serializable.cls.ClassSerializersProvider;
+import openmods.serializable.cls.SerializableClass;
+import openmods.serializable.cls.Serialize;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class SerializerRegistryBenchmark {
+
+	public enum Mode {
+		IDLE,
+		RUNNING,
+		STOPPED
+	}
+
+	@SerializableClass
+	public static class Payload {
+		@Serialize(rank = 1)
+		public int id = 42;
+
+		@Serialize(rank = 2)
+		public String name = "benchmark";
+
+		@Serialize(rank = 3, nullable = false)
+		public float progress = 0.5f;
+
+		@Serialize(rank = 4)
+		public Mode mode = Mode.RUNNING;
+
+		@Serialize(rank = 5)
+		public int[] values = { 1, 2, 3, 4, 5, 6, 7, 8 };
+
+		@Serialize(rank = 6)
+		public String missing = null;
+	}
+
+	private final SerializerRegistry registry = SerializerRegistry.instance;
+
+	private final Payload payload = new Payload();
+
+	private IObjectSerializer<Payload> objectSerializer;
+
+	private PacketBuffer buffer;
+
+	@Setup
+	public void setup() {
+		objectSerializer = ClassSerializersProvider.instance.getSerializer(Payload.class);
+		buffer = new PacketBuffer(Unpooled.buffer());
+	}
+
+	@Benchmark
+	public Payload classRoundTrip() throws IOException {
+		buffer.clear();
+		registry.writeToStream(buffer, Payload.class, payload);
+		return registry.createFromStream(buffer, Payload.class);
+	}
+
+	@Benchmark
+	public Object primitiveRoundTrip() throws IOException {
+		buffer.clear();
+		registry.writeToStream(buffer, Integer.class, payload.id);
+		registry.writeToStream(buffer, String.class, payload.name);
+		registry.createFromStream(buffer, Integer.class);
+		return registry.createFromStream(buffer, String.class);
+	}
+
+	@Benchmark
+	public Payload classInPlace() throws IOException {
+		buffer.clear();
+		final Payload target = new Payload();
+		objectSerializer.writeToStream(payload, buffer);
+		objectSerializer.readFromStream(target, buffer);
+		return target;
+	}
+}
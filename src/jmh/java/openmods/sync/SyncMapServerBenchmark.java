@@ -0,0 +1,124 @@
+package openmods.sync;
+
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Supplier;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class SyncMapServerBenchmark {
+
+	private static class DummySyncMap extends SyncMapServer {
+		public DummySyncMap() {
+			super(UpdateStrategy.WITH_INITIAL_PACKET);
+		}
+
+		@Override
+		protected int getOwnerType() {
+			return 0;
+		}
+
+		@Override
+		protected void writeOwnerData(PacketBuffer output) {
+			output.writeBlockPos(BlockPos.ORIGIN);
+		}
+
+		@Override
+		protected Set<EntityPlayerMP> getPlayersWatching() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		protected boolean isInvalid() {
+			return false;
+		}
+	}
+
+	private static SyncableObjectType type(Class<? extends ISyncableObject> cls, Supplier<ISyncableObject> supplier) {
+		return new SyncableObjectType() {
+			@Override
+			public ISyncableObject createDummyObject() {
+				return supplier.get();
+			}
+
+			@Override
+			public Class<? extends ISyncableObject> getObjectClass() {
+				return cls;
+			}
+		}.setRegistryName(new ResourceLocation("benchmark", cls.getName()));
+	}
+
+	@Param({ "8", "64" })
+	public int fieldCount;
+
+	@Param({ "1", "8" })
+	public int changedCount;
+
+	private DummySyncMap map;
+
+	private SyncableInt[] ints;
+
+	private SyncableItemStack stack;
+
+	private int counter;
+
+	private PacketBuffer buffer;
+
+	@Setup
+	public void setup() throws IOException {
+		Bootstrap.register();
+
+		map = new DummySyncMap();
+		final SyncableObjectType intType = type(SyncableInt.class, SyncableInt::new);
+		ints = new SyncableInt[fieldCount];
+		for (int i = 0; i < fieldCount; i++) {
+			ints[i] = new SyncableInt(i);
+			map.registerObject("int" + i, ints[i], intType);
+		}
+
+		stack = new SyncableItemStack();
+		final ItemStack sword = new ItemStack(Items.DIAMOND_SWORD);
+		sword.setStackDisplayName("Benchmark");
+		stack.set(sword);
+		map.registerObject("stack", stack, type(SyncableItemStack.class, SyncableItemStack::new));
+
+		buffer = new PacketBuffer(Unpooled.buffer());
+		map.writeUpdates(buffer);
+	}
+
+	@Benchmark
+	public PacketBuffer primitiveDelta() throws IOException {
+		counter++;
+		for (int i = 0; i < changedCount; i++)
+			ints[(counter + i) % fieldCount].set(counter);
+
+		buffer.clear();
+		map.writeUpdates(buffer);
+		return buffer;
+	}
+
+	@Benchmark
+	public PacketBuffer itemStackDelta() throws IOException {
+		counter++;
+		final ItemStack current = stack.get();
+		current.setItemDamage(counter & 0xFF);
+		stack.set(current);
+
+		buffer.clear();
+		map.writeUpdates(buffer);
+		return buffer;
+	}
+}
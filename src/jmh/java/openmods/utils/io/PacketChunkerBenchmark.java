@@ -0,0 +1,41 @@
+package openmods.utils.io;
+
+import java.io.IOException;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class PacketChunkerBenchmark {
+
+	@Param({ "1024", "262144" })
+	public int payloadSize;
+
+	private final PacketChunker sender = new PacketChunker();
+
+	private final PacketChunker receiver = new PacketChunker();
+
+	private byte[] payload;
+
+	@Setup
+	public void setup() {
+		payload = new byte[payloadSize];
+		new Random(0).nextBytes(payload);
+	}
+
+	@Benchmark
+	public byte[][] split() {
+		return sender.splitIntoChunks(payload, PacketChunker.MAX_CHUNK_SIZE);
+	}
+
+	@Benchmark
+	public byte[] splitAndReassemble() throws IOException {
+		byte[] result = null;
+		for (byte[] chunk : sender.splitIntoChunks(payload, PacketChunker.MAX_CHUNK_SIZE))
+			result = receiver.consumeChunk(chunk);
+		return result;
+	}
+}
@@ -8,6 +8,10 @@ public class LibConfig {
 	@ConfigProperty(category = "debug", name = "fakePlayerCountThreshold", comment = "Maximum fake player pool that doesn't produce warning")
 	public static int fakePlayerThreshold = 10;
 
+	@OnLineModifiable
+	@ConfigProperty(category = "feature", name = "fakePlayerPoolWarmup", comment = "Number of fake players created for every server world on load, so first block breaker or placer does not pay construction cost")
+	public static int fakePlayerPoolWarmup = 0;
+
 	@OnLineModifiable
 	@ConfigProperty(category = "feature", name = "fakePlayerBlockBreakTools", comment = "List of tools used for checking effective during block breaking")
 	public static String[] toolProbes = new String[] { "minecraft:diamond_pickaxe", "minecraft:diamond_shovel", "minecraft:diamond_axe", "minecraft:diamond_sword", "minecraft:shears" };
@@ -19,6 +23,20 @@ public class LibConfig {
 	@ConfigProperty(category = "feature", name = "calculatorCommands", comment = "Enables command line calculator")
 	public static boolean enableCalculatorCommands = true;
 
+	@OnLineModifiable
+	@ConfigProperty(category = "feature", name = "scheduledTaskBudget", comment = "Maximum time (in microseconds) spent on scheduled tasks in single world tick. Remaining tasks (except high priority ones) are moved to next tick")
+	public static int scheduledTaskBudget = 5000;
+
+	@ConfigProperty(category = "rendering", name = "texturedItemCacheQuadLimit", comment = "Maximum number of quads in cached retextured item models (per model)")
+	public static int texturedItemCacheQuadLimit = 65536;
+
+	@ConfigProperty(category = "rendering", name = "texturedItemCacheRetention", comment = "Time (in seconds) after last use when retextured item models are removed from cache")
+	public static int texturedItemCacheRetention = 600;
+
+	@OnLineModifiable
+	@ConfigProperty(category = "debug", name = "networkMetrics", comment = "Collect statistics about packets sent by OpenMods channels (see /om_netstats)")
+	public static boolean networkMetrics = false;
+
 	@ConfigProperty(category = "debug", name = "tessellatorPoolLimit", comment = "Maximum allowed size of tessellator pool")
 	public static int tessellatorPoolLimit = 20;
 
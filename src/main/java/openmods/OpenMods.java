@@ -20,12 +20,14 @@ import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.registry.EntityRegistry;
 import openmods.config.ConfigChangeListener;
 import openmods.config.ConfigStorage;
+import openmods.config.game.RegistrationAnnotationIndex;
 import openmods.config.properties.CommandConfig;
 import openmods.config.properties.ConfigProcessing;
 import openmods.entity.DelayedEntityLoadManager;
 import openmods.entity.EntityBlock;
 import openmods.fakeplayer.FakePlayerPool;
 import openmods.integration.Integration;
+import openmods.network.CommandNetworkMetrics;
 import openmods.network.rpc.MethodEntry;
 import openmods.network.rpc.RpcCallDispatcher;
 import openmods.network.rpc.TargetTypeProvider;
@@ -59,10 +61,12 @@ import openmods.sync.SyncableTank;
 import openmods.sync.SyncableUUID;
 import openmods.sync.SyncableUnsignedByte;
 import openmods.sync.SyncableVarInt;
+import openmods.utils.EnchantingPowerCache;
+import openmods.utils.EntityWatcherCache;
 import openmods.utils.bitmap.IRpcDirectionBitMap;
 import openmods.utils.bitmap.IRpcIntBitMap;
-import openmods.world.DelayedActionTickHandler;
 import openmods.world.DropCapture;
+import openmods.world.TickScheduler;
 
 @Mod(modid = OpenMods.MODID, name = OpenMods.MODID, version = OpenMods.VERSION, dependencies = OpenMods.DEPENDENCIES, guiFactory = OpenMods.GUI_FACTORY, updateJSON = OpenMods.UPDATE_JSON, certificateFingerprint = OpenMods.CERTIFICATE_FINGERPRINT)
 public class OpenMods {
@@ -145,6 +149,8 @@ public class OpenMods {
 	public void preInit(FMLPreInitializationEvent evt) {
 		new TypeVariableHolderHandler().fillAllHolders(evt.getAsmData());
 
+		RegistrationAnnotationIndex.instance.collect(evt.getAsmData());
+
 		SyncChannelHolder.ensureLoaded();
 
 		final File configFile = evt.getSuggestedConfigurationFile();
@@ -160,7 +166,11 @@ public class OpenMods {
 
 		MinecraftForge.EVENT_BUS.register(DropCapture.instance);
 
-		MinecraftForge.EVENT_BUS.register(DelayedActionTickHandler.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(TickScheduler.INSTANCE);
+
+		MinecraftForge.EVENT_BUS.register(EntityWatcherCache.instance);
+
+		MinecraftForge.EVENT_BUS.register(EnchantingPowerCache.instance);
 
 		MinecraftForge.EVENT_BUS.register(ConfigStorage.instance);
 
@@ -188,5 +198,6 @@ public class OpenMods {
 	public void severStart(FMLServerStartingEvent evt) {
 		evt.registerServerCommand(new CommandConfig("om_config_s", true));
 		evt.registerServerCommand(new CommandSource("om_source_s", true, collector));
+		evt.registerServerCommand(new CommandNetworkMetrics("om_netstats", true));
 	}
 }
@@ -10,19 +10,95 @@ public class ColorUtils {
 		return low;
 	}
 
-	public static ColorMeta findNearestColor(RGB target, int tolernace) {
+	/**
+	 * Nearest palette colors for every cell of RGB cube quantized to {@link #LUT_BITS} bits per channel (stored as ordinals).
+	 * Cells are matched by their centers, so result may differ from exact scan for colors that are almost equally distant from two palette entries.
+	 */
+	private static class NearestColorLut {
+		private static final byte[] LUT = build();
+
+		private static byte[] build() {
+			final int size = 1 << LUT_BITS;
+			final int shift = 8 - LUT_BITS;
+			final int half = 1 << (shift - 1);
+
+			final byte[] result = new byte[size * size * size];
+			for (int r = 0; r < size; r++)
+				for (int g = 0; g < size; g++)
+					for (int b = 0; b < size; b++)
+						result[(r << (2 * LUT_BITS)) | (g << LUT_BITS) | b] = (byte)findNearestExact((r << shift) | half, (g << shift) | half, (b << shift) | half).ordinal();
+
+			return result;
+		}
+
+		public static ColorMeta get(int r, int g, int b) {
+			final int shift = 8 - LUT_BITS;
+			final int index = ((r >> shift) << (2 * LUT_BITS)) | ((g >> shift) << LUT_BITS) | (b >> shift);
+			return ColorMeta.VALUES[LUT[index]];
+		}
+	}
+
+	private static final int LUT_BITS = 5;
+
+	private static ColorMeta findNearestExact(int r, int g, int b) {
 		ColorMeta result = null;
 		int distSq = Integer.MAX_VALUE;
 
 		for (ColorMeta meta : ColorMeta.VALUES) {
-			final int currentDistSq = meta.rgbWrap.distance(target);
+			final RGB rgb = meta.rgbWrap;
+			final int currentDistSq = RGB.distance(rgb.r, rgb.g, rgb.b, r, g, b);
 			if (currentDistSq < distSq) {
 				result = meta;
 				distSq = currentDistSq;
 			}
 		}
 
-		return (distSq < 3 * tolernace * tolernace)? result : null;
+		return result;
+	}
+
+	private static boolean isInTolerance(ColorMeta meta, int r, int g, int b, int tolerance) {
+		final RGB rgb = meta.rgbWrap;
+		return RGB.distance(rgb.r, rgb.g, rgb.b, r, g, b) < 3 * tolerance * tolerance;
+	}
+
+	/**
+	 * Finds palette color closest to target, using precomputed table. Returns {@code null} if that color is not within tolerance.
+	 */
+	public static ColorMeta findNearestColor(RGB target, int tolernace) {
+		final ColorMeta result = NearestColorLut.get(target.r, target.g, target.b);
+		return isInTolerance(result, target.r, target.g, target.b, tolernace)? result : null;
+	}
+
+	/**
+	 * Same as {@link #findNearestColor(RGB, int)}, but always does full scan of palette.
+	 */
+	public static ColorMeta findNearestColorExact(RGB target, int tolernace) {
+		final ColorMeta result = findNearestExact(target.r, target.g, target.b);
+		return isInTolerance(result, target.r, target.g, target.b, tolernace)? result : null;
+	}
+
+	/**
+	 * Bulk version of {@link #findNearestColor(RGB, int)}. Pixels are in {@code 0xAARRGGBB} format (alpha is ignored).
+	 */
+	public static void findNearestColors(int[] pixels, int offset, int length, ColorMeta[] result, int resultOffset, int tolerance) {
+		Preconditions.checkPositionIndexes(offset, offset + length, pixels.length);
+		Preconditions.checkPositionIndexes(resultOffset, resultOffset + length, result.length);
+
+		for (int i = 0; i < length; i++) {
+			final int pixel = pixels[offset + i];
+			final int r = (pixel >> 16) & 0xFF;
+			final int g = (pixel >> 8) & 0xFF;
+			final int b = pixel & 0xFF;
+
+			final ColorMeta nearest = NearestColorLut.get(r, g, b);
+			result[resultOffset + i] = isInTolerance(nearest, r, g, b, tolerance)? nearest : null;
+		}
+	}
+
+	public static ColorMeta[] findNearestColors(int[] pixels, int tolerance) {
+		final ColorMeta[] result = new ColorMeta[pixels.length];
+		findNearestColors(pixels, 0, pixels.length, result, 0, tolerance);
+		return result;
 	}
 
 }
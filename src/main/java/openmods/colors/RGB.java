@@ -79,11 +79,15 @@ public class RGB {
 	}
 
 	public int distance(RGB other) {
+		return distance(this.r, this.g, this.b, other.r, other.g, other.b);
+	}
+
+	public static int distance(int r1, int g1, int b1, int r2, int g2, int b2) {
 		// Formula taken from http://www.compuphase.com/cmetric.htm
-		int meanR = (this.r + other.r) >>> 1;
-		int dR = this.r - other.r;
-		int dG = this.g - other.g;
-		int dB = this.b - other.b;
+		int meanR = (r1 + r2) >>> 1;
+		int dR = r1 - r2;
+		int dG = g1 - g2;
+		int dB = b1 - b2;
 
 		int dR2 = dR * dR;
 		int dG2 = dG * dG;
@@ -93,4 +97,4 @@ public class RGB {
 				+ (dG2 << 2)
 				+ (((767 - meanR) * dB2) >> 8));
 	}
-}
\ No newline at end of file
+}
@@ -8,10 +8,14 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import net.minecraft.block.Block;
 import net.minecraft.creativetab.CreativeTabs;
 import net.minecraft.item.Item;
@@ -81,6 +85,44 @@ public class GameRegistryObjectsProvider {
 
 	private final Map<Item, ResourceLocation> itemModelIds = Maps.newHashMap();
 
+	private final Map<Class<?>, List<AnnotatedEntry<Block, RegisterBlock>>> preparedBlocks = Maps.newHashMap();
+
+	private final Map<Class<?>, List<AnnotatedEntry<Item, RegisterItem>>> preparedItems = Maps.newHashMap();
+
+	private final IAnnotationAccess<RegisterBlock, Block> blockAnnotationAccess = new IAnnotationAccess<RegisterBlock, Block>() {
+		@Override
+		public String getEntryId(RegisterBlock annotation) {
+			return annotation.id();
+		}
+
+		@Override
+		public Class<? extends Block> getObjectType(RegisterBlock annotation) {
+			return annotation.type();
+		}
+
+		@Override
+		public boolean isEnabled(String id) {
+			return features.isBlockEnabled(id);
+		}
+	};
+
+	private final IAnnotationAccess<RegisterItem, Item> itemAnnotationAccess = new IAnnotationAccess<RegisterItem, Item>() {
+		@Override
+		public String getEntryId(RegisterItem annotation) {
+			return annotation.id();
+		}
+
+		@Override
+		public Class<? extends Item> getObjectType(RegisterItem annotation) {
+			return annotation.type();
+		}
+
+		@Override
+		public boolean isEnabled(String id) {
+			return features.isItemEnabled(id);
+		}
+	};
+
 	private Supplier<CreativeTabs> creativeTabSupplier;
 	private CreativeTabs creativeTab;
 
@@ -186,40 +228,85 @@ public class GameRegistryObjectsProvider {
 		return itemFactory;
 	}
 
-	private static <I, A extends Annotation> void processAnnotations(Class<? extends InstanceContainer<?>> config, Class<I> baseClass, Class<A> annotationClass, FactoryRegistry<I> factory, IAnnotationAccess<A, I> annotationAccess, IObjectVisitor<I, A> visitor) {
-		for (Field f : config.getFields()) {
-			if (f.isAnnotationPresent(IgnoreFeature.class)) continue;
-			final A annotation = f.getAnnotation(annotationClass);
-			if (annotation == null) continue;
+	private static class AnnotatedEntry<I, A extends Annotation> {
+		public final Field field;
+		public final A annotation;
+		public final String name;
+		public final Class<? extends I> targetCls;
+
+		public AnnotatedEntry(Field field, A annotation, String name, Class<? extends I> targetCls) {
+			this.field = field;
+			this.annotation = annotation;
+			this.name = name;
+			this.targetCls = targetCls;
+		}
+	}
 
-			Preconditions.checkState(Modifier.isStatic(f.getModifiers()), "Field %s marked with %s must be static", f, annotationClass);
+	private static boolean isCandidate(Field f, Class<? extends Annotation> annotationClass) {
+		final Set<String> annotatedFields = RegistrationAnnotationIndex.instance.getAnnotatedFields(f.getDeclaringClass(), annotationClass);
+		if (annotatedFields != null) return annotatedFields.contains(f.getName());
+		return !f.isAnnotationPresent(IgnoreFeature.class);
+	}
 
-			final Class<? extends I> fieldType = getFieldType(f, baseClass);
+	private static <I, A extends Annotation> AnnotatedEntry<I, A> createEntry(Field f, Class<I> baseClass, Class<A> annotationClass, IAnnotationAccess<A, I> annotationAccess) {
+		final A annotation = f.getAnnotation(annotationClass);
+		if (annotation == null) return null;
 
-			Class<? extends I> targetCls = annotationAccess.getObjectType(annotation);
-			if (targetCls == baseClass) {
-				targetCls = fieldType;
-			}
+		Preconditions.checkState(Modifier.isStatic(f.getModifiers()), "Field %s marked with %s must be static", f, annotationClass);
 
-			Preconditions.checkState(targetCls != baseClass, "Invalid field %s type - got base class", f);
+		final Class<? extends I> fieldType = getFieldType(f, baseClass);
 
-			String name = annotationAccess.getEntryId(annotation);
-			if (!annotationAccess.isEnabled(name)) {
-				Log.info("Object %s (from field %s) is disabled", name, f);
+		Class<? extends I> targetCls = annotationAccess.getObjectType(annotation);
+		if (targetCls == baseClass) {
+			targetCls = fieldType;
+		}
+
+		Preconditions.checkState(targetCls != baseClass, "Invalid field %s type - got base class", f);
+
+		return new AnnotatedEntry<>(f, annotation, annotationAccess.getEntryId(annotation), targetCls);
+	}
+
+	// must stay on loading thread: annotation and field type lookups may load (and transform) classes
+	private static <I, A extends Annotation> List<AnnotatedEntry<I, A>> collectEntries(Class<? extends InstanceContainer<?>> config, Class<I> baseClass, Class<A> annotationClass, IAnnotationAccess<A, I> annotationAccess) {
+		return Arrays.stream(config.getFields())
+				.filter(f -> isCandidate(f, annotationClass))
+				.map(f -> createEntry(f, baseClass, annotationClass, annotationAccess))
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList());
+	}
+
+	private static <I, A extends Annotation> void processAnnotations(Class<? extends InstanceContainer<?>> config, Class<I> baseClass, Class<A> annotationClass, FactoryRegistry<I> factory, IAnnotationAccess<A, I> annotationAccess, Map<Class<?>, List<AnnotatedEntry<I, A>>> preparedEntries, IObjectVisitor<I, A> visitor) {
+		List<AnnotatedEntry<I, A>> entries = preparedEntries.remove(config);
+		if (entries == null) entries = collectEntries(config, baseClass, annotationClass, annotationAccess);
+
+		for (AnnotatedEntry<I, A> e : entries) {
+			if (!annotationAccess.isEnabled(e.name)) {
+				Log.info("Object %s (from field %s) is disabled", e.name, e.field);
 				continue;
 			}
 
-			I entry = factory.construct(name, targetCls);
+			I entry = factory.construct(e.name, e.targetCls);
 			if (entry == null) continue;
 			try {
-				f.set(null, entry);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
+				e.field.set(null, entry);
+			} catch (IllegalAccessException ex) {
+				throw new RuntimeException(ex);
 			}
-			visitor.visit(entry, annotation);
+			visitor.visit(entry, e.annotation);
 		}
 	}
 
+	/**
+	 * Collects annotation data from holders ahead of object creation and registration, which are done in {@link #registerBlocks} and {@link #registerItems}.
+	 */
+	public void collectMetadata(Collection<Class<? extends BlockInstances>> blockHolders, Collection<Class<? extends ItemInstances>> itemHolders) {
+		for (Class<? extends BlockInstances> holder : blockHolders)
+			preparedBlocks.put(holder, collectEntries(holder, Block.class, RegisterBlock.class, blockAnnotationAccess));
+
+		for (Class<? extends ItemInstances> holder : itemHolders)
+			preparedItems.put(holder, collectEntries(holder, Item.class, RegisterItem.class, itemAnnotationAccess));
+	}
+
 	@SuppressWarnings("unchecked")
 	private static <I> Class<? extends I> getFieldType(Field field, Class<I> baseClass) {
 		final Class<?> type = field.getType();
@@ -257,23 +344,7 @@ public class GameRegistryObjectsProvider {
 	}
 
 	public void registerItems(Class<? extends ItemInstances> klazz, IForgeRegistry<Item> items) {
-		processAnnotations(klazz, Item.class, RegisterItem.class, itemFactory,
-				new IAnnotationAccess<RegisterItem, Item>() {
-					@Override
-					public String getEntryId(RegisterItem annotation) {
-						return annotation.id();
-					}
-
-					@Override
-					public Class<? extends Item> getObjectType(RegisterItem annotation) {
-						return annotation.type();
-					}
-
-					@Override
-					public boolean isEnabled(String id) {
-						return features.isItemEnabled(id);
-					}
-				},
+		processAnnotations(klazz, Item.class, RegisterItem.class, itemFactory, itemAnnotationAccess, preparedItems,
 				(item, annotation) -> {
 					final String id = annotation.id();
 					final Set<String> legacyIds = Sets.newHashSet(annotation.legacyIds());
@@ -332,23 +403,7 @@ public class GameRegistryObjectsProvider {
 	public void registerBlocks(Class<? extends BlockInstances> klazz, IForgeRegistry<Block> blocks, IForgeRegistry<Item> items) {
 		final CachedInstanceFactory<IFixerFactory> fixerFactories = CachedInstanceFactory.create();
 		final DataFixer fixerRegistry = FMLCommonHandler.instance().getDataFixer();
-		processAnnotations(klazz, Block.class, RegisterBlock.class, blockFactory,
-				new IAnnotationAccess<RegisterBlock, Block>() {
-					@Override
-					public String getEntryId(RegisterBlock annotation) {
-						return annotation.id();
-					}
-
-					@Override
-					public Class<? extends Block> getObjectType(RegisterBlock annotation) {
-						return annotation.type();
-					}
-
-					@Override
-					public boolean isEnabled(String id) {
-						return features.isBlockEnabled(id);
-					}
-				},
+		processAnnotations(klazz, Block.class, RegisterBlock.class, blockFactory, blockAnnotationAccess, preparedBlocks,
 				new IObjectVisitor<Block, RegisterBlock>() {
 					@Override
 					public void visit(final Block block, RegisterBlock annotation) {
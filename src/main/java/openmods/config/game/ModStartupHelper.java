@@ -1,9 +1,11 @@
 package openmods.config.game;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Table;
 import java.io.File;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import net.minecraft.block.Block;
 import net.minecraft.item.Item;
 import net.minecraftforge.common.MinecraftForge;
@@ -13,6 +15,7 @@ import net.minecraftforge.event.RegistryEvent.MissingMappings;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.registry.GameRegistry;
 import net.minecraftforge.registries.IForgeRegistry;
+import openmods.Log;
 import openmods.config.BlockInstances;
 import openmods.config.ConfigStorage;
 import openmods.config.ItemInstances;
@@ -24,7 +27,10 @@ public class ModStartupHelper {
 	private final Set<Class<? extends ItemInstances>> itemHolders = Sets.newHashSet();
 	private final GameRegistryObjectsProvider gameObjectsProvider;
 
+	private final String modId;
+
 	public ModStartupHelper(String modId) {
+		this.modId = modId;
 		this.gameObjectsProvider = new GameRegistryObjectsProvider(modId);
 	}
 
@@ -69,11 +75,23 @@ public class ModStartupHelper {
 		final IForgeRegistry<Item> items = GameRegistry.findRegistry(Item.class);
 		final IForgeRegistry<Block> blocks = GameRegistry.findRegistry(Block.class);
 
+		final Stopwatch metadataTimer = Stopwatch.createStarted();
+		gameObjectsProvider.collectMetadata(blockHolders, itemHolders);
+		metadataTimer.stop();
+
+		final Stopwatch blocksTimer = Stopwatch.createStarted();
 		for (Class<? extends BlockInstances> blockHolder : blockHolders)
 			gameObjectsProvider.registerBlocks(blockHolder, blocks, items);
+		blocksTimer.stop();
 
+		final Stopwatch itemsTimer = Stopwatch.createStarted();
 		for (Class<? extends ItemInstances> itemHolder : itemHolders)
 			gameObjectsProvider.registerItems(itemHolder, items);
+		itemsTimer.stop();
+
+		Log.info("Game objects for mod %s registered in %d ms (annotation scan: %d ms, blocks: %d ms, items: %d ms)", modId,
+				metadataTimer.elapsed(TimeUnit.MILLISECONDS) + blocksTimer.elapsed(TimeUnit.MILLISECONDS) + itemsTimer.elapsed(TimeUnit.MILLISECONDS),
+				metadataTimer.elapsed(TimeUnit.MILLISECONDS), blocksTimer.elapsed(TimeUnit.MILLISECONDS), itemsTimer.elapsed(TimeUnit.MILLISECONDS));
 
 		setupConfigPost(gameObjectsProvider);
 
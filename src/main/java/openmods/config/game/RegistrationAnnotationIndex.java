@@ -0,0 +1,66 @@
+package openmods.config.game;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
+import java.lang.annotation.Annotation;
+import java.util.Map;
+import java.util.Set;
+import net.minecraftforge.fml.common.discovery.ASMDataTable;
+import net.minecraftforge.fml.common.discovery.ASMDataTable.ASMData;
+
+/**
+ * Names of fields marked with registration annotations, collected from FML class scan.
+ * Allows {@link GameRegistryObjectsProvider} to skip reflective annotation lookup on unrelated fields.
+ */
+public class RegistrationAnnotationIndex {
+
+	public static final RegistrationAnnotationIndex instance = new RegistrationAnnotationIndex();
+
+	private RegistrationAnnotationIndex() {}
+
+	// class name -> annotated field names (minus ignored ones)
+	private volatile Map<String, Set<String>> blockFields;
+
+	private volatile Map<String, Set<String>> itemFields;
+
+	public void collect(ASMDataTable table) {
+		final SetMultimap<String, String> ignoredFields = collect(table, IgnoreFeature.class);
+		blockFields = collect(table, RegisterBlock.class, ignoredFields);
+		itemFields = collect(table, RegisterItem.class, ignoredFields);
+	}
+
+	private static SetMultimap<String, String> collect(ASMDataTable table, Class<? extends Annotation> annotation) {
+		final SetMultimap<String, String> result = HashMultimap.create();
+		for (ASMData data : table.getAll(annotation.getName()))
+			result.put(data.getClassName(), data.getObjectName());
+		return result;
+	}
+
+	private static Map<String, Set<String>> collect(ASMDataTable table, Class<? extends Annotation> annotation, SetMultimap<String, String> ignoredFields) {
+		final ImmutableMap.Builder<String, Set<String>> result = ImmutableMap.builder();
+		for (Map.Entry<String, Set<String>> e : Multimaps.asMap(collect(table, annotation)).entrySet()) {
+			final Set<String> ignored = ignoredFields.get(e.getKey());
+			result.put(e.getKey(), ImmutableSet.copyOf(Sets.difference(e.getValue(), ignored)));
+		}
+		return result.build();
+	}
+
+	private Map<String, Set<String>> getFields(Class<? extends Annotation> annotation) {
+		if (annotation == RegisterBlock.class) return blockFields;
+		if (annotation == RegisterItem.class) return itemFields;
+		return null;
+	}
+
+	/**
+	 * @return names of fields declared in class marked with annotation and not marked with {@link IgnoreFeature}, or null if data is not available (also when class was not scanned or has no such fields)
+	 */
+	public Set<String> getAnnotatedFields(Class<?> declaringClass, Class<? extends Annotation> annotation) {
+		final Map<String, Set<String>> fields = getFields(annotation);
+		// absent class may come from outside of scanned jars, so caller must check it reflectively
+		return fields != null? fields.get(declaringClass.getName()) : null;
+	}
+}
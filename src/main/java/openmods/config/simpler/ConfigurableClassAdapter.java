@@ -6,7 +6,7 @@ import java.lang.reflect.Field;
 import java.util.Map;
 import java.util.Set;
 import openmods.reflection.FieldAccess;
-import openmods.utils.CachedFactory;
+import openmods.utils.ClassMetadataCache;
 import openmods.utils.io.IStringSerializer;
 import openmods.utils.io.TypeRW;
 
@@ -88,7 +88,7 @@ public class ConfigurableClassAdapter<T> {
 		findField(key).set(instance, value);
 	}
 
-	private static final CachedFactory<Class<?>, ConfigurableClassAdapter<?>> CACHE = new CachedFactory<Class<?>, ConfigurableClassAdapter<?>>() {
+	private static final ClassMetadataCache<ConfigurableClassAdapter<?>> CACHE = new ClassMetadataCache<ConfigurableClassAdapter<?>>() {
 		@Override
 		protected ConfigurableClassAdapter<?> create(Class<?> key) {
 			return new ConfigurableClassAdapter<Object>(key);
@@ -97,6 +97,6 @@ public class ConfigurableClassAdapter<T> {
 
 	@SuppressWarnings("unchecked")
 	public static <T> ConfigurableClassAdapter<T> getFor(Class<? extends T> cls) {
-		return (ConfigurableClassAdapter<T>)CACHE.getOrCreate(cls);
+		return (ConfigurableClassAdapter<T>)CACHE.get(cls);
 	}
 }
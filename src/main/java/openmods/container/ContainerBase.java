@@ -1,5 +1,6 @@
 package openmods.container;
 
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -22,6 +23,10 @@ public abstract class ContainerBase<T> extends Container {
 	protected final T owner;
 	protected final IInventory inventory;
 
+	private ContainerSlotIndex slotIndex;
+
+	private boolean slotIndexChecked;
+
 	protected static class RestrictedSlot extends Slot {
 
 		public RestrictedSlot(IInventory inventory, int slot, int x, int y) {
@@ -97,16 +102,39 @@ public abstract class ContainerBase<T> extends Container {
 		return owner;
 	}
 
+	private ContainerSlotIndex getSlotIndex() {
+		if (slotIndex == null) {
+			slotIndex = new ContainerSlotIndex(getSlots(), inventoryItemStacks);
+		} else if (!slotIndexChecked) {
+			// stacks may have been replaced since last sync, but one check per click is enough
+			slotIndex.checkReplacedStacks();
+		}
+
+		slotIndexChecked = true;
+		return slotIndex;
+	}
+
+	private static int firstSlot(BitSet slots, int start, int stop, boolean reverse) {
+		final int slotId = reverse? slots.previousSetBit(stop - 1) : slots.nextSetBit(start);
+		return (slotId >= start && slotId < stop)? slotId : -1;
+	}
+
+	private static int nextSlot(BitSet slots, int slotId, int start, int stop, boolean reverse) {
+		return reverse? firstSlot(slots, start, slotId, true) : firstSlot(slots, slotId + 1, stop, false);
+	}
+
 	protected boolean mergeItemStackSafe(@Nonnull ItemStack stackToMerge, int start, int stop, boolean reverse) {
 		boolean inventoryChanged = false;
 
-		final int delta = reverse? -1 : 1;
+		final ContainerSlotIndex index = getSlotIndex();
+
 		List<Slot> slots = getSlots();
 
 		if (stackToMerge.isStackable()) {
-			int slotId = reverse? stop - 1 : start;
-			while (!stackToMerge.isEmpty() && ((!reverse && slotId < stop) || (reverse && slotId >= start))) {
-
+			// only slots with same item (or key collisions), visited in same order as full scan would
+			final BitSet candidates = index.getSlotsWithItem(stackToMerge);
+			int slotId = firstSlot(candidates, start, stop, reverse);
+			while (!stackToMerge.isEmpty() && slotId >= 0) {
 				Slot slot = slots.get(slotId);
 
 				if (canTransferItemsIn(slot)) {
@@ -114,29 +142,32 @@ public abstract class ContainerBase<T> extends Container {
 
 					if (InventoryUtils.tryMergeStacks(stackToMerge, stackInSlot)) {
 						slot.onSlotChanged();
+						index.markChanged(slotId);
 						inventoryChanged = true;
 					}
 				}
 
-				slotId += delta;
+				slotId = nextSlot(candidates, slotId, start, stop, reverse);
 			}
 		}
 
 		if (!stackToMerge.isEmpty()) {
-			int slotId = reverse? stop - 1 : start;
+			final BitSet emptySlots = index.getEmptySlots();
+			int slotId = firstSlot(emptySlots, start, stop, reverse);
 
-			while ((!reverse && slotId < stop) || (reverse && slotId >= start)) {
+			while (slotId >= 0) {
 				Slot slot = slots.get(slotId);
 				ItemStack stackInSlot = slot.getStack();
 
 				if (stackInSlot.isEmpty() && canTransferItemsIn(slot) && slot.isItemValid(stackToMerge)) {
 					slot.putStack(stackToMerge.copy());
 					slot.onSlotChanged();
+					index.markChanged(slotId);
 					stackToMerge.setCount(0);
 					return true;
 				}
 
-				slotId += delta;
+				slotId = nextSlot(emptySlots, slotId, start, stop, reverse);
 			}
 		}
 
@@ -156,6 +187,7 @@ public abstract class ContainerBase<T> extends Container {
 			} else if (!mergeItemStackSafe(itemToTransfer, 0, inventorySize, false)) return ItemStack.EMPTY;
 
 			slot.putStack(itemToTransfer);
+			if (slotIndex != null) slotIndex.markChanged(slotId);
 
 			if (itemToTransfer.getCount() != copy.getCount()) return copy;
 		}
@@ -198,8 +230,16 @@ public abstract class ContainerBase<T> extends Container {
 		return false;
 	}
 
+	@Override
+	public void detectAndSendChanges() {
+		super.detectAndSendChanges();
+		if (slotIndex != null) slotIndex.onSynced(inventoryItemStacks);
+	}
+
 	@Override
 	public ItemStack slotClick(int slotId, int dragType, ClickType clickType, EntityPlayer player) {
+		slotIndexChecked = false;
+
 		if (slotId >= 0 && slotId < inventorySlots.size()) {
 			Slot slot = getSlot(slotId);
 			if (slot instanceof ICustomSlot) return ((ICustomSlot)slot).onClick(player, dragType, clickType);
@@ -0,0 +1,125 @@
+package openmods.container;
+
+import com.google.common.collect.Maps;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import net.minecraft.inventory.Slot;
+import net.minecraft.item.ItemStack;
+import openmods.inventory.ItemKey;
+
+/**
+ * Index of container slots by contents: empty slots and slots grouped by {@link ItemKey}.
+ * Entries are only candidates - callers must still check contents, since keys may collide.
+ * Slots changed by container are reported via {@link #markChanged(int)}, slots found changed by vanilla sync via {@link #onSynced(List)}.
+ * Remaining changes (stacks replaced outside container) are picked by {@link #checkReplacedStacks()}, which only compares stack references.
+ */
+public class ContainerSlotIndex {
+
+	private final List<Slot> slots;
+
+	private int size;
+
+	private ItemKey[] keys;
+
+	private ItemStack[] seenStacks;
+
+	private ItemStack[] syncedStacks;
+
+	private final BitSet emptySlots = new BitSet();
+
+	private final Map<ItemKey, BitSet> slotsByKey = Maps.newHashMap();
+
+	private static final BitSet NO_SLOTS = new BitSet();
+
+	public ContainerSlotIndex(List<Slot> slots, List<ItemStack> syncedStacks) {
+		this.slots = slots;
+		rebuild(syncedStacks);
+	}
+
+	private void rebuild(List<ItemStack> synced) {
+		size = slots.size();
+		keys = new ItemKey[size];
+		seenStacks = new ItemStack[size];
+		syncedStacks = new ItemStack[size];
+		emptySlots.clear();
+		slotsByKey.clear();
+
+		for (int i = 0; i < size; i++)
+			update(i);
+
+		for (int i = 0; i < size && i < synced.size(); i++)
+			syncedStacks[i] = synced.get(i);
+	}
+
+	public void markChanged(int slotId) {
+		if (slotId >= 0 && slotId < size) update(slotId);
+	}
+
+	/**
+	 * Should be called after {@link net.minecraft.inventory.Container#detectAndSendChanges()}, which replaces synced copy of every slot that changed (also in place).
+	 */
+	public void onSynced(List<ItemStack> synced) {
+		if (slots.size() != size) {
+			rebuild(synced);
+			return;
+		}
+
+		for (int i = 0; i < size && i < synced.size(); i++) {
+			final ItemStack stack = synced.get(i);
+			if (stack != syncedStacks[i]) {
+				syncedStacks[i] = stack;
+				update(i);
+			}
+		}
+	}
+
+	public void checkReplacedStacks() {
+		if (slots.size() != size) {
+			// synced copies unknown - all slots will be refreshed on next sync
+			rebuild(Collections.<ItemStack> emptyList());
+			return;
+		}
+
+		for (int i = 0; i < size; i++)
+			if (slots.get(i).getStack() != seenStacks[i]) update(i);
+	}
+
+	private void update(int slotId) {
+		final ItemKey prevKey = keys[slotId];
+		if (prevKey != null) {
+			final BitSet prevSlots = slotsByKey.get(prevKey);
+			prevSlots.clear(slotId);
+			if (prevSlots.isEmpty()) slotsByKey.remove(prevKey);
+		}
+
+		final ItemStack stack = slots.get(slotId).getStack();
+		seenStacks[slotId] = stack;
+		if (stack.isEmpty()) {
+			keys[slotId] = null;
+			emptySlots.set(slotId);
+		} else {
+			final ItemKey key = ItemKey.of(stack);
+			keys[slotId] = key;
+			emptySlots.clear(slotId);
+
+			BitSet keySlots = slotsByKey.get(key);
+			if (keySlots == null) {
+				keySlots = new BitSet();
+				slotsByKey.put(key, keySlots);
+			}
+			keySlots.set(slotId);
+		}
+	}
+
+	public BitSet getSlotsWithItem(@Nonnull ItemStack stack) {
+		final BitSet result = slotsByKey.get(ItemKey.of(stack));
+		return result != null? result : NO_SLOTS;
+	}
+
+	public BitSet getEmptySlots() {
+		return emptySlots;
+	}
+}
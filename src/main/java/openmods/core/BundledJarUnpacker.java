@@ -7,10 +7,13 @@ import com.google.common.io.ByteStreams;
 import com.google.common.io.Closer;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.util.Map;
 import java.util.jar.JarFile;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import net.minecraft.launchwrapper.LaunchClassLoader;
 import openmods.Log;
@@ -39,6 +42,90 @@ public class BundledJarUnpacker {
 		throw new IllegalStateException("Failed to find temporary dir for libs in " + dir);
 	}
 
+	private static final int CRC_BUFFER_SIZE = 64 * 1024;
+
+	private static long calculateCrc(FileChannel channel) throws IOException {
+		final CRC32 crc = new CRC32();
+		final ByteBuffer buffer = ByteBuffer.allocate(CRC_BUFFER_SIZE);
+		channel.position(0);
+		while (channel.read(buffer) >= 0) {
+			buffer.flip();
+			crc.update(buffer);
+			buffer.clear();
+		}
+		return crc.getValue();
+	}
+
+	private static boolean isValidCopy(Locks.Lock lock, ZipEntry entry) throws IOException {
+		return lock.channel.size() == entry.getSize() && calculateCrc(lock.channel) == entry.getCrc();
+	}
+
+	private static void extract(JarFile jar, ZipEntry entry, ExclusiveLock target) throws IOException {
+		final FileChannel output = target.channel;
+		output.truncate(0);
+		try (ReadableByteChannel input = Channels.newChannel(jar.getInputStream(entry))) {
+			long position = 0;
+			while (true) {
+				final long transferred = output.transferFrom(input, position, entry.getSize() - position);
+				if (transferred <= 0) break;
+				position += transferred;
+			}
+		}
+		output.force(false);
+	}
+
+	/**
+	 * Returns shared lock on valid copy of entry, stored in directory named after entry CRC and size (taken from zip directory, so no decompression is needed to find it).
+	 * Existing copy is reused if it's still valid. Returns absent value if entry can't be stored this way (i.e. unknown CRC or file locked by other process).
+	 */
+	private static Optional<SharedLock> findOrExtractByContent(File libDir, JarFile jar, String name, ZipEntry entry) throws IOException {
+		if (entry.getCrc() == -1 || entry.getSize() == -1) return Optional.absent();
+
+		final File contentDir = new File(libDir, String.format("%08x-%d", entry.getCrc(), entry.getSize()));
+		if (!contentDir.isDirectory() && !contentDir.mkdirs()) return Optional.absent();
+
+		final File file = new File(contentDir, name);
+
+		final SharedLock existing = Locks.sharedLock(file);
+		if (isValidCopy(existing, entry)) {
+			Log.debug("Reusing file %s extracted from %s", file, jar.getName());
+			return Optional.of(existing);
+		}
+		existing.close();
+
+		// other instances only keep shared locks on valid files, so this will succeed unless someone is extracting right now
+		final Optional<ExclusiveLock> maybeLock = Locks.tryExclusiveLock(file);
+		if (!maybeLock.isPresent()) return Optional.absent();
+
+		final ExclusiveLock lock = maybeLock.get();
+		try {
+			if (!isValidCopy(lock, entry)) {
+				Log.debug("Extracting file %s from %s to %s", name, jar.getName(), file);
+				extract(jar, entry, lock);
+				if (!isValidCopy(lock, entry)) throw new IOException("Extracted file " + file + " is corrupted");
+			}
+
+			return Optional.of(lock.degrade());
+		} catch (Throwable t) {
+			lock.close();
+			throw t;
+		}
+	}
+
+	private static SharedLock extractToTempDir(File libDir, JarFile jar, String name, ZipEntry entry) throws IOException {
+		final ExclusiveLock lockedFile = findLockableFile(libDir, name);
+
+		Log.debug("Copying file %s from %s to %s", name, jar.getName(), lockedFile.file);
+		final ReadableByteChannel jarJarStream = Channels.newChannel(jar.getInputStream(entry));
+		ByteStreams.copy(jarJarStream, lockedFile.channel);
+		jarJarStream.close();
+
+		// keep shared lock to prevent file overwrite
+		final SharedLock sharedFile = lockedFile.degrade();
+		sharedFile.file.deleteOnExit();
+		return sharedFile;
+	}
+
 	public static void setup(Map<String, Object> data) {
 		try {
 			final File coremodFile = (File)data.get("coremodLocation");
@@ -60,16 +147,8 @@ public class BundledJarUnpacker {
 						final ZipEntry entry = coremodJar.getEntry(jarJar);
 						if (entry == null) throw new IllegalAccessException("Can't find entry " + jarJar + " in jar " + coremodFile);
 
-						final ExclusiveLock lockedFile = findLockableFile(libDir, jarJar);
-
-						Log.debug("Copying file %s from %s to %s", jarJar, coremodFile, lockedFile.file);
-						final ReadableByteChannel jarJarStream = Channels.newChannel(coremodJar.getInputStream(entry));
-						ByteStreams.copy(jarJarStream, lockedFile.channel);
-						jarJarStream.close();
-
-						// keep shared lock to prevent file overwrite
-						final SharedLock sharedFile = closer.register(lockedFile.degrade());
-						sharedFile.file.deleteOnExit();
+						final Optional<SharedLock> reusableFile = findOrExtractByContent(libDir, coremodJar, jarJar, entry);
+						final SharedLock sharedFile = closer.register(reusableFile.isPresent()? reusableFile.get() : extractToTempDir(libDir, coremodJar, jarJar, entry));
 
 						classLoader.addURL(sharedFile.file.toURI().toURL());
 					}
@@ -0,0 +1,103 @@
+package openmods.core;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal class file constant pool reader, used to cheaply check if class references given names (without full ASM pass).
+ * Unknown constant types make scan give up and report possible match.
+ */
+public class ClassConstantScanner {
+
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_INTEGER = 3;
+	private static final int CONSTANT_FLOAT = 4;
+	private static final int CONSTANT_LONG = 5;
+	private static final int CONSTANT_DOUBLE = 6;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_STRING = 8;
+	private static final int CONSTANT_FIELDREF = 9;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_INTERFACE_METHODREF = 11;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+	private static final int CONSTANT_METHOD_HANDLE = 15;
+	private static final int CONSTANT_METHOD_TYPE = 16;
+	private static final int CONSTANT_DYNAMIC = 17;
+	private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+	private static final int CONSTANT_MODULE = 19;
+	private static final int CONSTANT_PACKAGE = 20;
+
+	private final byte[][] needles;
+
+	public ClassConstantScanner(String... utf8Constants) {
+		this.needles = new byte[utf8Constants.length][];
+		for (int i = 0; i < utf8Constants.length; i++)
+			needles[i] = utf8Constants[i].getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static int readU2(byte[] bytes, int pos) {
+		return ((bytes[pos] & 0xFF) << 8) | (bytes[pos + 1] & 0xFF);
+	}
+
+	/**
+	 * @return false only if class is well formed and none of constants is present in its pool
+	 */
+	public boolean mayContain(byte[] bytes) {
+		try {
+			final int count = readU2(bytes, 8);
+			int pos = 10;
+			for (int i = 1; i < count; i++) {
+				final int tag = bytes[pos];
+				switch (tag) {
+					case CONSTANT_UTF8: {
+						final int length = readU2(bytes, pos + 1);
+						if (matches(bytes, pos + 3, length)) return true;
+						pos += 3 + length;
+						break;
+					}
+					case CONSTANT_CLASS:
+					case CONSTANT_STRING:
+					case CONSTANT_METHOD_TYPE:
+					case CONSTANT_MODULE:
+					case CONSTANT_PACKAGE:
+						pos += 3;
+						break;
+					case CONSTANT_METHOD_HANDLE:
+						pos += 4;
+						break;
+					case CONSTANT_INTEGER:
+					case CONSTANT_FLOAT:
+					case CONSTANT_FIELDREF:
+					case CONSTANT_METHODREF:
+					case CONSTANT_INTERFACE_METHODREF:
+					case CONSTANT_NAME_AND_TYPE:
+					case CONSTANT_DYNAMIC:
+					case CONSTANT_INVOKE_DYNAMIC:
+						pos += 5;
+						break;
+					case CONSTANT_LONG:
+					case CONSTANT_DOUBLE:
+						pos += 9;
+						i++; // takes two slots
+						break;
+					default:
+						return true;
+				}
+			}
+
+			return false;
+		} catch (ArrayIndexOutOfBoundsException e) {
+			return true;
+		}
+	}
+
+	private boolean matches(byte[] bytes, int start, int length) {
+		outer: for (byte[] needle : needles) {
+			if (needle.length != length) continue;
+			for (int i = 0; i < length; i++)
+				if (bytes[start + i] != needle[i]) continue outer;
+			return true;
+		}
+
+		return false;
+	}
+}
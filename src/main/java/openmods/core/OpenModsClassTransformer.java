@@ -48,6 +48,8 @@ public class OpenModsClassTransformer implements IClassTransformer {
 
 	private Set<String> includedClasses;
 
+	private static final ClassConstantScanner INCLUDE_ANNOTATIONS_SCANNER = new ClassConstantScanner("Lopenmods/include/IncludeInterface;", "Lopenmods/include/IncludeOverride;");
+
 	private abstract class ConfigOption implements UpdateListener {
 
 		private final StateUpdater<TransformerState> state;
@@ -202,13 +204,13 @@ public class OpenModsClassTransformer implements IClassTransformer {
 		this.includedClasses = includedClasses.build();
 	}
 
-	private boolean shouldTryIncluding(String clsName) {
+	private boolean shouldTryIncluding(String clsName, byte[] bytes) {
 		if (includedClasses != null) return includedClasses.contains(clsName);
 
 		for (String prefix : IGNORED_PREFIXES)
 			if (clsName.startsWith(prefix)) return false;
 
-		return true;
+		return INCLUDE_ANNOTATIONS_SCANNER.mayContain(bytes);
 	}
 
 	@Override
@@ -220,7 +222,7 @@ public class OpenModsClassTransformer implements IClassTransformer {
 			return (provider != null)? VisitorHelper.apply(bytes, name, provider) : bytes;
 		}
 
-		if (shouldTryIncluding(transformedName)) return applyIncludes(name, transformedName, bytes);
+		if (shouldTryIncluding(transformedName, bytes)) return applyIncludes(name, transformedName, bytes);
 
 		return bytes;
 	}
@@ -78,7 +78,7 @@ public class BreakBlockAction implements PlayerUserReturning<List<EntityItem>> {
 		this.stackToUse = createToolStack(Items.DIAMOND_PICKAXE);
 	}
 
-	private static ItemStack createToolStack(Item tool) {
+	static ItemStack createToolStack(Item tool) {
 		return new ItemStack(tool, 1, 0);
 	}
 
@@ -118,48 +118,54 @@ public class BreakBlockAction implements PlayerUserReturning<List<EntityItem>> {
 		}
 	}
 
-	private static void setPlayerTool(OpenModsFakePlayer fakePlayer, final ItemStack tool) {
+	static void setPlayerTool(OpenModsFakePlayer fakePlayer, final ItemStack tool) {
 		fakePlayer.inventory.setInventorySlotContents(0, tool.copy());
 	}
 
-	private boolean removeBlock(EntityPlayer player, BlockPos pos, IBlockState state, boolean canHarvest) {
+	private static boolean removeBlock(World world, EntityPlayer player, BlockPos pos, IBlockState state, boolean canHarvest) {
 		final Block block = state.getBlock();
-		block.onBlockHarvested(worldObj, pos, state, player);
-		final boolean result = block.removedByPlayer(state, worldObj, pos, player, canHarvest);
-		if (result) block.onBlockDestroyedByPlayer(worldObj, pos, state);
+		block.onBlockHarvested(world, pos, state, player);
+		final boolean result = block.removedByPlayer(state, world, pos, player, canHarvest);
+		if (result) block.onBlockDestroyedByPlayer(world, pos, state);
 		return result;
 	}
 
+	/**
+	 * Breaks block with tool already equipped by player. Drops are not captured here.
+	 */
+	static void harvestBlock(World world, BlockPos pos, IBlockState state, OpenModsFakePlayer fakePlayer, @Nonnull ItemStack tool) {
+		// this mirrors ItemInWorldManager.tryHarvestBlock
+		BlockEvent.BreakEvent event = new BlockEvent.BreakEvent(world, pos, state, fakePlayer);
+		if (MinecraftForge.EVENT_BUS.post(event)) return;
+
+		final TileEntity te = world.getTileEntity(pos); // OHHHHH YEEEEAAAH
+
+		boolean canHarvest = state.getBlock().canHarvestBlock(world, pos, fakePlayer);
+		boolean isRemoved = removeBlock(world, fakePlayer, pos, state, canHarvest);
+		if (isRemoved && canHarvest) {
+			state.getBlock().harvestBlock(world, fakePlayer, pos, state, te, tool);
+			world.playEvent(fakePlayer, 2001, pos, Block.getStateId(state));
+		}
+	}
+
 	@Override
 	public List<EntityItem> usePlayer(OpenModsFakePlayer fakePlayer) {
 		if (!worldObj.isBlockModifiable(fakePlayer, blockPos)) return Lists.newArrayList();
 
-		// this mirrors ItemInWorldManager.tryHarvestBlock
 		final IBlockState state = worldObj.getBlockState(blockPos);
 
 		fakePlayer.inventory.currentItem = 0;
 		selectTool(state, fakePlayer);
 
-		final CaptureContext dropsCapturer = DropCapture.instance.start(blockPos);
+		final CaptureContext dropsCapturer = DropCapture.instance.start(worldObj, blockPos);
 
 		final List<EntityItem> drops;
 		try {
-			BlockEvent.BreakEvent event = new BlockEvent.BreakEvent(worldObj, blockPos, state, fakePlayer);
-			if (MinecraftForge.EVENT_BUS.post(event)) return Lists.newArrayList();
-
-			final TileEntity te = worldObj.getTileEntity(blockPos); // OHHHHH YEEEEAAAH
-
-			boolean canHarvest = state.getBlock().canHarvestBlock(worldObj, blockPos, fakePlayer);
-			boolean isRemoved = removeBlock(fakePlayer, blockPos, state, canHarvest);
-			if (isRemoved && canHarvest) {
-				state.getBlock().harvestBlock(worldObj, fakePlayer, blockPos, state, te, stackToUse);
-				worldObj.playEvent(fakePlayer, 2001, blockPos, Block.getStateId(state));
-			}
-
+			harvestBlock(worldObj, blockPos, state, fakePlayer, stackToUse);
 		} finally {
 			drops = dropsCapturer.stop();
 		}
 
 		return drops;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package openmods.fakeplayer;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import openmods.fakeplayer.FakePlayerPool.PlayerUserReturning;
+import openmods.world.DropCapture;
+import openmods.world.DropCapture.CaptureContext;
+
+/**
+ * Batched version of {@link BreakBlockAction}: breaks all positions with single player, single tool and single drop capture.
+ * Result maps every processed position to drops spawned while breaking it (in order of processing).
+ * Positions that could not be modified (and air blocks) are reported with empty drop lists.
+ */
+public class BreakBlocksAction implements PlayerUserReturning<Map<BlockPos, List<EntityItem>>> {
+	private final World worldObj;
+	private final List<BlockPos> positions;
+
+	@Nonnull
+	private ItemStack stackToUse;
+
+	public BreakBlocksAction(World worldObj, List<BlockPos> positions) {
+		Preconditions.checkArgument(!positions.isEmpty(), "No positions to break");
+		this.worldObj = worldObj;
+		this.positions = ImmutableList.copyOf(positions);
+		this.stackToUse = BreakBlockAction.createToolStack(Items.DIAMOND_PICKAXE);
+	}
+
+	public BreakBlocksAction setStackToUse(@Nonnull ItemStack stack) {
+		this.stackToUse = stack;
+		return this;
+	}
+
+	private AxisAlignedBB captureArea() {
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+		for (BlockPos pos : positions) {
+			minX = Math.min(minX, pos.getX());
+			minY = Math.min(minY, pos.getY());
+			minZ = Math.min(minZ, pos.getZ());
+			maxX = Math.max(maxX, pos.getX());
+			maxY = Math.max(maxY, pos.getY());
+			maxZ = Math.max(maxZ, pos.getZ());
+		}
+
+		return new AxisAlignedBB(minX, minY, minZ, maxX + 1, maxY + 1, maxZ + 1);
+	}
+
+	private void equipTool(OpenModsFakePlayer fakePlayer) {
+		// block events may replace held item, so check before every block, but don't copy stack without reason
+		if (!ItemStack.areItemStacksEqual(fakePlayer.inventory.getStackInSlot(0), stackToUse))
+			BreakBlockAction.setPlayerTool(fakePlayer, stackToUse);
+	}
+
+	@Override
+	public Map<BlockPos, List<EntityItem>> usePlayer(OpenModsFakePlayer fakePlayer) {
+		final Map<BlockPos, List<EntityItem>> result = Maps.newLinkedHashMap();
+
+		fakePlayer.inventory.currentItem = 0;
+
+		final CaptureContext dropsCapturer = DropCapture.instance.start(worldObj, captureArea());
+		try {
+			for (BlockPos pos : positions) {
+				if (!worldObj.isBlockModifiable(fakePlayer, pos)) {
+					result.put(pos, Lists.newArrayList());
+					continue;
+				}
+
+				final IBlockState state = worldObj.getBlockState(pos);
+				if (state.getBlock().isAir(state, worldObj, pos)) {
+					result.put(pos, Lists.newArrayList());
+					continue;
+				}
+
+				equipTool(fakePlayer);
+				BreakBlockAction.harvestBlock(worldObj, pos, state, fakePlayer, stackToUse);
+				result.put(pos, dropsCapturer.takeDrops());
+			}
+		} finally {
+			dropsCapturer.stop();
+		}
+
+		return result;
+	}
+}
@@ -29,18 +29,47 @@ public class FakePlayerPool {
 		};
 	}
 
-	private static class WorldPool {
+	// extracted for testing
+	static class WorldPool {
 		private final Queue<OpenModsFakePlayer> pool = new ConcurrentLinkedQueue<>();
 		private final AtomicInteger playerCount = new AtomicInteger();
 
+		// players created on warmup are expected, so they don't count towards leak warning
+		private volatile int warmupCount;
+
+		// extracted for testing
+		OpenModsFakePlayer newPlayer(WorldServer world, int id) {
+			return new OpenModsFakePlayer(world, id);
+		}
+
+		// extracted for testing
+		boolean isOverThreshold(int id) {
+			return id > LibConfig.fakePlayerThreshold + warmupCount;
+		}
+
+		private OpenModsFakePlayer createPlayer(WorldServer world) {
+			int id = playerCount.incrementAndGet();
+			if (isOverThreshold(id)) Log.warn("Maximum number of fake players in use %d reached. Something may leak them!", id);
+			final OpenModsFakePlayer player = newPlayer(world, id);
+			player.setDead();
+			return player;
+		}
+
+		public void warmup(WorldServer world, int count) {
+			warmupCount = Math.max(warmupCount, count);
+			// size() is not constant time for this queue, so it's checked only once
+			for (int i = pool.size(); i < count; i++)
+				pool.add(createPlayer(world));
+		}
+
+		// extracted for testing
+		int createdPlayers() {
+			return playerCount.get();
+		}
+
 		public <T> T executeOnPlayer(WorldServer world, PlayerUserReturning<T> user) {
 			OpenModsFakePlayer player = pool.poll();
-
-			if (player == null) {
-				int id = playerCount.incrementAndGet();
-				if (id > LibConfig.fakePlayerThreshold) Log.warn("Maximum number of fake players in use %d reached. Something may leak them!", id);
-				player = new OpenModsFakePlayer(world, id);
-			}
+			if (player == null) player = createPlayer(world);
 
 			player.isDead = false;
 			T result = user.usePlayer(player);
@@ -58,7 +87,12 @@ public class FakePlayerPool {
 
 	@SubscribeEvent
 	public void onWorldLoad(WorldEvent.Load evt) {
-		worldPools.put(evt.getWorld(), new WorldPool());
+		final World world = evt.getWorld();
+		final WorldPool pool = new WorldPool();
+		worldPools.put(world, pool);
+
+		if (LibConfig.fakePlayerPoolWarmup > 0 && world instanceof WorldServer)
+			pool.warmup((WorldServer)world, LibConfig.fakePlayerPoolWarmup);
 	}
 
 	@SubscribeEvent
@@ -66,6 +100,15 @@ public class FakePlayerPool {
 		worldPools.remove(evt.getWorld());
 	}
 
+	/**
+	 * Makes sure that at least {@code count} players are waiting in pool for given world, so following {@link #executeOnPlayer} calls don't need to construct new ones.
+	 */
+	public void warmup(WorldServer world, int count) {
+		WorldPool pool = worldPools.get(world);
+		if (pool != null) pool.warmup(world, count);
+		else Log.warn("Trying to warmup fake player pool on world %s, but it's not loaded", world);
+	}
+
 	public void executeOnPlayer(WorldServer world, PlayerUser user) {
 		executeOnPlayer(world, wrap(user));
 	}
@@ -1,27 +1,146 @@
 package openmods.gamelogic;
 
+import com.google.common.base.Preconditions;
+import java.util.function.LongSupplier;
+import net.minecraft.tileentity.TileEntity;
 import openmods.sync.SyncableInt;
+import openmods.world.ScheduledTaskQueue.Priority;
+import openmods.world.TickScheduler;
 
+/**
+ * Tracks progress of job that takes {@code maxProgress} ticks.
+ * <p>
+ * In default (incremental) mode, owner has to call {@link #update()} every tick.
+ * In scheduled mode, only completion tick is stored and single wakeup is registered in scheduler, so idle owner doesn't need to tick at all.
+ * Completion is then reported via callback (on same tick as incremental mode would) and {@link #update()} does nothing.
+ * Progress stored in {@link SyncableInt} is only updated on pause or {@link #syncProgress()}, but {@link #getProgress()} always returns value incremental mode would have after update in current tick.
+ */
 public class WorkerLogic {
+
+	@FunctionalInterface
+	public interface IWakeupScheduler {
+		public void schedule(int delay, Runnable callback);
+	}
+
 	private final SyncableInt progress;
 	private final int maxProgress;
 	private boolean isWorking;
 
+	private final LongSupplier clock;
+	private final IWakeupScheduler scheduler;
+	private final Runnable completionCallback;
+
+	private long startTick;
+	private int startProgress;
+	private long completionTick;
+
+	// detached on every state change, so scheduler doesn't keep owner reachable and wakeups from previous runs are ignored
+	private static class Wakeup implements Runnable {
+		private WorkerLogic owner;
+
+		public Wakeup(WorkerLogic owner) {
+			this.owner = owner;
+		}
+
+		@Override
+		public void run() {
+			final WorkerLogic owner = this.owner;
+			if (owner != null) owner.onWakeup(this);
+		}
+	}
+
+	private Wakeup pendingWakeup;
+
 	public WorkerLogic(SyncableInt progress, int maxProgress) {
 		this.progress = progress;
 		this.maxProgress = maxProgress;
+		this.clock = null;
+		this.scheduler = null;
+		this.completionCallback = null;
+	}
+
+	/**
+	 * Creates logic in scheduled mode.
+	 *
+	 * @param clock
+	 *            current tick (should be same as used by scheduler)
+	 * @param scheduler
+	 *            should run callback at end of tick {@code now + delay}
+	 */
+	public WorkerLogic(SyncableInt progress, int maxProgress, LongSupplier clock, IWakeupScheduler scheduler, Runnable completionCallback) {
+		this.progress = progress;
+		this.maxProgress = maxProgress;
+		this.clock = Preconditions.checkNotNull(clock);
+		this.scheduler = Preconditions.checkNotNull(scheduler);
+		this.completionCallback = Preconditions.checkNotNull(completionCallback);
+	}
+
+	/**
+	 * Scheduled mode for tile entities, using {@link TickScheduler}. Owner should call {@link #pause()} when unloaded, otherwise callback may still be called.
+	 * Wakeups use {@link Priority#HIGH}, so they are never deferred by scheduler time budget.
+	 */
+	public static WorkerLogic createScheduled(SyncableInt progress, int maxProgress, TileEntity owner, Runnable completionCallback) {
+		return new WorkerLogic(progress, maxProgress,
+				() -> owner.getWorld().getTotalWorldTime(),
+				(delay, callback) -> TickScheduler.INSTANCE.schedule(owner.getWorld(), delay, Priority.HIGH, callback),
+				completionCallback);
+	}
+
+	public boolean isScheduled() {
+		return scheduler != null;
 	}
 
 	public void start() {
+		if (isScheduled()) {
+			if (isWorking) return;
+
+			startTick = clock.getAsLong();
+			startProgress = progress.get();
+			// incremental mode: tick of start adds 1, completion on first tick when progress >= max
+			completionTick = startTick + Math.max(maxProgress - startProgress, 0);
+			pendingWakeup = new Wakeup(this);
+			scheduleWakeup(pendingWakeup);
+		}
+
 		isWorking = true;
 	}
 
+	private void scheduleWakeup(Wakeup wakeup) {
+		final long delay = completionTick - clock.getAsLong();
+		scheduler.schedule((int)Math.max(delay, 0), wakeup);
+	}
+
+	private void cancelWakeup() {
+		if (pendingWakeup != null) {
+			pendingWakeup.owner = null;
+			pendingWakeup = null;
+		}
+	}
+
+	private void onWakeup(Wakeup wakeup) {
+		if (!isWorking || wakeup != pendingWakeup) return;
+
+		if (clock.getAsLong() < completionTick) {
+			scheduleWakeup(wakeup);
+		} else {
+			reset();
+			completionCallback.run();
+		}
+	}
+
 	public void pause() {
+		if (isScheduled() && isWorking) {
+			// progress is not increased on tick of pause
+			progress.set(progressAfter(clock.getAsLong() - startTick));
+			cancelWakeup();
+		}
+
 		isWorking = false;
 	}
 
 	public void reset() {
 		isWorking = false;
+		cancelWakeup();
 		progress.set(0);
 	}
 
@@ -34,7 +153,7 @@ public class WorkerLogic {
 	}
 
 	public boolean update() {
-		if (isWorking) {
+		if (isWorking && !isScheduled()) {
 			if (progress.get() >= maxProgress) {
 				reset();
 				return true;
@@ -46,6 +165,23 @@ public class WorkerLogic {
 		return false;
 	}
 
+	private int progressAfter(long workedTicks) {
+		return (int)Math.min(startProgress + workedTicks, Math.max(maxProgress, startProgress));
+	}
+
+	public int getProgress() {
+		// current tick is included, same as after update() in incremental mode
+		if (isWorking && isScheduled()) return progressAfter(clock.getAsLong() - startTick + 1);
+		return progress.get();
+	}
+
+	/**
+	 * Copies current progress to synced object. No-op in incremental mode.
+	 */
+	public void syncProgress() {
+		if (isScheduled()) progress.set(getProgress());
+	}
+
 	public boolean isWorking() {
 		return isWorking;
 	}
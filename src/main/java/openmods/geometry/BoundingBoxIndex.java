@@ -0,0 +1,405 @@
+package openmods.geometry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Immutable bounding volume hierarchy over entries of {@link BoundingBoxMap}.
+ * Queries don't allocate (apart from results explicitly requested) and are safe to call from multiple threads.
+ */
+public class BoundingBoxIndex<T> {
+
+	public interface IVisitor<T> {
+		/**
+		 * @return false to stop search
+		 */
+		public boolean visit(AxisAlignedBB box, T value);
+	}
+
+	private static final int LEAF_SIZE = 4;
+
+	private static final int MIN_X = 0;
+	private static final int MIN_Y = 1;
+	private static final int MIN_Z = 2;
+	private static final int MAX_X = 3;
+	private static final int MAX_Y = 4;
+	private static final int MAX_Z = 5;
+
+	private final Map.Entry<AxisAlignedBB, T>[] entries;
+
+	// position of entry in original list, used to keep results consistent with linear search
+	private final int[] insertionOrder;
+
+	// 6 values per node: minX, minY, minZ, maxX, maxY, maxZ
+	private final double[] nodeBounds;
+
+	// leaf: first entry; inner: index of left child (right child is always next)
+	private final int[] nodeStart;
+
+	// leaf: number of entries; inner: 0
+	private final int[] nodeCount;
+
+	private int nodesUsed;
+
+	@SuppressWarnings("unchecked")
+	BoundingBoxIndex(List<Map.Entry<AxisAlignedBB, T>> entries) {
+		this.entries = entries.toArray(new Map.Entry[entries.size()]);
+		this.insertionOrder = new int[this.entries.length];
+		for (int i = 0; i < insertionOrder.length; i++)
+			insertionOrder[i] = i;
+
+		final int maxNodes = Math.max(1, 2 * this.entries.length);
+		this.nodeBounds = new double[6 * maxNodes];
+		this.nodeStart = new int[maxNodes];
+		this.nodeCount = new int[maxNodes];
+
+		nodesUsed = 1;
+		build(0, 0, this.entries.length);
+	}
+
+	private void build(int node, int start, int count) {
+		updateBounds(node, start, count);
+
+		if (count <= LEAF_SIZE) {
+			nodeStart[node] = start;
+			nodeCount[node] = count;
+			return;
+		}
+
+		final int base = node * 6;
+		final double sizeX = nodeBounds[base + MAX_X] - nodeBounds[base + MIN_X];
+		final double sizeY = nodeBounds[base + MAX_Y] - nodeBounds[base + MIN_Y];
+		final double sizeZ = nodeBounds[base + MAX_Z] - nodeBounds[base + MIN_Z];
+
+		final int axis;
+		if (sizeX >= sizeY && sizeX >= sizeZ) axis = 0;
+		else if (sizeY >= sizeZ) axis = 1;
+		else axis = 2;
+
+		final int half = count / 2;
+		selectMedian(start, start + count - 1, start + half, axis);
+
+		final int left = nodesUsed;
+		nodesUsed += 2;
+		nodeStart[node] = left;
+		nodeCount[node] = 0;
+
+		build(left, start, half);
+		build(left + 1, start + half, count - half);
+	}
+
+	private void updateBounds(int node, int start, int count) {
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+
+		for (int i = start; i < start + count; i++) {
+			final AxisAlignedBB box = entries[i].getKey();
+			minX = Math.min(minX, box.minX);
+			minY = Math.min(minY, box.minY);
+			minZ = Math.min(minZ, box.minZ);
+			maxX = Math.max(maxX, box.maxX);
+			maxY = Math.max(maxY, box.maxY);
+			maxZ = Math.max(maxZ, box.maxZ);
+		}
+
+		final int base = node * 6;
+		nodeBounds[base + MIN_X] = minX;
+		nodeBounds[base + MIN_Y] = minY;
+		nodeBounds[base + MIN_Z] = minZ;
+		nodeBounds[base + MAX_X] = maxX;
+		nodeBounds[base + MAX_Y] = maxY;
+		nodeBounds[base + MAX_Z] = maxZ;
+	}
+
+	private double centre(int entry, int axis) {
+		final AxisAlignedBB box = entries[entry].getKey();
+		switch (axis) {
+			case 0:
+				return box.minX + box.maxX;
+			case 1:
+				return box.minY + box.maxY;
+			default:
+				return box.minZ + box.maxZ;
+		}
+	}
+
+	// quickselect, partitions entries[left..right] around k-th element
+	private void selectMedian(int left, int right, int k, int axis) {
+		while (right > left) {
+			final double pivot = centre((left + right) >>> 1, axis);
+			int i = left;
+			int j = right;
+			while (i <= j) {
+				while (centre(i, axis) < pivot)
+					i++;
+				while (centre(j, axis) > pivot)
+					j--;
+				if (i <= j) {
+					swap(i, j);
+					i++;
+					j--;
+				}
+			}
+
+			if (k <= j) right = j;
+			else if (k >= i) left = i;
+			else return;
+		}
+	}
+
+	private void swap(int a, int b) {
+		final Map.Entry<AxisAlignedBB, T> tmp = entries[a];
+		entries[a] = entries[b];
+		entries[b] = tmp;
+
+		final int tmpOrder = insertionOrder[a];
+		insertionOrder[a] = insertionOrder[b];
+		insertionOrder[b] = tmpOrder;
+	}
+
+	public int size() {
+		return entries.length;
+	}
+
+	// same semantics as AxisAlignedBB.contains(Vec3d), i.e. borders excluded
+	private static boolean contains(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, double x, double y, double z) {
+		return x > minX && x < maxX &&
+				y > minY && y < maxY &&
+				z > minZ && z < maxZ;
+	}
+
+	private static boolean contains(AxisAlignedBB box, double x, double y, double z) {
+		return contains(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, x, y, z);
+	}
+
+	private boolean nodeContains(int node, double x, double y, double z) {
+		final int base = node * 6;
+		return contains(nodeBounds[base + MIN_X], nodeBounds[base + MIN_Y], nodeBounds[base + MIN_Z],
+				nodeBounds[base + MAX_X], nodeBounds[base + MAX_Y], nodeBounds[base + MAX_Z],
+				x, y, z);
+	}
+
+	private boolean nodeIntersects(int node, AxisAlignedBB box) {
+		final int base = node * 6;
+		return box.intersects(nodeBounds[base + MIN_X], nodeBounds[base + MIN_Y], nodeBounds[base + MIN_Z],
+				nodeBounds[base + MAX_X], nodeBounds[base + MAX_Y], nodeBounds[base + MAX_Z]);
+	}
+
+	/**
+	 * Slab test of segment {@code start + t * dir, t in [0, 1]} against box.
+	 *
+	 * @return entry distance along segment (in range [0, 1]) or NaN if there is no hit
+	 */
+	private static double segmentHit(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+			double startX, double startY, double startZ, double dirX, double dirY, double dirZ) {
+		double tMin = 0;
+		double tMax = 1;
+
+		if (dirX == 0) {
+			if (startX < minX || startX > maxX) return Double.NaN;
+		} else {
+			final double t1 = (minX - startX) / dirX;
+			final double t2 = (maxX - startX) / dirX;
+			tMin = Math.max(tMin, Math.min(t1, t2));
+			tMax = Math.min(tMax, Math.max(t1, t2));
+		}
+
+		if (dirY == 0) {
+			if (startY < minY || startY > maxY) return Double.NaN;
+		} else {
+			final double t1 = (minY - startY) / dirY;
+			final double t2 = (maxY - startY) / dirY;
+			tMin = Math.max(tMin, Math.min(t1, t2));
+			tMax = Math.min(tMax, Math.max(t1, t2));
+		}
+
+		if (dirZ == 0) {
+			if (startZ < minZ || startZ > maxZ) return Double.NaN;
+		} else {
+			final double t1 = (minZ - startZ) / dirZ;
+			final double t2 = (maxZ - startZ) / dirZ;
+			tMin = Math.max(tMin, Math.min(t1, t2));
+			tMax = Math.min(tMax, Math.max(t1, t2));
+		}
+
+		return tMin <= tMax? tMin : Double.NaN;
+	}
+
+	private double nodeSegmentHit(int node, double startX, double startY, double startZ, double dirX, double dirY, double dirZ) {
+		final int base = node * 6;
+		return segmentHit(nodeBounds[base + MIN_X], nodeBounds[base + MIN_Y], nodeBounds[base + MIN_Z],
+				nodeBounds[base + MAX_X], nodeBounds[base + MAX_Y], nodeBounds[base + MAX_Z],
+				startX, startY, startZ, dirX, dirY, dirZ);
+	}
+
+	private static double entrySegmentHit(AxisAlignedBB box, double startX, double startY, double startZ, double dirX, double dirY, double dirZ) {
+		return segmentHit(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ,
+				startX, startY, startZ, dirX, dirY, dirZ);
+	}
+
+	/**
+	 * @return false if search was stopped by visitor
+	 */
+	public boolean visitEntriesContainingPoint(double x, double y, double z, IVisitor<T> visitor) {
+		if (entries.length == 0) return true;
+		return visitPoint(0, x, y, z, visitor);
+	}
+
+	private boolean visitPoint(int node, double x, double y, double z, IVisitor<T> visitor) {
+		if (!nodeContains(node, x, y, z)) return true;
+
+		final int count = nodeCount[node];
+		final int start = nodeStart[node];
+		if (count > 0) {
+			for (int i = start; i < start + count; i++) {
+				final Map.Entry<AxisAlignedBB, T> e = entries[i];
+				final AxisAlignedBB box = e.getKey();
+				if (contains(box, x, y, z) && !visitor.visit(box, e.getValue())) return false;
+			}
+			return true;
+		}
+
+		return visitPoint(start, x, y, z, visitor) && visitPoint(start + 1, x, y, z, visitor);
+	}
+
+	/**
+	 * @return false if search was stopped by visitor
+	 */
+	public boolean visitEntriesIntersecting(AxisAlignedBB query, IVisitor<T> visitor) {
+		if (entries.length == 0) return true;
+		return visitBox(0, query, visitor);
+	}
+
+	private boolean visitBox(int node, AxisAlignedBB query, IVisitor<T> visitor) {
+		if (!nodeIntersects(node, query)) return true;
+
+		final int count = nodeCount[node];
+		final int start = nodeStart[node];
+		if (count > 0) {
+			for (int i = start; i < start + count; i++) {
+				final Map.Entry<AxisAlignedBB, T> e = entries[i];
+				final AxisAlignedBB box = e.getKey();
+				if (query.intersects(box) && !visitor.visit(box, e.getValue())) return false;
+			}
+			return true;
+		}
+
+		return visitBox(start, query, visitor) && visitBox(start + 1, query, visitor);
+	}
+
+	/**
+	 * Visits all entries hit by segment from {@code start} to {@code end}, in no particular order.
+	 *
+	 * @return false if search was stopped by visitor
+	 */
+	public boolean visitEntriesOnRay(Vec3d start, Vec3d end, IVisitor<T> visitor) {
+		if (entries.length == 0) return true;
+		return visitRay(0, start.x, start.y, start.z,
+				end.x - start.x, end.y - start.y, end.z - start.z,
+				visitor);
+	}
+
+	private boolean visitRay(int node, double startX, double startY, double startZ, double dirX, double dirY, double dirZ, IVisitor<T> visitor) {
+		if (Double.isNaN(nodeSegmentHit(node, startX, startY, startZ, dirX, dirY, dirZ))) return true;
+
+		final int count = nodeCount[node];
+		final int start = nodeStart[node];
+		if (count > 0) {
+			for (int i = start; i < start + count; i++) {
+				final Map.Entry<AxisAlignedBB, T> e = entries[i];
+				final AxisAlignedBB box = e.getKey();
+				if (!Double.isNaN(entrySegmentHit(box, startX, startY, startZ, dirX, dirY, dirZ)) &&
+						!visitor.visit(box, e.getValue())) return false;
+			}
+			return true;
+		}
+
+		return visitRay(start, startX, startY, startZ, dirX, dirY, dirZ, visitor) &&
+				visitRay(start + 1, startX, startY, startZ, dirX, dirY, dirZ, visitor);
+	}
+
+	/**
+	 * @return entry hit first by segment from {@code start} to {@code end} or null
+	 */
+	public Map.Entry<AxisAlignedBB, T> findClosestEntryOnRay(Vec3d start, Vec3d end) {
+		if (entries.length == 0) return null;
+		final int result = findClosestOnRay(0, start.x, start.y, start.z,
+				end.x - start.x, end.y - start.y, end.z - start.z,
+				-1, Double.POSITIVE_INFINITY);
+		return result >= 0? entries[result] : null;
+	}
+
+	// returns index of closest entry (or 'best' when nothing closer found)
+	private int findClosestOnRay(int node, double startX, double startY, double startZ, double dirX, double dirY, double dirZ, int best, double bestDistance) {
+		final double nodeHit = nodeSegmentHit(node, startX, startY, startZ, dirX, dirY, dirZ);
+		if (Double.isNaN(nodeHit) || nodeHit > bestDistance) return best;
+
+		final int count = nodeCount[node];
+		final int start = nodeStart[node];
+		if (count > 0) {
+			for (int i = start; i < start + count; i++) {
+				final double hit = entrySegmentHit(entries[i].getKey(), startX, startY, startZ, dirX, dirY, dirZ);
+				if (!Double.isNaN(hit) && hit < bestDistance) {
+					best = i;
+					bestDistance = hit;
+				}
+			}
+			return best;
+		}
+
+		final int left = findClosestOnRay(start, startX, startY, startZ, dirX, dirY, dirZ, best, bestDistance);
+		if (left != best) {
+			best = left;
+			bestDistance = entrySegmentHit(entries[left].getKey(), startX, startY, startZ, dirX, dirY, dirZ);
+		}
+
+		return findClosestOnRay(start + 1, startX, startY, startZ, dirX, dirY, dirZ, best, bestDistance);
+	}
+
+	/**
+	 * @return entry containing point. If there are multiple candidates, first added one is returned (same as in {@link BoundingBoxMap})
+	 */
+	public Map.Entry<AxisAlignedBB, T> findEntryContainingPoint(Vec3d point) {
+		if (entries.length == 0) return null;
+		final int result = findPoint(0, point.x, point.y, point.z, -1);
+		return result >= 0? entries[result] : null;
+	}
+
+	// returns index of entry with lowest insertion order (or 'best' when nothing better found)
+	private int findPoint(int node, double x, double y, double z, int best) {
+		if (!nodeContains(node, x, y, z)) return best;
+
+		final int count = nodeCount[node];
+		final int start = nodeStart[node];
+		if (count > 0) {
+			for (int i = start; i < start + count; i++)
+				if (contains(entries[i].getKey(), x, y, z) && (best < 0 || insertionOrder[i] < insertionOrder[best])) best = i;
+			return best;
+		}
+
+		best = findPoint(start, x, y, z, best);
+		return findPoint(start + 1, x, y, z, best);
+	}
+
+	public void findAllEntriesContainingPoint(Vec3d point, Collection<Map.Entry<AxisAlignedBB, T>> output) {
+		if (entries.length == 0) return;
+		collectPoint(0, point.x, point.y, point.z, output);
+	}
+
+	private void collectPoint(int node, double x, double y, double z, Collection<Map.Entry<AxisAlignedBB, T>> output) {
+		if (!nodeContains(node, x, y, z)) return;
+
+		final int count = nodeCount[node];
+		final int start = nodeStart[node];
+		if (count > 0) {
+			for (int i = start; i < start + count; i++)
+				if (contains(entries[i].getKey(), x, y, z)) output.add(entries[i]);
+		} else {
+			collectPoint(start, x, y, z, output);
+			collectPoint(start + 1, x, y, z, output);
+		}
+	}
+}
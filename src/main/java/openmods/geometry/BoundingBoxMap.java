@@ -30,6 +30,13 @@ public class BoundingBoxMap<T> {
 			if (e.getKey().contains(point)) output.add(e);
 	}
 
+	/**
+	 * Creates immutable snapshot of this map, optimized for queries. Changes made to map after this call are not visible in index.
+	 */
+	public BoundingBoxIndex<T> buildIndex() {
+		return new BoundingBoxIndex<>(entries);
+	}
+
 	public static <T> BoundingBoxMap<T> create() {
 		return new BoundingBoxMap<>();
 	}
@@ -1,23 +1,27 @@
 package openmods.geometry;
 
 import com.google.common.base.Charsets;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import com.google.common.io.Closer;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonParseException;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import net.minecraft.client.resources.IResource;
 import net.minecraft.client.resources.IResourceManager;
 import net.minecraft.client.resources.IResourceManagerReloadListener;
@@ -43,69 +47,99 @@ public class HitboxManager implements IResourceManagerReloadListener {
 		return new Vec3d(coords[0], coords[1], coords[2]);
 	}).create();
 
+	private static class Snapshot {
+		private final List<Hitbox> list;
+
+		private final Map<String, Hitbox> map;
+
+		public Snapshot(List<Hitbox> hitboxes) {
+			this.list = ImmutableList.copyOf(hitboxes);
+
+			final Map<String, Hitbox> builder = Maps.newLinkedHashMap();
+			for (Hitbox hb : list)
+				builder.put(hb.name, hb);
+
+			this.map = ImmutableMap.copyOf(builder);
+		}
+	}
+
+	private static final Snapshot EMPTY = new Snapshot(ImmutableList.<Hitbox> of());
+
 	private class Holder implements IHitboxSupplier {
 		private final ResourceLocation location;
 
-		private List<Hitbox> list;
-
-		private Map<String, Hitbox> map;
+		private volatile Snapshot snapshot;
 
 		public Holder(ResourceLocation location) {
 			this.location = new ResourceLocation(location.getResourceDomain(), "hitboxes/" + location.getResourcePath() + ".json");
 		}
 
-		private void reload() {
-			this.list = ImmutableList.copyOf(load(location));
+		private void reload(Map<HashCode, Snapshot> previousCache, Map<HashCode, Snapshot> currentCache) {
+			this.snapshot = load(location, previousCache, currentCache);
+		}
 
-			final Map<String, Hitbox> builder = Maps.newLinkedHashMap();
-			for (Hitbox hb : list)
-				builder.put(hb.name, hb);
+		private Snapshot getSnapshot() {
+			Snapshot result = snapshot;
+			if (result == null) {
+				// first access between reloads, not worth going parallel
+				result = load(location, parsedCache, parsedCache);
+				snapshot = result;
+			}
 
-			this.map = ImmutableMap.copyOf(builder);
+			return result;
 		}
 
 		@Override
 		public List<Hitbox> asList() {
-			if (list == null)
-				reload();
-
-			return list;
+			return getSnapshot().list;
 		}
 
 		@Override
 		public Map<String, Hitbox> asMap() {
-			if (map == null)
-				reload();
-
-			return map;
+			return getSnapshot().map;
 		}
 
 	}
 
-	private IResourceManager resourceManager;
+	private volatile IResourceManager resourceManager;
 
 	private final Map<ResourceLocation, Holder> holders = Maps.newHashMap();
 
-	private List<Hitbox> load(ResourceLocation location) {
-		final List<Hitbox> result = Lists.newArrayList();
-		if (resourceManager != null) {
+	// parsed definitions, keyed by file content hash - survives reloads, so unchanged files are not parsed again
+	private volatile Map<HashCode, Snapshot> parsedCache = new ConcurrentHashMap<>();
+
+	private Snapshot load(ResourceLocation location, Map<HashCode, Snapshot> previousCache, Map<HashCode, Snapshot> currentCache) {
+		final IResourceManager resourceManager = this.resourceManager;
+		if (resourceManager == null) return EMPTY;
+
+		final byte[] data;
+		try {
+			final IResource resource = resourceManager.getResource(location);
+			final Closer closer = Closer.create();
 			try {
-				IResource resource = resourceManager.getResource(location);
+				final InputStream is = closer.register(resource.getInputStream());
+				data = ByteStreams.toByteArray(is);
+			} catch (Throwable t) {
+				throw closer.rethrow(t);
+			} finally {
+				closer.close();
+			}
+		} catch (IOException e) {
+			Log.warn(e, "Failed to find hitbox %s", location);
+			return EMPTY;
+		}
 
-				Closer closer = Closer.create();
-				try {
-					final InputStream is = closer.register(resource.getInputStream());
-					final Reader reader = closer.register(new InputStreamReader(is, Charsets.UTF_8));
-					final HitboxList list = GSON.fromJson(reader, HitboxList.class);
-					result.addAll(list);
-				} catch (Throwable t) {
-					throw closer.rethrow(t);
-				} finally {
-					closer.close();
-				}
-			} catch (IOException e) {
-				Log.warn(e, "Failed to find hitbox %s", location);
+		final HashCode hash = Hashing.murmur3_128().hashBytes(data);
+		Snapshot result = currentCache.get(hash);
+		if (result == null) {
+			result = previousCache.get(hash);
+			if (result == null) {
+				final HitboxList list = GSON.fromJson(new InputStreamReader(new ByteArrayInputStream(data), Charsets.UTF_8), HitboxList.class);
+				result = new Snapshot(list != null? list : ImmutableList.<Hitbox> of());
 			}
+
+			final Snapshot prev = currentCache.putIfAbsent(hash, result);
+			if (prev != null) result = prev;
 		}
 
 		return result;
@@ -127,10 +161,27 @@ public class HitboxManager implements IResourceManagerReloadListener {
 		this.resourceManager = resourceManager;
 
 		if (resourceManager != null) {
+			final List<Holder> holdersToReload;
 			synchronized (holders) {
-				for (Holder holder : holders.values())
-					holder.reload();
+				holdersToReload = ImmutableList.copyOf(holders.values());
 			}
+
+			final Map<HashCode, Snapshot> previousCache = parsedCache;
+			final Map<HashCode, Snapshot> currentCache = new ConcurrentHashMap<>();
+
+			final Stopwatch stopwatch = Stopwatch.createStarted();
+			holdersToReload.parallelStream().forEach(holder -> {
+				try {
+					holder.reload(previousCache, currentCache);
+				} catch (RuntimeException e) {
+					Log.warn(e, "Failed to load hitbox %s", holder.location);
+					holder.snapshot = EMPTY;
+				}
+			});
+
+			// only keep entries that are still in use
+			parsedCache = currentCache;
+			Log.debug("Loaded %d hitbox definitions (%d unique) in %s", holdersToReload.size(), currentCache.size(), stopwatch);
 		}
 	}
 
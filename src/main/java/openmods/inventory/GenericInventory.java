@@ -1,7 +1,10 @@
 package openmods.inventory;
 
+import gnu.trove.list.array.TIntArrayList;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.inventory.IInventory;
@@ -16,11 +19,11 @@ import net.minecraft.util.text.TextComponentString;
 import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.items.IItemHandlerModifiable;
-import net.minecraftforge.items.wrapper.InvWrapper;
 import openmods.api.IInventoryCallback;
+import openmods.utils.InventoryUtils;
 import openmods.utils.OptionalInt;
 
-public class GenericInventory implements IInventory {
+public class GenericInventory implements IInventory, IItemLookup {
 
 	public static final String TAG_SLOT = "Slot";
 	public static final String TAG_ITEMS = "Items";
@@ -32,6 +35,8 @@ public class GenericInventory implements IInventory {
 	protected NonNullList<ItemStack> inventoryContents;
 	protected boolean isInvNameLocalized;
 	private IItemHandlerModifiable handler;
+	private InventoryItemIndex itemIndex;
+	private boolean singleSlotChange;
 
 	public GenericInventory(String name, boolean isInvNameLocalized, int size) {
 		callbacks = new ArrayList<>();
@@ -46,6 +51,15 @@ public class GenericInventory implements IInventory {
 		return this;
 	}
 
+	/**
+	 * Enables item index used by {@link IItemLookup} methods. Useful for large inventories, since otherwise every query is linear scan.
+	 * Index is updated on every slot change, but stacks modified in place need {@link #markDirty()} or {@link #onInventoryChanged(int)} to be noticed.
+	 */
+	public GenericInventory enableItemIndex() {
+		if (itemIndex == null) itemIndex = new InventoryItemIndex();
+		return this;
+	}
+
 	@Override
 	@Nonnull
 	public ItemStack decrStackSize(int index, int count) {
@@ -90,6 +104,7 @@ public class GenericInventory implements IInventory {
 		if (result.isEmpty()) return ItemStack.EMPTY;
 
 		this.inventoryContents.set(index, ItemStack.EMPTY);
+		if (itemIndex != null) itemIndex.update(index, ItemStack.EMPTY);
 		return result;
 	}
 
@@ -112,10 +127,37 @@ public class GenericInventory implements IInventory {
 	}
 
 	public void onInventoryChanged(OptionalInt slotNumber) {
+		if (itemIndex != null) {
+			if (slotNumber.isPresent()) {
+				updateItemIndex(slotNumber.get());
+			} else if (!singleSlotChange) {
+				// full resync on next lookup
+				itemIndex.invalidate();
+			}
+		}
+
 		for (IInventoryCallback callback : callbacks)
 			callback.onInventoryChanged(this, slotNumber);
 	}
 
+	private void updateItemIndex(int slot) {
+		if (itemIndex != null) itemIndex.update(slot, getStackInSlot(slot));
+	}
+
+	/**
+	 * Runs action that changes only given slot, so {@link #markDirty()} calls made by it don't cause full index resync.
+	 */
+	<T> T changeSingleSlot(int slot, Supplier<T> action) {
+		final boolean prev = singleSlotChange;
+		singleSlotChange = true;
+		try {
+			return action.get();
+		} finally {
+			singleSlotChange = prev;
+			updateItemIndex(slot);
+		}
+	}
+
 	public void clearAndSetSlotCount(int size) {
 		this.slotsCount = size;
 		inventoryContents = NonNullList.withSize(size, ItemStack.EMPTY);
@@ -125,6 +167,7 @@ public class GenericInventory implements IInventory {
 	@Override
 	public void clear() {
 		inventoryContents.clear();
+		if (itemIndex != null) itemIndex.invalidate();
 	}
 
 	public void readFromNBT(NBTTagCompound tag) {
@@ -146,6 +189,8 @@ public class GenericInventory implements IInventory {
 				if (!stack.isEmpty()) inventoryContents.set(j, stack);
 			}
 		}
+
+		if (itemIndex != null) itemIndex.invalidate();
 	}
 
 	@Override
@@ -232,7 +277,7 @@ public class GenericInventory implements IInventory {
 	}
 
 	public IItemHandlerModifiable getHandler() {
-		if (handler == null) handler = new InvWrapper(this);
+		if (handler == null) handler = new GenericInventoryHandler(this);
 		return handler;
 	}
 
@@ -243,4 +288,91 @@ public class GenericInventory implements IInventory {
 
 		return true;
 	}
+
+	private InventoryItemIndex getItemIndex() {
+		if (itemIndex != null && !itemIndex.isValid()) itemIndex.rebuild(inventoryContents);
+		return itemIndex;
+	}
+
+	private int nextSlotWithItem(@Nonnull ItemStack stack, int from) {
+		if (stack.isEmpty()) return -1;
+
+		final InventoryItemIndex index = getItemIndex();
+		if (index != null) {
+			final BitSet slots = index.getSlots(stack);
+			for (int slot = slots.nextSetBit(from); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+				final ItemStack contents = inventoryContents.get(slot);
+				if (InventoryUtils.areItemAndTagEqual(stack, contents)) return slot;
+				// stale entry (or hash collision)
+				index.update(slot, contents);
+			}
+		} else {
+			for (int slot = from; slot < inventoryContents.size(); slot++)
+				if (InventoryUtils.areItemAndTagEqual(stack, inventoryContents.get(slot))) return slot;
+		}
+
+		return -1;
+	}
+
+	private int nextEmptySlot(int from) {
+		final InventoryItemIndex index = getItemIndex();
+		if (index != null) {
+			final BitSet slots = index.getEmptySlots();
+			for (int slot = slots.nextSetBit(from); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+				final ItemStack contents = inventoryContents.get(slot);
+				if (contents.isEmpty()) return slot;
+				index.update(slot, contents);
+			}
+		} else {
+			for (int slot = from; slot < inventoryContents.size(); slot++)
+				if (inventoryContents.get(slot).isEmpty()) return slot;
+		}
+
+		return -1;
+	}
+
+	@Override
+	public boolean containsItem(@Nonnull ItemStack stack) {
+		return nextSlotWithItem(stack, 0) >= 0;
+	}
+
+	@Override
+	public int countItems(@Nonnull ItemStack stack) {
+		int result = 0;
+		for (int slot = nextSlotWithItem(stack, 0); slot >= 0; slot = nextSlotWithItem(stack, slot + 1))
+			result += inventoryContents.get(slot).getCount();
+		return result;
+	}
+
+	@Override
+	public int findFirstSlot(@Nonnull ItemStack stack) {
+		return nextSlotWithItem(stack, 0);
+	}
+
+	@Override
+	public int[] findSlots(@Nonnull ItemStack stack) {
+		final TIntArrayList result = new TIntArrayList();
+		for (int slot = nextSlotWithItem(stack, 0); slot >= 0; slot = nextSlotWithItem(stack, slot + 1))
+			result.add(slot);
+		return result.toArray();
+	}
+
+	@Override
+	public int findFirstEmptySlot() {
+		return nextEmptySlot(0);
+	}
+
+	@Override
+	public int findInsertionSlot(@Nonnull ItemStack stack) {
+		if (stack.isEmpty()) return -1;
+
+		final int maxSize = Math.min(stack.getMaxStackSize(), getInventoryStackLimit());
+		for (int slot = nextSlotWithItem(stack, 0); slot >= 0; slot = nextSlotWithItem(stack, slot + 1))
+			if (inventoryContents.get(slot).getCount() < maxSize && isItemValidForSlot(slot, stack)) return slot;
+
+		for (int slot = nextEmptySlot(0); slot >= 0; slot = nextEmptySlot(slot + 1))
+			if (isItemValidForSlot(slot, stack)) return slot;
+
+		return -1;
+	}
 }
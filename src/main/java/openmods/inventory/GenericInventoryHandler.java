@@ -0,0 +1,60 @@
+package openmods.inventory;
+
+import javax.annotation.Nonnull;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.wrapper.InvWrapper;
+
+public class GenericInventoryHandler extends InvWrapper implements IItemLookup {
+
+	private final GenericInventory inventory;
+
+	public GenericInventoryHandler(GenericInventory inventory) {
+		super(inventory);
+		this.inventory = inventory;
+	}
+
+	@Override
+	@Nonnull
+	public ItemStack insertItem(int slot, @Nonnull ItemStack stack, boolean simulate) {
+		if (simulate) return super.insertItem(slot, stack, true);
+		return inventory.changeSingleSlot(slot, () -> super.insertItem(slot, stack, false));
+	}
+
+	@Override
+	@Nonnull
+	public ItemStack extractItem(int slot, int amount, boolean simulate) {
+		if (simulate) return super.extractItem(slot, amount, true);
+		return inventory.changeSingleSlot(slot, () -> super.extractItem(slot, amount, false));
+	}
+
+	@Override
+	public boolean containsItem(@Nonnull ItemStack stack) {
+		return inventory.containsItem(stack);
+	}
+
+	@Override
+	public int countItems(@Nonnull ItemStack stack) {
+		return inventory.countItems(stack);
+	}
+
+	@Override
+	public int findFirstSlot(@Nonnull ItemStack stack) {
+		return inventory.findFirstSlot(stack);
+	}
+
+	@Override
+	public int[] findSlots(@Nonnull ItemStack stack) {
+		return inventory.findSlots(stack);
+	}
+
+	@Override
+	public int findFirstEmptySlot() {
+		return inventory.findFirstEmptySlot();
+	}
+
+	@Override
+	public int findInsertionSlot(@Nonnull ItemStack stack) {
+		return inventory.findInsertionSlot(stack);
+	}
+
+}
@@ -0,0 +1,31 @@
+package openmods.inventory;
+
+import javax.annotation.Nonnull;
+import net.minecraft.item.ItemStack;
+
+/**
+ * Queries by item identity (item, damage and tag, ignoring size).
+ */
+public interface IItemLookup {
+
+	public boolean containsItem(@Nonnull ItemStack stack);
+
+	public int countItems(@Nonnull ItemStack stack);
+
+	/**
+	 * @return index of first slot with matching item or -1
+	 */
+	public int findFirstSlot(@Nonnull ItemStack stack);
+
+	public int[] findSlots(@Nonnull ItemStack stack);
+
+	/**
+	 * @return index of first empty slot or -1
+	 */
+	public int findFirstEmptySlot();
+
+	/**
+	 * @return index of first slot that can accept at least one item from stack (merge candidates first, then empty slots) or -1
+	 */
+	public int findInsertionSlot(@Nonnull ItemStack stack);
+}
@@ -0,0 +1,96 @@
+package openmods.inventory;
+
+import com.google.common.collect.Maps;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import net.minecraft.item.ItemStack;
+
+/**
+ * Maps item identity to slots containing it, plus set of empty slots.
+ * Since stacks are mutable, entries may get stale when stack is modified in place - users should verify results against actual contents and call {@link #update(int, ItemStack)} on mismatch.
+ */
+public class InventoryItemIndex {
+
+	private static final BitSet NO_SLOTS = new BitSet();
+
+	private final Map<ItemKey, BitSet> slotsByItem = Maps.newHashMap();
+
+	private final BitSet emptySlots = new BitSet();
+
+	private ItemKey[] slotKeys = new ItemKey[0];
+
+	private boolean isValid;
+
+	public void invalidate() {
+		isValid = false;
+	}
+
+	public boolean isValid() {
+		return isValid;
+	}
+
+	public void rebuild(List<ItemStack> contents) {
+		final int size = contents.size();
+		slotsByItem.clear();
+		emptySlots.clear();
+		if (slotKeys.length != size) slotKeys = new ItemKey[size];
+		else Arrays.fill(slotKeys, null);
+
+		for (int slot = 0; slot < size; slot++)
+			add(slot, contents.get(slot));
+
+		isValid = true;
+	}
+
+	public void update(int slot, @Nonnull ItemStack stack) {
+		if (!isValid || slot < 0 || slot >= slotKeys.length) return;
+
+		final ItemKey oldKey = slotKeys[slot];
+		if (oldKey != null) {
+			final BitSet slots = slotsByItem.get(oldKey);
+			if (slots != null) {
+				slots.clear(slot);
+				if (slots.isEmpty()) slotsByItem.remove(oldKey);
+			}
+			slotKeys[slot] = null;
+		} else {
+			emptySlots.clear(slot);
+		}
+
+		add(slot, stack);
+	}
+
+	private void add(int slot, @Nonnull ItemStack stack) {
+		if (stack.isEmpty()) {
+			emptySlots.set(slot);
+		} else {
+			final ItemKey key = ItemKey.of(stack);
+			BitSet slots = slotsByItem.get(key);
+			if (slots == null) {
+				slots = new BitSet();
+				slotsByItem.put(key, slots);
+			}
+			slots.set(slot);
+			slotKeys[slot] = key;
+		}
+	}
+
+	/**
+	 * @return slots that (probably) contain given item. Must not be modified.
+	 */
+	public BitSet getSlots(@Nonnull ItemStack stack) {
+		if (stack.isEmpty()) return NO_SLOTS;
+		final BitSet slots = slotsByItem.get(ItemKey.of(stack));
+		return slots != null? slots : NO_SLOTS;
+	}
+
+	/**
+	 * @return slots that (probably) are empty. Must not be modified.
+	 */
+	public BitSet getEmptySlots() {
+		return emptySlots;
+	}
+}
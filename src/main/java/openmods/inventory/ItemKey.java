@@ -0,0 +1,57 @@
+package openmods.inventory;
+
+import javax.annotation.Nonnull;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+/**
+ * Cheap identity of item stack (item, damage and hash of tag), usable as hash key.
+ * Two stacks with equal keys are only merge candidates, since tag hashes may collide - final check should be done with {@link openmods.utils.InventoryUtils#areItemAndTagEqual(ItemStack, ItemStack)}.
+ */
+public class ItemKey {
+
+	public final Item item;
+
+	public final int damage;
+
+	public final int tagHash;
+
+	private final int hash;
+
+	public ItemKey(Item item, int damage, int tagHash) {
+		this.item = item;
+		this.damage = damage;
+		this.tagHash = tagHash;
+		this.hash = 31 * (31 * System.identityHashCode(item) + damage) + tagHash;
+	}
+
+	public static ItemKey of(@Nonnull ItemStack stack) {
+		final NBTTagCompound tag = stack.getTagCompound();
+		return new ItemKey(stack.getItem(), stack.getItemDamage(), tag != null? tag.hashCode() : 0);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) return true;
+		if (obj instanceof ItemKey) {
+			final ItemKey other = (ItemKey)obj;
+			return other.item == this.item &&
+					other.damage == this.damage &&
+					other.tagHash == this.tagHash;
+		}
+
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return item.getRegistryName() + "@" + damage + "#" + Integer.toHexString(tagHash);
+	}
+
+}
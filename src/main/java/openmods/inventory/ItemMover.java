@@ -1,11 +1,14 @@
 package openmods.inventory;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
@@ -27,6 +30,25 @@ public class ItemMover {
 
 	private final BlockPos pos;
 
+	private boolean cacheNeighbours = false;
+
+	private static class CachedNeighbour {
+		private final TileEntity te;
+
+		private final IItemHandler handler;
+
+		public CachedNeighbour(TileEntity te, IItemHandler handler) {
+			this.te = te;
+			this.handler = handler;
+		}
+
+		public boolean isValid() {
+			return te == null || !te.isInvalid();
+		}
+	}
+
+	private final Map<EnumFacing, CachedNeighbour> neighbourCache = Maps.newEnumMap(EnumFacing.class);
+
 	public ItemMover(World world, BlockPos pos) {
 		this.world = world;
 		this.pos = pos;
@@ -52,12 +74,49 @@ public class ItemMover {
 		return this;
 	}
 
+	/**
+	 * Keep neighbour handlers between calls. Owner must call {@link #onNeighbourChanged(BlockPos)} (or {@link #invalidateNeighbours()}) when neighbours change,
+	 * otherwise newly placed inventories will not be noticed.
+	 */
+	public ItemMover cacheNeighbours() {
+		this.cacheNeighbours = true;
+		return this;
+	}
+
+	public void invalidateNeighbours() {
+		neighbourCache.clear();
+	}
+
+	public void onNeighbourChanged(BlockPos neighbourPos) {
+		for (EnumFacing side : EnumFacing.VALUES)
+			if (pos.offset(side).equals(neighbourPos))
+				neighbourCache.remove(side);
+	}
+
+	private IItemHandler getNeighbour(EnumFacing side) {
+		if (!cacheNeighbours) return InventoryUtils.tryGetHandler(world, pos.offset(side), side.getOpposite());
+
+		final CachedNeighbour cached = neighbourCache.get(side);
+		if (cached != null && cached.isValid()) return cached.handler;
+
+		final BlockPos neighbourPos = pos.offset(side);
+		if (!world.isBlockLoaded(neighbourPos)) {
+			neighbourCache.remove(side);
+			return null;
+		}
+
+		final TileEntity te = world.getTileEntity(neighbourPos);
+		final IItemHandler handler = InventoryUtils.tryGetHandler(te, side.getOpposite());
+		neighbourCache.put(side, new CachedNeighbour(te, handler));
+		return handler;
+	}
+
 	private Collection<IItemHandler> findNeighbours() {
 		if (sides.isEmpty()) return Collections.emptyList();
 
 		if (breakAfterFirstTry) {
 			final EnumFacing selectedSide = randomizeSides? CollectionUtils.getRandom(sides) : CollectionUtils.getFirst(sides);
-			final IItemHandler neighbour = InventoryUtils.tryGetHandler(world, pos.offset(selectedSide), selectedSide.getOpposite());
+			final IItemHandler neighbour = getNeighbour(selectedSide);
 			return neighbour != null? Collections.singletonList(neighbour) : Collections.<IItemHandler> emptyList();
 		}
 
@@ -70,7 +129,7 @@ public class ItemMover {
 
 		final List<IItemHandler> handlers = Lists.newArrayList();
 		for (EnumFacing side : sidesToCheck) {
-			final IItemHandler neighbour = InventoryUtils.tryGetHandler(world, pos.offset(side), side.getOpposite());
+			final IItemHandler neighbour = getNeighbour(side);
 			if (neighbour != null) handlers.add(neighbour);
 		}
 
@@ -138,4 +197,48 @@ public class ItemMover {
 		return transferedAmount;
 	}
 
+	/**
+	 * Bulk version of {@link #pullToSlot(IItemHandler, int)} - pulls items from neighbours into any slot of target.
+	 */
+	public int pullAll(IItemHandler target) {
+		return pullAll(target, maxSize, findNeighbours());
+	}
+
+	// extracted for testing
+	static int pullAll(IItemHandler target, int maxSize, Iterable<IItemHandler> sources) {
+		final ItemSlotIndex targetIndex = new ItemSlotIndex(target);
+
+		int transferedAmount = 0;
+		MAIN: for (IItemHandler source : sources) {
+			for (int sourceSlot = 0; sourceSlot < source.getSlots(); sourceSlot++) {
+				if (transferedAmount >= maxSize || !targetIndex.hasSpace()) break MAIN;
+				transferedAmount += targetIndex.insertFrom(source, sourceSlot, maxSize - transferedAmount);
+			}
+		}
+
+		return transferedAmount;
+	}
+
+	/**
+	 * Bulk version of {@link #pushFromSlot(IItemHandler, int)} - pushes items from all slots of source into neighbours.
+	 */
+	public int pushAll(IItemHandler source) {
+		return pushAll(source, maxSize, findNeighbours());
+	}
+
+	// extracted for testing
+	static int pushAll(IItemHandler source, int maxSize, Iterable<IItemHandler> targets) {
+		int transferedAmount = 0;
+		for (IItemHandler target : targets) {
+			final ItemSlotIndex targetIndex = new ItemSlotIndex(target);
+			for (int sourceSlot = 0; sourceSlot < source.getSlots(); sourceSlot++) {
+				if (transferedAmount >= maxSize) return transferedAmount;
+				if (!targetIndex.hasSpace()) break;
+				transferedAmount += targetIndex.insertFrom(source, sourceSlot, maxSize - transferedAmount);
+			}
+		}
+
+		return transferedAmount;
+	}
+
 }
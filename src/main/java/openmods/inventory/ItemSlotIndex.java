@@ -0,0 +1,133 @@
+package openmods.inventory;
+
+import com.google.common.collect.Maps;
+import gnu.trove.list.array.TIntArrayList;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+
+/**
+ * Index of free space in item handler: empty slots and partially filled slots (grouped by {@link ItemKey}).
+ * Built once per bulk transfer, then kept up to date by its own insertions.
+ * Changes made to handler by other means are not tracked, so instances should not be kept between ticks.
+ */
+public class ItemSlotIndex {
+
+	private final IItemHandler handler;
+
+	private final TIntArrayList emptySlots = new TIntArrayList();
+
+	private final Map<ItemKey, TIntArrayList> partialSlots = Maps.newHashMap();
+
+	public ItemSlotIndex(IItemHandler handler) {
+		this.handler = handler;
+		rebuild();
+	}
+
+	public void rebuild() {
+		emptySlots.resetQuick();
+		partialSlots.clear();
+
+		final int slotCount = handler.getSlots();
+		for (int slot = 0; slot < slotCount; slot++) {
+			final ItemStack stack = handler.getStackInSlot(slot);
+			if (stack.isEmpty()) emptySlots.add(slot);
+			else if (!isFull(slot, stack)) addPartialSlot(ItemKey.of(stack), slot);
+		}
+	}
+
+	private void addPartialSlot(ItemKey key, int slot) {
+		TIntArrayList slots = partialSlots.get(key);
+		if (slots == null) {
+			slots = new TIntArrayList();
+			partialSlots.put(key, slots);
+		}
+		slots.add(slot);
+	}
+
+	private boolean isFull(int slot, @Nonnull ItemStack stack) {
+		return stack.getCount() >= Math.min(stack.getMaxStackSize(), handler.getSlotLimit(slot));
+	}
+
+	public IItemHandler getHandler() {
+		return handler;
+	}
+
+	public boolean hasSpace() {
+		return !emptySlots.isEmpty() || !partialSlots.isEmpty();
+	}
+
+	/**
+	 * Moves up to {@code maxAmount} items from source slot into this handler.
+	 * Partially filled slots with same item are tried first, then empty ones.
+	 *
+	 * @return number of items moved
+	 */
+	public int insertFrom(IItemHandler source, int sourceSlot, int maxAmount) {
+		if (maxAmount <= 0) return 0;
+
+		final ItemStack stack = source.getStackInSlot(sourceSlot);
+		if (stack.isEmpty()) return 0;
+
+		final ItemKey key = ItemKey.of(stack);
+		int moved = 0;
+
+		final TIntArrayList candidates = partialSlots.get(key);
+		if (candidates != null) {
+			int i = 0;
+			while (i < candidates.size()) {
+				final int targetSlot = candidates.getQuick(i);
+				moved += transfer(source, sourceSlot, targetSlot, maxAmount - moved);
+
+				final ItemStack targetStack = handler.getStackInSlot(targetSlot);
+				if (targetStack.isEmpty() || isFull(targetSlot, targetStack)) candidates.removeAt(i);
+				else i++;
+
+				if (moved >= maxAmount || source.getStackInSlot(sourceSlot).isEmpty()) break;
+			}
+
+			if (candidates.isEmpty()) partialSlots.remove(key);
+			if (moved >= maxAmount) return moved;
+		}
+
+		int i = 0;
+		while (i < emptySlots.size()) {
+			if (moved >= maxAmount || source.getStackInSlot(sourceSlot).isEmpty()) break;
+
+			final int targetSlot = emptySlots.getQuick(i);
+			moved += transfer(source, sourceSlot, targetSlot, maxAmount - moved);
+
+			final ItemStack targetStack = handler.getStackInSlot(targetSlot);
+			if (targetStack.isEmpty()) {
+				// slot refused this item, but may accept other ones
+				i++;
+			} else {
+				emptySlots.removeAt(i);
+				if (!isFull(targetSlot, targetStack)) addPartialSlot(ItemKey.of(targetStack), targetSlot);
+			}
+		}
+
+		return moved;
+	}
+
+	private int transfer(IItemHandler source, int sourceSlot, int targetSlot, int maxAmount) {
+		final ItemStack stackToMove = source.getStackInSlot(sourceSlot);
+		if (stackToMove.isEmpty()) return 0;
+
+		final ItemStack leftover = handler.insertItem(targetSlot, stackToMove, true);
+		final int amountToExtract = Math.min(maxAmount, stackToMove.getCount() - leftover.getCount());
+		if (amountToExtract <= 0) return 0;
+
+		final ItemStack extractedItem = source.extractItem(sourceSlot, amountToExtract, false);
+		if (extractedItem.isEmpty()) return 0;
+
+		final ItemStack rejected = handler.insertItem(targetSlot, extractedItem, false);
+		if (!rejected.isEmpty()) {
+			// target lied during simulation, try to return items to source
+			source.insertItem(sourceSlot, rejected, false);
+		}
+
+		return extractedItem.getCount() - rejected.getCount();
+	}
+}
@@ -1,11 +1,15 @@
 package openmods.liquids;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
-import java.util.Collections;
+import com.google.common.collect.Maps;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
@@ -21,7 +25,29 @@ import openmods.utils.CompatibilityUtils;
 
 public class GenericTank extends FluidTank {
 
-	private List<EnumFacing> surroundingTanks = Lists.newArrayList();
+	private final Set<EnumFacing> neighbourSides = EnumSet.noneOf(EnumFacing.class);
+
+	private static class CachedNeighbour {
+		private final TileEntity te;
+
+		private final IFluidHandler handler;
+
+		public CachedNeighbour(TileEntity te, IFluidHandler handler) {
+			this.te = te;
+			this.handler = handler;
+		}
+
+		public boolean isValid() {
+			return te == null || !te.isInvalid();
+		}
+	}
+
+	private final Map<EnumFacing, CachedNeighbour> neighbourCache = Maps.newEnumMap(EnumFacing.class);
+
+	private final EnumFacing[] sideBuffer = new EnumFacing[EnumFacing.VALUES.length];
+
+	private long lastBalanceTick = Long.MIN_VALUE;
+
 	private final IFluidFilter filter;
 
 	@FunctionalInterface
@@ -57,20 +83,6 @@ public class GenericTank extends FluidTank {
 		this.filter = filter(CollectionUtils.transform(FluidStack.class, acceptableFluids, input -> new FluidStack(input, 0)));
 	}
 
-	private static boolean isNeighbourTank(World world, BlockPos coord, EnumFacing dir) {
-		TileEntity tile = BlockUtils.getTileInDirectionSafe(world, coord, dir);
-		return CompatibilityUtils.isFluidHandler(tile, dir.getOpposite());
-	}
-
-	private static Set<EnumFacing> getSurroundingTanks(World world, BlockPos coord) {
-		final Set<EnumFacing> result = EnumSet.noneOf(EnumFacing.class);
-
-		for (EnumFacing dir : EnumFacing.VALUES)
-			if (isNeighbourTank(world, coord, dir)) result.add(dir);
-
-		return result;
-	}
-
 	public int getSpace() {
 		return getCapacity() - getFluidAmount();
 	}
@@ -80,20 +92,84 @@ public class GenericTank extends FluidTank {
 		return fluid != null && filter.canAcceptFluid(fluid);
 	}
 
-	public void updateNeighbours(World world, BlockPos coord, Set<EnumFacing> sides) {
-		this.surroundingTanks = Lists.newArrayList(Sets.difference(getSurroundingTanks(world, coord), sides));
+	/**
+	 * Rescans all sides (except {@code excludedSides}) and caches handlers found there.
+	 * Cached handlers are reused until neighbouring tile entity is invalidated or owner calls {@link #onNeighbourChanged(BlockPos, BlockPos)}/{@link #invalidateNeighbours()}.
+	 */
+	public void updateNeighbours(World world, BlockPos coord, Set<EnumFacing> excludedSides) {
+		neighbourSides.clear();
+		neighbourCache.clear();
+
+		for (EnumFacing side : EnumFacing.VALUES) {
+			if (excludedSides.contains(side)) continue;
+			neighbourSides.add(side);
+			lookupNeighbour(world, coord, side);
+		}
 	}
 
 	public void updateNeighbours(World world, BlockPos coord) {
-		this.surroundingTanks = Lists.newArrayList(getSurroundingTanks(world, coord));
+		updateNeighbours(world, coord, EnumSet.noneOf(EnumFacing.class));
 	}
 
-	private static int tryFillNeighbour(FluidStack drainedFluid, EnumFacing side, TileEntity otherTank) {
-		final FluidStack toFill = drainedFluid.copy();
-		final EnumFacing fillSide = side.getOpposite();
+	public void invalidateNeighbours() {
+		neighbourCache.clear();
+	}
 
-		final IFluidHandler fluidHandler = CompatibilityUtils.getFluidHandler(otherTank, fillSide);
-		return fluidHandler != null? fluidHandler.fill(toFill, true) : 0;
+	public void onNeighbourChanged(BlockPos coord, BlockPos neighbourPos) {
+		for (EnumFacing side : EnumFacing.VALUES)
+			if (coord.offset(side).equals(neighbourPos))
+				neighbourCache.remove(side);
+	}
+
+	private IFluidHandler lookupNeighbour(World world, BlockPos coord, EnumFacing side) {
+		final BlockPos neighbourPos = coord.offset(side);
+		if (!world.isBlockLoaded(neighbourPos)) {
+			neighbourCache.remove(side);
+			return null;
+		}
+
+		final TileEntity te = world.getTileEntity(neighbourPos);
+		final IFluidHandler handler = CompatibilityUtils.getFluidHandler(te, side.getOpposite());
+		neighbourCache.put(side, new CachedNeighbour(te, handler));
+		return handler;
+	}
+
+	private IFluidHandler getNeighbour(World world, BlockPos coord, EnumFacing side) {
+		if (!neighbourSides.contains(side)) {
+			// not tracked, so no way to know when it changes
+			final TileEntity te = BlockUtils.getTileInDirection(world, coord, side);
+			return CompatibilityUtils.getFluidHandler(te, side.getOpposite());
+		}
+
+		final CachedNeighbour cached = neighbourCache.get(side);
+		if (cached != null && cached.isValid()) return cached.handler;
+
+		return lookupNeighbour(world, coord, side);
+	}
+
+	private int selectSides(Set<EnumFacing> allowedSides) {
+		int count = 0;
+		for (EnumFacing side : neighbourSides) {
+			if (allowedSides != null && !allowedSides.contains(side)) continue;
+			final CachedNeighbour cached = neighbourCache.get(side);
+			// side with stale or missing entry may have gained handler in meantime
+			if (cached == null || !cached.isValid() || cached.handler != null) sideBuffer[count++] = side;
+		}
+
+		final Random random = ThreadLocalRandom.current();
+		for (int i = count - 1; i > 0; i--) {
+			final int j = random.nextInt(i + 1);
+			final EnumFacing tmp = sideBuffer[i];
+			sideBuffer[i] = sideBuffer[j];
+			sideBuffer[j] = tmp;
+		}
+
+		return count;
+	}
+
+	private static int tryFillNeighbour(FluidStack drainedFluid, IFluidHandler fluidHandler) {
+		final FluidStack toFill = drainedFluid.copy();
+		return fluidHandler.fill(toFill, true);
 	}
 
 	public void distributeToSides(int amount, World world, BlockPos coord, Set<EnumFacing> allowedSides) {
@@ -101,26 +177,21 @@ public class GenericTank extends FluidTank {
 
 		if (getFluidAmount() <= 0) return;
 
-		if (surroundingTanks.isEmpty()) return;
+		if (neighbourSides.isEmpty()) return;
 
-		final List<EnumFacing> sides = Lists.newArrayList(surroundingTanks);
-
-		if (allowedSides != null) {
-			sides.retainAll(allowedSides);
-			if (sides.isEmpty()) return;
-		}
+		final int sideCount = selectSides(allowedSides);
+		if (sideCount == 0) return;
 
 		FluidStack drainedFluid = drain(amount, false);
 
 		if (drainedFluid != null && drainedFluid.amount > 0) {
 			int startingAmount = drainedFluid.amount;
-			Collections.shuffle(sides);
 
-			for (EnumFacing side : surroundingTanks) {
+			for (int i = 0; i < sideCount; i++) {
 				if (drainedFluid.amount <= 0) break;
 
-				TileEntity otherTank = BlockUtils.getTileInDirection(world, coord, side);
-				if (otherTank != null) drainedFluid.amount -= tryFillNeighbour(drainedFluid, side, otherTank);
+				final IFluidHandler otherTank = getNeighbour(world, coord, sideBuffer[i]);
+				if (otherTank != null) drainedFluid.amount -= tryFillNeighbour(drainedFluid, otherTank);
 			}
 
 			// return any remainder
@@ -139,22 +210,14 @@ public class GenericTank extends FluidTank {
 		int toDrain = Math.min(maxAmount, getSpace());
 		if (toDrain <= 0) return;
 
-		if (surroundingTanks.isEmpty()) return;
-
-		final List<EnumFacing> sides = Lists.newArrayList(surroundingTanks);
+		if (neighbourSides.isEmpty()) return;
 
-		if (allowedSides != null) {
-			sides.retainAll(allowedSides);
-			if (sides.isEmpty()) return;
-		}
-
-		Collections.shuffle(sides);
-		for (EnumFacing side : sides) {
+		final int sideCount = selectSides(allowedSides);
+		for (int i = 0; i < sideCount; i++) {
 			if (toDrain <= 0) break;
-			toDrain -= fillInternal(world, coord, side, toDrain);
+			toDrain -= fillInternal(world, coord, sideBuffer[i], toDrain);
 		}
 	}
-
 	public int fillFromSide(World world, BlockPos coord, EnumFacing side) {
 		int maxDrain = getSpace();
 		if (maxDrain <= 0) return 0;
@@ -171,10 +234,7 @@ public class GenericTank extends FluidTank {
 
 	private int fillInternal(World world, BlockPos coord, EnumFacing side, int maxDrain) {
 		int drain = 0;
-		final TileEntity otherTank = BlockUtils.getTileInDirection(world, coord, side);
-
-		final EnumFacing drainSide = side.getOpposite();
-		IFluidHandler handler = CompatibilityUtils.getFluidHandler(otherTank, drainSide);
+		final IFluidHandler handler = getNeighbour(world, coord, side);
 
 		if (handler != null) {
 			final IFluidTankProperties[] infos = handler.getTankProperties();
@@ -198,4 +258,112 @@ public class GenericTank extends FluidTank {
 		return drain;
 	}
 
+	/**
+	 * Levels contents of this tank and all {@link GenericTank}s reachable through cached neighbours (i.e. exposed directly as fluid capability) that hold same fluid or can accept it.
+	 * Amounts are made proportional to capacity. Whole network is processed at once, so calls from other members in the same tick are no-ops.
+	 * Only tanks that already have {@link #updateNeighbours(World, BlockPos)} called take part in discovery.
+	 */
+	public void balanceNetwork(World world) {
+		if (world == null) return;
+
+		final FluidStack fluid = getFluid();
+		if (fluid == null) return; // some non-empty member will do it
+
+		final long tick = world.getTotalWorldTime();
+		if (lastBalanceTick == tick) return;
+
+		final List<GenericTank> network = collectNetwork(fluid, tick);
+		if (network.size() > 1) balance(network, fluid);
+	}
+
+	private boolean canJoinNetwork(FluidStack fluid) {
+		final FluidStack contents = getFluid();
+		return contents != null? contents.isFluidEqual(fluid) : canFillFluidType(fluid);
+	}
+
+	private List<GenericTank> collectNetwork(FluidStack fluid, long tick) {
+		final List<GenericTank> result = Lists.newArrayList();
+		final Deque<GenericTank> queue = new ArrayDeque<>();
+
+		this.lastBalanceTick = tick;
+		queue.add(this);
+
+		while (!queue.isEmpty()) {
+			final GenericTank tank = queue.poll();
+			result.add(tank);
+
+			for (CachedNeighbour neighbour : tank.neighbourCache.values()) {
+				if (!(neighbour.handler instanceof GenericTank) || !neighbour.isValid()) continue;
+				final GenericTank other = (GenericTank)neighbour.handler;
+				if (other.lastBalanceTick != tick && other.canJoinNetwork(fluid)) {
+					other.lastBalanceTick = tick;
+					queue.add(other);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	// extracted for testing
+	static void balance(List<GenericTank> tanks, FluidStack fluid) {
+		final List<GenericTank> members = Lists.newArrayList(tanks);
+
+		int[] targets;
+		while ((targets = computeTargets(members)) != null) {
+			// tanks that can't be filled or drained are left as they are and the rest is recalculated
+			boolean allowed = true;
+			for (int i = members.size() - 1; i >= 0; i--) {
+				final GenericTank tank = members.get(i);
+				final int amount = tank.getFluidAmount();
+				if ((targets[i] > amount && !tank.canFill()) || (targets[i] < amount && !tank.canDrain())) {
+					members.remove(i);
+					allowed = false;
+				}
+			}
+
+			if (allowed) break;
+		}
+
+		if (targets == null) return;
+
+		for (int i = 0; i < targets.length; i++) {
+			final GenericTank tank = members.get(i);
+			if (tank.getFluidAmount() == targets[i]) continue;
+			tank.setFluid(targets[i] > 0? new FluidStack(fluid, targets[i]) : null);
+			tank.onContentsChanged();
+		}
+	}
+
+	private static int[] computeTargets(List<GenericTank> tanks) {
+		if (tanks.size() < 2) return null;
+
+		long totalAmount = 0;
+		long totalCapacity = 0;
+		for (GenericTank tank : tanks) {
+			totalAmount += tank.getFluidAmount();
+			totalCapacity += tank.getCapacity();
+		}
+
+		if (totalCapacity <= 0) return null;
+
+		final int[] targets = new int[tanks.size()];
+		long remainder = totalAmount;
+		for (int i = 0; i < targets.length; i++) {
+			final int share = (int)(totalAmount * tanks.get(i).getCapacity() / totalCapacity);
+			targets[i] = share;
+			remainder -= share;
+		}
+
+		// rounding leftovers - at most one unit per tank
+		for (int i = 0; i < targets.length && remainder > 0; i++) {
+			if (targets[i] < tanks.get(i).getCapacity()) {
+				targets[i]++;
+				remainder--;
+			}
+		}
+
+		return targets;
+	}
+
 }
@@ -6,12 +6,18 @@ import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import javax.annotation.Nonnull;
+import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.block.model.IBakedModel;
 import net.minecraft.client.renderer.block.model.ItemOverride;
 import net.minecraft.client.renderer.block.model.ItemOverrideList;
@@ -19,11 +25,13 @@ import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.renderer.vertex.VertexFormat;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.item.ItemStack;
+import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
 import net.minecraftforge.client.model.IModel;
 import net.minecraftforge.client.model.ModelLoaderRegistry;
 import net.minecraftforge.common.model.IModelState;
+import openmods.LibConfig;
 import org.apache.commons.lang3.tuple.Pair;
 
 public class TexturedItemOverrides extends ItemOverrideList {
@@ -35,14 +43,63 @@ public class TexturedItemOverrides extends ItemOverrideList {
 	private final VertexFormat format;
 	private final Function<ResourceLocation, TextureAtlasSprite> bakedTextureGetter;
 
-	private final LoadingCache<Pair<ResourceLocation, Optional<ResourceLocation>>, IBakedModel> textureOverrides = CacheBuilder.newBuilder().expireAfterAccess(5, TimeUnit.SECONDS).build(new CacheLoader<Pair<ResourceLocation, Optional<ResourceLocation>>, IBakedModel>() {
+	public static class CacheStats {
+		public final long hits;
+		public final long misses;
+		public final long bakes;
+		public final long bakeTimeNanos;
+		public final long asyncBakes;
+
+		private CacheStats(long hits, long misses, long bakes, long bakeTimeNanos, long asyncBakes) {
+			this.hits = hits;
+			this.misses = misses;
+			this.bakes = bakes;
+			this.bakeTimeNanos = bakeTimeNanos;
+			this.asyncBakes = asyncBakes;
+		}
+
 		@Override
-		public IBakedModel load(Pair<ResourceLocation, Optional<ResourceLocation>> key) throws Exception {
-			final IModel overrideModel = getOverrideModel(key.getRight());
-			final IModel retexturedModel = retextureModel(overrideModel, key.getKey());
-			return retexturedModel.bake(state, format, bakedTextureGetter);
+		public String toString() {
+			return String.format("hits: %d, misses: %d, bakes: %d (%.2f ms), async bakes: %d", hits, misses, bakes, bakeTimeNanos / 1e6, asyncBakes);
 		}
-	});
+	}
+
+	private static final LongAdder hits = new LongAdder();
+	private static final LongAdder misses = new LongAdder();
+	private static final LongAdder bakes = new LongAdder();
+	private static final LongAdder bakeTime = new LongAdder();
+	private static final LongAdder asyncBakes = new LongAdder();
+
+	public static CacheStats getCacheStats() {
+		return new CacheStats(hits.sum(), misses.sum(), bakes.sum(), bakeTime.sum(), asyncBakes.sum());
+	}
+
+	private static ExecutorService prebakeExecutor;
+
+	private static synchronized ExecutorService getPrebakeExecutor() {
+		if (prebakeExecutor == null) prebakeExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("OpenMods item model baker").setDaemon(true).build());
+		return prebakeExecutor;
+	}
+
+	private static final EnumFacing[] QUAD_SIDES = { null, EnumFacing.DOWN, EnumFacing.UP, EnumFacing.NORTH, EnumFacing.SOUTH, EnumFacing.WEST, EnumFacing.EAST };
+
+	private static int countQuads(IBakedModel model) {
+		int result = 0;
+		for (EnumFacing side : QUAD_SIDES)
+			result += model.getQuads(null, side, 0).size();
+		return Math.max(result, 1);
+	}
+
+	private final LoadingCache<Pair<ResourceLocation, Optional<ResourceLocation>>, IBakedModel> textureOverrides = CacheBuilder.newBuilder()
+			.maximumWeight(LibConfig.texturedItemCacheQuadLimit)
+			.weigher((Pair<ResourceLocation, Optional<ResourceLocation>> key, IBakedModel model) -> countQuads(model))
+			.expireAfterAccess(LibConfig.texturedItemCacheRetention, TimeUnit.SECONDS)
+			.build(new CacheLoader<Pair<ResourceLocation, Optional<ResourceLocation>>, IBakedModel>() {
+				@Override
+				public IBakedModel load(Pair<ResourceLocation, Optional<ResourceLocation>> key) throws Exception {
+					return bake(resolveModel(key));
+				}
+			});
 
 	public TexturedItemOverrides(IBakedModel untexturedModel, IModel texturedModel, List<ItemOverride> texturedModelOverrides, Set<String> texturesToReplace, IModelState state, VertexFormat format, Function<ResourceLocation, TextureAtlasSprite> bakedTextureGetter) {
 		super(Lists.reverse(texturedModelOverrides));
@@ -63,7 +120,71 @@ public class TexturedItemOverrides extends ItemOverrideList {
 	private IBakedModel rebakeModel(ResourceLocation texture, @Nonnull ItemStack stack, World world, EntityLivingBase entity) {
 		@SuppressWarnings("deprecation")
 		final Optional<ResourceLocation> overrideLocation = Optional.ofNullable(applyOverride(stack, world, entity));
-		return textureOverrides.getUnchecked(Pair.of(texture, overrideLocation));
+		final Pair<ResourceLocation, Optional<ResourceLocation>> key = Pair.of(texture, overrideLocation);
+
+		final IBakedModel cached = textureOverrides.getIfPresent(key);
+		if (cached != null) {
+			hits.increment();
+			return cached;
+		}
+
+		misses.increment();
+		return textureOverrides.getUnchecked(key);
+	}
+
+	/**
+	 * Bakes model for stack in background, so it's ready when stack is rendered. Overrides are selected without world and entity.
+	 * Must be called on client thread, since models are loaded there - only baking is done in background.
+	 */
+	public CompletableFuture<IBakedModel> prebake(@Nonnull ItemStack stack) {
+		final Optional<ResourceLocation> texture = getTextureFromStack(stack);
+		if (!texture.isPresent()) return CompletableFuture.completedFuture(untexturedModel);
+
+		@SuppressWarnings("deprecation")
+		final Optional<ResourceLocation> overrideLocation = Optional.ofNullable(applyOverride(stack, null, null));
+		return prebake(texture.get(), overrideLocation);
+	}
+
+	public CompletableFuture<IBakedModel> prebake(ResourceLocation texture, Optional<ResourceLocation> overrideLocation) {
+		final Pair<ResourceLocation, Optional<ResourceLocation>> key = Pair.of(texture, overrideLocation);
+		final IBakedModel cached = textureOverrides.getIfPresent(key);
+		if (cached != null) return CompletableFuture.completedFuture(cached);
+
+		// model loader cache is not thread safe
+		final IModel model = resolveModel(key);
+		return CompletableFuture.supplyAsync(() -> {
+			asyncBakes.increment();
+			final IBakedModel result = bake(model);
+			final IBakedModel prev = textureOverrides.asMap().putIfAbsent(key, result);
+			return prev != null? prev : result;
+		}, getPrebakeExecutor());
+	}
+
+	/**
+	 * Helper for {@link IItemTexture} implementations: may be called on client thread when texture of stack changes, to bake its model before it's rendered.
+	 * Does nothing if stack model does not use textured item overrides.
+	 */
+	public static void prebakeModel(@Nonnull ItemStack stack) {
+		final IBakedModel model = Minecraft.getMinecraft().getRenderItem().getItemModelMesher().getItemModel(stack);
+		final ItemOverrideList overrides = model.getOverrides();
+		if (overrides instanceof TexturedItemOverrides) ((TexturedItemOverrides)overrides).prebake(stack);
+	}
+
+	public void invalidateCache() {
+		textureOverrides.invalidateAll();
+	}
+
+	private IModel resolveModel(Pair<ResourceLocation, Optional<ResourceLocation>> key) {
+		final IModel overrideModel = getOverrideModel(key.getRight());
+		return retextureModel(overrideModel, key.getLeft());
+	}
+
+	private IBakedModel bake(IModel model) {
+		final long start = System.nanoTime();
+		final IBakedModel result = model.bake(state, format, bakedTextureGetter);
+		bakeTime.add(System.nanoTime() - start);
+		bakes.increment();
+		return result;
 	}
 
 	private IModel getOverrideModel(Optional<ResourceLocation> overrideLocation) {
@@ -0,0 +1,115 @@
+package openmods.network;
+
+import static openmods.utils.CommandUtils.error;
+import static openmods.utils.CommandUtils.filterPrefixes;
+import static openmods.utils.CommandUtils.respond;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.SyntaxErrorException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import openmods.network.NetworkMetrics.Category;
+import openmods.network.NetworkMetrics.Entry;
+import openmods.network.NetworkMetrics.Snapshot;
+import openmods.utils.EntityWatcherCache;
+import openmods.utils.SidedCommand;
+
+public class CommandNetworkMetrics extends SidedCommand {
+
+	private static final String COMMAND_SHOW = "show";
+	private static final String COMMAND_RESET = "reset";
+	private static final String COMMAND_ENABLE = "enable";
+	private static final String COMMAND_DISABLE = "disable";
+	private static final String COMMAND_WATCHERS = "watchers";
+
+	private static final List<String> SUBCOMMANDS = ImmutableList.of(COMMAND_SHOW, COMMAND_RESET, COMMAND_ENABLE, COMMAND_DISABLE, COMMAND_WATCHERS);
+
+	private static final int DEFAULT_LIMIT = 10;
+
+	public CommandNetworkMetrics(String name, boolean restricted) {
+		super(name, restricted);
+	}
+
+	@Override
+	public String getUsage(ICommandSender sender) {
+		return name + " show [channel|event|rpc|sync_owner] [limit] | reset | enable | disable | watchers";
+	}
+
+	private static List<String> categoryNames() {
+		final List<String> result = Lists.newArrayList();
+		for (Category category : Category.values())
+			result.add(category.name().toLowerCase(Locale.ENGLISH));
+		return result;
+	}
+
+	@Override
+	public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+		if (args.length < 1) throw new SyntaxErrorException();
+
+		final String subCommand = args[0];
+		if (subCommand.equals(COMMAND_ENABLE)) {
+			NetworkMetrics.instance.setEnabled(true);
+			respond(sender, "openmodslib.command.netstats_enabled");
+		} else if (subCommand.equals(COMMAND_DISABLE)) {
+			NetworkMetrics.instance.setEnabled(false);
+			respond(sender, "openmodslib.command.netstats_disabled");
+		} else if (subCommand.equals(COMMAND_RESET)) {
+			NetworkMetrics.instance.reset();
+			respond(sender, "openmodslib.command.netstats_reset");
+		} else if (subCommand.equals(COMMAND_SHOW)) {
+			final Category category = args.length > 1? parseCategory(args[1]) : Category.CHANNEL;
+			final int limit = args.length > 2? parseLimit(args[2]) : DEFAULT_LIMIT;
+			show(sender, category, limit);
+		} else if (subCommand.equals(COMMAND_WATCHERS)) {
+			respond(sender, "openmodslib.command.netstats_watchers", EntityWatcherCache.instance.getLastTickLookups(), EntityWatcherCache.instance.getLastTickMisses());
+		} else {
+			throw error("openmodslib.command.invalid_command", subCommand);
+		}
+	}
+
+	private static Category parseCategory(String name) throws CommandException {
+		try {
+			return Category.valueOf(name.toUpperCase(Locale.ENGLISH));
+		} catch (IllegalArgumentException e) {
+			throw error("openmodslib.command.netstats_invalid_category", name, categoryNames());
+		}
+	}
+
+	private static int parseLimit(String value) throws CommandException {
+		try {
+			return Math.max(Integer.parseInt(value), 1);
+		} catch (NumberFormatException e) {
+			throw error("openmodslib.command.calc_invalid_number", value);
+		}
+	}
+
+	private void show(ICommandSender sender, Category category, int limit) {
+		if (!NetworkMetrics.instance.isEnabled()) respond(sender, "openmodslib.command.netstats_not_enabled", name);
+
+		final Snapshot snapshot = NetworkMetrics.instance.snapshot();
+		final List<Entry> entries = snapshot.get(category);
+		respond(sender, "openmodslib.command.netstats_header", category.name().toLowerCase(Locale.ENGLISH), entries.size());
+
+		for (Entry e : entries.subList(0, Math.min(limit, entries.size())))
+			respond(sender, "openmodslib.command.netstats_entry", e.key, e.packets, e.bytes, String.format(Locale.ROOT, "%.2f", e.encodeNanos / 1e6));
+	}
+
+	@Override
+	public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args, BlockPos pos) {
+		if (args.length == 1) return filterPrefixes(args[0], SUBCOMMANDS);
+		if (args.length == 2 && args[0].equals(COMMAND_SHOW)) return filterPrefixes(args[1], categoryNames());
+
+		return Collections.emptyList();
+	}
+
+	@Override
+	public boolean isUsernameIndex(String[] args, int index) {
+		return false;
+	}
+}
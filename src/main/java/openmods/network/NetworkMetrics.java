@@ -0,0 +1,137 @@
+package openmods.network;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import openmods.LibConfig;
+
+/**
+ * Counters of outgoing packets, bytes and time spent on encoding, grouped by channel, event class, RPC interface and sync owner.
+ * All channels are counted per encoded payload: packet sent to many players is counted once, with size of single copy.
+ * Disabled by default - senders check {@link #isEnabled()} before doing anything, so only cost when off is single field read.
+ */
+public class NetworkMetrics {
+
+	public enum Category {
+		CHANNEL,
+		EVENT,
+		RPC,
+		SYNC_OWNER
+	}
+
+	private static class Counter {
+		private final LongAdder packets = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+		private final LongAdder encodeNanos = new LongAdder();
+	}
+
+	public static class Entry {
+		public final String key;
+		public final long packets;
+		public final long bytes;
+		public final long encodeNanos;
+
+		public Entry(String key, long packets, long bytes, long encodeNanos) {
+			this.key = key;
+			this.packets = packets;
+			this.bytes = bytes;
+			this.encodeNanos = encodeNanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %d packets, %d bytes, %d ns", key, packets, bytes, encodeNanos);
+		}
+	}
+
+	public static class Snapshot {
+		private final Map<Category, List<Entry>> entries;
+
+		private Snapshot(Map<Category, List<Entry>> entries) {
+			this.entries = entries;
+		}
+
+		/**
+		 * @return entries sorted by byte count, largest first
+		 */
+		public List<Entry> get(Category category) {
+			final List<Entry> result = entries.get(category);
+			return result != null? result : Collections.<Entry> emptyList();
+		}
+
+		public Entry get(Category category, String key) {
+			for (Entry e : get(category))
+				if (e.key.equals(key)) return e;
+			return null;
+		}
+	}
+
+	private static final Comparator<Entry> LARGEST_FIRST = (a, b) -> Long.compare(b.bytes, a.bytes);
+
+	public static final NetworkMetrics instance = new NetworkMetrics();
+
+	// keys are either strings (channels) or classes
+	private final Map<Category, ConcurrentMap<Object, Counter>> counters = Maps.newEnumMap(Category.class);
+
+	// extracted for testing
+	NetworkMetrics() {
+		for (Category category : Category.values())
+			counters.put(category, new ConcurrentHashMap<>());
+	}
+
+	public boolean isEnabled() {
+		return LibConfig.networkMetrics;
+	}
+
+	public void setEnabled(boolean enabled) {
+		LibConfig.networkMetrics = enabled;
+	}
+
+	private void record(Category category, Object key, long bytes, long encodeNanos) {
+		final Counter counter = counters.get(category).computeIfAbsent(key, k -> new Counter());
+		counter.packets.increment();
+		counter.bytes.add(bytes);
+		counter.encodeNanos.add(encodeNanos);
+	}
+
+	/**
+	 * Records single encoded packet sent on channel, attributing it also to given source (i.e. event class).
+	 * Should be called once per encode, regardless of number of recipients.
+	 */
+	public void recordPacket(String channel, Category category, Class<?> source, long bytes, long encodeNanos) {
+		if (!isEnabled()) return;
+		record(Category.CHANNEL, channel, bytes, encodeNanos);
+		record(category, source, bytes, encodeNanos);
+	}
+
+	private static String keyName(Object key) {
+		return (key instanceof Class)? ((Class<?>)key).getName() : String.valueOf(key);
+	}
+
+	public Snapshot snapshot() {
+		final Map<Category, List<Entry>> result = Maps.newEnumMap(Category.class);
+		for (Map.Entry<Category, ConcurrentMap<Object, Counter>> e : counters.entrySet()) {
+			final List<Entry> entries = Lists.newArrayList();
+			for (Map.Entry<Object, Counter> c : e.getValue().entrySet()) {
+				final Counter counter = c.getValue();
+				entries.add(new Entry(keyName(c.getKey()), counter.packets.sum(), counter.bytes.sum(), counter.encodeNanos.sum()));
+			}
+			entries.sort(LARGEST_FIRST);
+			result.put(e.getKey(), ImmutableList.copyOf(entries));
+		}
+
+		return new Snapshot(result);
+	}
+
+	public void reset() {
+		for (ConcurrentMap<Object, Counter> c : counters.values())
+			c.clear();
+	}
+}
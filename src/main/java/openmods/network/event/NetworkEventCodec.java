@@ -16,6 +16,8 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.registries.IForgeRegistry;
 import openmods.Log;
 import openmods.OpenMods;
+import openmods.network.NetworkMetrics;
+import openmods.network.NetworkMetrics.Category;
 import openmods.utils.CommonRegistryCallbacks;
 
 @Sharable
@@ -32,6 +34,9 @@ public class NetworkEventCodec extends MessageToMessageCodec<FMLProxyPacket, Net
 		final Channel channel = ctx.channel();
 		final Side side = channel.attr(NetworkRegistry.CHANNEL_SOURCE).get();
 
+		final boolean recordMetrics = NetworkMetrics.instance.isEnabled();
+		final long encodeStart = recordMetrics? System.nanoTime() : 0;
+
 		final NetworkEventEntry entry = CommonRegistryCallbacks.getObjectToEntryMap(registry).get(msg.getClass());
 		Preconditions.checkState(entry != null, "Can't find registration for class %s", msg.getClass());
 		final int id = CommonRegistryCallbacks.getEntryIdMap(registry).get(entry);
@@ -47,6 +52,8 @@ public class NetworkEventCodec extends MessageToMessageCodec<FMLProxyPacket, Net
 		final FMLProxyPacket packet = new FMLProxyPacket(buf, NetworkEventDispatcher.CHANNEL_NAME);
 		packet.setDispatcher(msg.dispatcher);
 		out.add(packet);
+
+		if (recordMetrics) NetworkMetrics.instance.recordPacket(NetworkEventDispatcher.CHANNEL_NAME, Category.EVENT, msg.getClass(), buf.readableBytes(), System.nanoTime() - encodeStart);
 	}
 
 	@Override
@@ -15,6 +15,8 @@ import net.minecraftforge.fml.common.network.internal.FMLProxyPacket;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.registries.IForgeRegistry;
 import openmods.OpenMods;
+import openmods.network.NetworkMetrics;
+import openmods.network.NetworkMetrics.Category;
 import openmods.utils.CommonRegistryCallbacks;
 
 @Sharable
@@ -31,6 +33,9 @@ public class RpcCallCodec extends MessageToMessageCodec<FMLProxyPacket, RpcCall>
 
 	@Override
 	protected void encode(ChannelHandlerContext ctx, RpcCall call, List<Object> out) throws Exception {
+		final boolean recordMetrics = NetworkMetrics.instance.isEnabled();
+		final long encodeStart = recordMetrics? System.nanoTime() : 0;
+
 		final PacketBuffer output = new PacketBuffer(Unpooled.buffer());
 
 		{
@@ -50,6 +55,8 @@ public class RpcCallCodec extends MessageToMessageCodec<FMLProxyPacket, RpcCall>
 
 		FMLProxyPacket packet = new FMLProxyPacket(output, RpcCallDispatcher.CHANNEL_NAME);
 		out.add(packet);
+
+		if (recordMetrics) NetworkMetrics.instance.recordPacket(RpcCallDispatcher.CHANNEL_NAME, Category.RPC, call.method.method.getDeclaringClass(), output.readableBytes(), System.nanoTime() - encodeStart);
 	}
 
 	@Override
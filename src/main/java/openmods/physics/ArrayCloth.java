@@ -0,0 +1,231 @@
+package openmods.physics;
+
+import gnu.trove.list.array.TIntArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * Same simulation as {@link Cloth}, but with points and constraints stored in primitive arrays.
+ * In default mode results are identical to {@link Cloth}. In partitioned mode constraints are solved in four independent groups
+ * (vertical/horizontal, even/odd rows/columns), which changes solving order, but allows large cloths to solve every group in parallel.
+ */
+public class ArrayCloth {
+
+	private static final int PHYSICS_ITERATIONS = 2;
+
+	private static final int PARALLEL_THRESHOLD = 1024;
+
+	private static final double FORCE_X = 0.0 * (0.05 * 0.05);
+	private static final double FORCE_Y = -0.5 * (0.05 * 0.05);
+	private static final double FORCE_Z = 0.0 * (0.05 * 0.05);
+
+	public final int numX;
+
+	public final int numY;
+
+	private final double[] x;
+	private final double[] y;
+	private final double[] z;
+
+	private final double[] prevX;
+	private final double[] prevY;
+	private final double[] prevZ;
+
+	private final double[] invMass;
+
+	private final int[] constraintA;
+	private final int[] constraintB;
+	private final double[] restLengthSq;
+
+	private final int[][] partitions;
+
+	private boolean partitioned;
+
+	public ArrayCloth(int density, double width, double height) {
+		final double maxDim = Math.max(width, height);
+		final double spacing = maxDim / density;
+		this.numX = (int)((density * (width / maxDim)) + 0.5);
+		this.numY = (int)((density * (height / maxDim)) + 0.5);
+
+		final int pointCount = numX * numY;
+		x = new double[pointCount];
+		y = new double[pointCount];
+		z = new double[pointCount];
+		invMass = new double[pointCount];
+
+		final TIntArrayList a = new TIntArrayList();
+		final TIntArrayList b = new TIntArrayList();
+		final TIntArrayList[] groups = { new TIntArrayList(), new TIntArrayList(), new TIntArrayList(), new TIntArrayList() };
+
+		int i, j;
+		double px, py;
+		for (i = 0, py = 0; i < numY; i++, py += spacing) {
+			for (j = 0, px = 0; j < numX; j++, px += spacing) {
+				final int point = index(i, j);
+				x[point] = px / width;
+				y[point] = py / height;
+				z[point] = 0;
+				invMass[point] = 1;
+
+				if (i > 0) {
+					groups[(i - 1) & 1].add(a.size());
+					a.add(index(i - 1, j));
+					b.add(point);
+				}
+
+				if (j > 0) {
+					groups[2 + ((j - 1) & 1)].add(a.size());
+					a.add(index(i, j - 1));
+					b.add(point);
+				}
+			}
+		}
+
+		prevX = x.clone();
+		prevY = y.clone();
+		prevZ = z.clone();
+
+		invMass[index(0, 0)] = 0;
+		invMass[index(0, numX / 2)] = 0;
+		invMass[index(0, numX - 1)] = 0;
+
+		constraintA = a.toArray();
+		constraintB = b.toArray();
+		restLengthSq = new double[constraintA.length];
+		for (int c = 0; c < constraintA.length; c++) {
+			final double dx = x[constraintA[c]] - x[constraintB[c]];
+			final double dy = y[constraintA[c]] - y[constraintB[c]];
+			final double dz = z[constraintA[c]] - z[constraintB[c]];
+			final double restLength = Math.sqrt(dx * dx + dy * dy + dz * dz);
+			restLengthSq[c] = restLength * restLength;
+		}
+
+		partitions = new int[groups.length][];
+		for (int g = 0; g < groups.length; g++)
+			partitions[g] = groups[g].toArray();
+	}
+
+	public int index(int row, int column) {
+		return row * numX + column;
+	}
+
+	public int getPointCount() {
+		return x.length;
+	}
+
+	public double getX(int point) {
+		return x[point];
+	}
+
+	public double getY(int point) {
+		return y[point];
+	}
+
+	public double getZ(int point) {
+		return z[point];
+	}
+
+	public boolean isPartitioned() {
+		return partitioned;
+	}
+
+	public void setPartitioned(boolean partitioned) {
+		this.partitioned = partitioned;
+	}
+
+	private static double clamp(double value) {
+		return (value < 0)? 0 : ((value > 1)? 1 : value);
+	}
+
+	private void updatePoint(int point) {
+		if (invMass[point] != 0) {
+			final double newX = clamp(x[point] * 1.99 - prevX[point] * 0.99 + FORCE_X);
+			final double newY = clamp(y[point] * 1.99 - prevY[point] * 0.99 + FORCE_Y);
+			final double newZ = clamp(z[point] * 1.99 - prevZ[point] * 0.99 + FORCE_Z);
+			prevX[point] = x[point];
+			prevY[point] = y[point];
+			prevZ[point] = z[point];
+			x[point] = newX;
+			y[point] = newY;
+			z[point] = newZ;
+		}
+	}
+
+	private void updateConstraint(int constraint) {
+		final int p1 = constraintA[constraint];
+		final int p2 = constraintB[constraint];
+
+		final double dx = x[p2] - x[p1];
+		final double dy = y[p2] - y[p1];
+		final double dz = z[p2] - z[p1];
+
+		final double p1InvMass = invMass[p1];
+		final double p2InvMass = invMass[p2];
+
+		// only x and y, same as FastVector.squaredLength
+		final double d = dx * dx + dy * dy;
+		final double rest = restLengthSq[constraint];
+		final double diff = (d - rest) / ((rest + d) * (p1InvMass + p2InvMass));
+
+		if (p1InvMass != 0) {
+			final double m = p1InvMass * diff;
+			x[p1] += dx * m;
+			y[p1] += dy * m;
+			z[p1] += dz * m;
+		}
+
+		if (p2InvMass != 0) {
+			final double m = p2InvMass * diff;
+			x[p2] -= dx * m;
+			y[p2] -= dy * m;
+			z[p2] -= dz * m;
+		}
+	}
+
+	public void update() {
+		update(partitioned && constraintA.length >= PARALLEL_THRESHOLD);
+	}
+
+	// extracted for testing
+	void update(boolean parallel) {
+		final int pointCount = x.length;
+
+		if (parallel) IntStream.range(0, pointCount).parallel().forEach(this::updatePoint);
+		else for (int p = 0; p < pointCount; p++)
+			updatePoint(p);
+
+		for (int iteration = 0; iteration < PHYSICS_ITERATIONS; iteration++) {
+			if (partitioned) {
+				for (int[] partition : partitions) {
+					// constraints in single partition never share points
+					if (parallel) IntStream.of(partition).parallel().forEach(this::updateConstraint);
+					else for (int c : partition)
+						updateConstraint(c);
+				}
+			} else {
+				for (int c = 0; c < constraintA.length; c++)
+					updateConstraint(c);
+			}
+		}
+	}
+
+	/**
+	 * @return index of point closest to given position (but not further than 1), or -1 if there is none
+	 */
+	public int getClosestPoint(double posX, double posY, double posZ) {
+		double minDistSq = 1;
+		int result = -1;
+
+		for (int p = 0; p < x.length; p++) {
+			final double dx = posX - x[p];
+			final double dy = posY - y[p];
+			final double dz = posZ - z[p];
+			final double distSq = dx * dx + dy * dy + dz * dz;
+			if (distSq < minDistSq) {
+				minDistSq = distSq;
+				result = p;
+			}
+		}
+
+		return result;
+	}
+}
@@ -47,7 +47,7 @@ import openmods.model.textureditem.TexturedItemModel;
 import openmods.model.variant.VariantModel;
 import openmods.renderer.CommandGlDebug;
 import openmods.source.CommandSource;
-import openmods.utils.CachedFactory;
+import openmods.utils.ClassMetadataCache;
 import openmods.utils.SneakyThrower;
 import openmods.utils.render.FramebufferBlitter;
 import openmods.utils.render.RenderUtils;
@@ -173,11 +173,11 @@ public final class OpenClientProxy implements IOpenModsProxy {
 		ModelLoader.setCustomModelResourceLocation(item, metadata, modelLoc);
 	}
 
-	private static final CachedFactory<Class<? extends ICustomItemModelProvider>, ICustomItemModelProvider> customItemModelProviders = new CachedFactory<Class<? extends ICustomItemModelProvider>, ICustomItemModelProvider>() {
+	private static final ClassMetadataCache<ICustomItemModelProvider> customItemModelProviders = new ClassMetadataCache<ICustomItemModelProvider>() {
 		@Override
-		protected ICustomItemModelProvider create(Class<? extends ICustomItemModelProvider> key) {
+		protected ICustomItemModelProvider create(Class<?> key) {
 			try {
-				return key.newInstance();
+				return key.asSubclass(ICustomItemModelProvider.class).newInstance();
 			} catch (Exception e) {
 				throw SneakyThrower.sneakyThrow(e);
 			}
@@ -186,7 +186,7 @@ public final class OpenClientProxy implements IOpenModsProxy {
 
 	@Override
 	public void runCustomItemModelProvider(final ResourceLocation location, final Item item, Class<? extends ICustomItemModelProvider> providerCls) {
-		final ICustomItemModelProvider provider = customItemModelProviders.getOrCreate(providerCls);
+		final ICustomItemModelProvider provider = customItemModelProviders.get(providerCls);
 		provider.addCustomItemModels(item, location, (meta, modelLocation) -> OpenMods.proxy.registerCustomItemModel(item, meta, modelLocation));
 	}
 
@@ -1,8 +1,9 @@
 package openmods.reflection;
 
+import com.google.common.base.Preconditions;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import openmods.utils.CachedFactory;
+import openmods.utils.ClassMetadataCache;
 import openmods.utils.SneakyThrower;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.MethodVisitor;
@@ -20,6 +21,18 @@ public class ClonerFactory implements Opcodes {
 		public Class<?> define(byte[] data) {
 			return defineClass(null, data, 0, data.length);
 		}
+
+		public Class<?> findDefined(String name) {
+			return findLoadedClass(name);
+		}
+
+		public Class<?> resolve(String name) {
+			try {
+				return loadClass(name);
+			} catch (ClassNotFoundException e) {
+				return null;
+			}
+		}
 	}
 
 	public interface ICloner<T> {
@@ -32,7 +45,9 @@ public class ClonerFactory implements Opcodes {
 
 	public static final ClonerFactory instance = new ClonerFactory();
 
-	private final CachedFactory<Class<?>, ICloner<?>> cache = new CachedFactory<Class<?>, ClonerFactory.ICloner<?>>() {
+	private static final String CLONER_SUFFIX = "$$cloner$";
+
+	private final ClassMetadataCache<ICloner<?>> cache = new ClassMetadataCache<ICloner<?>>() {
 		@Override
 		protected ICloner<?> create(Class<?> key) {
 			try {
@@ -51,7 +66,7 @@ public class ClonerFactory implements Opcodes {
 
 		final String commonCls = Type.getInternalName(cls);
 
-		final String name = commonCls + "$$cloner$";
+		final String name = commonCls + CLONER_SUFFIX;
 
 		writer.visit(V1_6, ACC_PUBLIC | ACC_SUPER | ACC_SYNTHETIC, name, null, "java/lang/Object", new String[] { CLONER_DESC });
 		writer.visitSource(".dynamic", null);
@@ -111,13 +126,23 @@ public class ClonerFactory implements Opcodes {
 
 	@SuppressWarnings("unchecked")
 	private Class<? extends ICloner<?>> createClonerClass(Class<?> cls) {
-		final byte[] classData = createClonerClassData(cls);
-		return (Class<? extends ICloner<?>>)clonerClassLoader.define(classData);
+		synchronized (clonerClassLoader) {
+			// cloner refers to target by name, so name must resolve to same class in cloner loader (otherwise existing or new cloner would be for different class)
+			final Class<?> target = clonerClassLoader.resolve(cls.getName());
+			Preconditions.checkState(target == cls, "Class %s (loader: %s) is not visible to cloner loader, found %s", cls, cls.getClassLoader(), target);
+
+			// cache may ask for same class from multiple threads, but it can be defined only once
+			final Class<?> existing = clonerClassLoader.findDefined(cls.getName() + CLONER_SUFFIX);
+			if (existing != null) return (Class<? extends ICloner<?>>)existing;
+
+			final byte[] classData = createClonerClassData(cls);
+			return (Class<? extends ICloner<?>>)clonerClassLoader.define(classData);
+		}
 	}
 
 	@SuppressWarnings("unchecked")
 	public <T> ICloner<T> getCloner(Class<T> cls) {
-		return (ICloner<T>)cache.getOrCreate(cls);
+		return (ICloner<T>)cache.get(cls);
 	}
 
 }
@@ -1,7 +1,12 @@
 package openmods.reflection;
 
+import com.google.common.primitives.Primitives;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import openmods.Log;
 
 public class FieldAccess<T> {
 
@@ -22,8 +27,23 @@ public class FieldAccess<T> {
 
 	}
 
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
 	public final Field field;
 
+	private final Class<?> receiverCls;
+
+	private final Class<?> boxedType;
+
+	// handles are only used when target and value exactly match field, everything else goes through reflection
+	private final MethodHandle getter;
+
+	private final MethodHandle setter;
+
 	public FieldAccess(Field field) {
 		this(field, true);
 	}
@@ -32,11 +52,48 @@ public class FieldAccess<T> {
 		if (log) ReflectionLog.logLoad(field);
 		this.field = field;
 		field.setAccessible(true);
+
+		final boolean isStatic = Modifier.isStatic(field.getModifiers());
+		this.receiverCls = isStatic? null : field.getDeclaringClass();
+		this.boxedType = Primitives.wrap(field.getType());
+
+		MethodHandle getter = null;
+		MethodHandle setter = null;
+		try {
+			getter = LOOKUP.unreflectGetter(field);
+			if (isStatic) getter = MethodHandles.dropArguments(getter, 0, Object.class);
+			getter = getter.asType(GETTER_TYPE);
+
+			// final fields are left to reflection, since it has different rules for modifying them
+			if (!Modifier.isFinal(field.getModifiers())) {
+				setter = LOOKUP.unreflectSetter(field);
+				if (isStatic) setter = MethodHandles.dropArguments(setter, 0, Object.class);
+				setter = setter.asType(SETTER_TYPE);
+			}
+		} catch (IllegalAccessException e) {
+			Log.debug("Failed to create handles for field %s, falling back to reflection: %s", field, e);
+		}
+
+		this.getter = getter;
+		this.setter = setter;
+	}
+
+	private boolean acceptsTarget(Object target) {
+		return receiverCls == null || receiverCls.isInstance(target);
+	}
+
+	private boolean acceptsValue(Object value) {
+		return value != null? boxedType.isInstance(value) : !field.getType().isPrimitive();
 	}
 
 	@SuppressWarnings("unchecked")
 	public T get(Object target) {
 		try {
+			if (getter != null && acceptsTarget(target)) {
+				final Object value = getter.invokeExact(target);
+				return (T)value;
+			}
+
 			return (T)field.get(target);
 		} catch (Throwable t) {
 			throw new FieldAccessException(field, "read", t);
@@ -45,12 +102,18 @@ public class FieldAccess<T> {
 
 	public void set(Object target, T value) {
 		try {
-			field.set(target, value);
+			if (setter != null && acceptsTarget(target) && acceptsValue(value)) setter.invokeExact(target, (Object)value);
+			else field.set(target, value);
 		} catch (Throwable t) {
 			throw new FieldAccessException(field, "set", t);
 		}
 	}
 
+	// extracted for testing
+	boolean usesMethodHandles() {
+		return getter != null;
+	}
+
 	public boolean isPublic() {
 		return Modifier.isPublic(field.getModifiers());
 	}
@@ -3,10 +3,19 @@ package openmods.reflection;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.primitives.Primitives;
 import com.google.common.reflect.TypeToken;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.TypeVariable;
 import java.util.List;
+import openmods.Log;
 
 public class MethodAccess {
 
@@ -16,24 +25,154 @@ public class MethodAccess {
 		public R call(Object target, Object... args);
 	}
 
+	// extracted for testing
+	enum Backend {
+		REFLECTION,
+		METHOD_HANDLE,
+		LAMBDA
+	}
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private static RuntimeException wrapTargetException(Throwable t) {
+		// same as exception thrown when reflection is used
+		return new RuntimeException(new InvocationTargetException(t));
+	}
+
+	private static boolean isAccessibleFromLambda(Class<?> cls) {
+		while (cls.isArray())
+			cls = cls.getComponentType();
+
+		if (cls.isPrimitive()) return true;
+		if (!Modifier.isPublic(cls.getModifiers())) return false;
+
+		try {
+			return Class.forName(cls.getName(), false, MethodAccess.class.getClassLoader()) == cls;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	private static boolean canCreateLambda(Method method, int arity) {
+		if (method.getParameterCount() != arity) return false;
+		if (Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers())) return false;
+		if (method.getReturnType() == void.class) return false;
+
+		if (!isAccessibleFromLambda(method.getDeclaringClass()) || !isAccessibleFromLambda(method.getReturnType())) return false;
+		for (Class<?> param : method.getParameterTypes())
+			if (!isAccessibleFromLambda(param)) return false;
+
+		return true;
+	}
+
+	/**
+	 * Creates implementation of function interface that calls method directly. Only public, non-static methods with return value can be wrapped this way.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <F> F createLambda(Class<F> intf, int arity, Method method) {
+		if (!canCreateLambda(method, arity)) return null;
+
+		try {
+			final MethodHandle impl = LOOKUP.unreflect(method);
+			final CallSite site = LambdaMetafactory.metafactory(LOOKUP, "call",
+					MethodType.methodType(intf),
+					MethodType.genericMethodType(arity + 1),
+					impl,
+					impl.type().wrap());
+			return (F)site.getTarget().invoke();
+		} catch (Throwable t) {
+			Log.debug("Failed to create lambda for method %s, falling back to method handle: %s", method, t);
+			return null;
+		}
+	}
+
+	private static MethodHandle createSpreadHandle(Method method) {
+		try {
+			// varargs methods should be called in same way as with reflection - with array as last argument
+			MethodHandle handle = LOOKUP.unreflect(method).asFixedArity();
+			if (Modifier.isStatic(method.getModifiers())) handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			return handle.asType(handle.type().generic()).asSpreader(Object[].class, method.getParameterCount());
+		} catch (IllegalAccessException e) {
+			Log.debug("Failed to create handle for method %s, falling back to reflection: %s", method, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Direct calls (via lambda or method handle) are only done when arguments exactly match method signature.
+	 * Everything else (like widening conversions or invalid arguments) goes through reflection, so behaviour stays the same.
+	 */
 	private static class FunctionWrap<R> implements FunctionVar<R> {
 		private final Method method;
 
+		private final Class<?> receiverCls;
+
+		private final Class<?>[] paramTypes;
+
+		private final Class<?>[] boxedParamTypes;
+
+		private final MethodHandle handle;
+
 		public FunctionWrap(Class<? extends R> returnCls, Method method) {
 			this.method = method;
 			method.setAccessible(true);
 			Preconditions.checkArgument(returnCls.isAssignableFrom(method.getReturnType()), "Method '%s' has invalid return type", method);
+
+			this.receiverCls = Modifier.isStatic(method.getModifiers())? null : method.getDeclaringClass();
+			this.paramTypes = method.getParameterTypes();
+			this.boxedParamTypes = new Class<?>[paramTypes.length];
+			for (int i = 0; i < paramTypes.length; i++)
+				boxedParamTypes[i] = Primitives.wrap(paramTypes[i]);
+
+			this.handle = createSpreadHandle(method);
+		}
+
+		protected boolean acceptsTarget(Object target) {
+			return receiverCls == null || receiverCls.isInstance(target);
+		}
+
+		protected boolean acceptsArg(int index, Object value) {
+			return value != null? boxedParamTypes[index].isInstance(value) : !paramTypes[index].isPrimitive();
+		}
+
+		private boolean acceptsArgs(Object[] args) {
+			final int argCount = args != null? args.length : 0;
+			if (argCount != paramTypes.length) return false;
+
+			for (int i = 0; i < argCount; i++)
+				if (!acceptsArg(i, args[i])) return false;
+
+			return true;
 		}
 
 		@Override
 		@SuppressWarnings("unchecked")
 		public R call(Object target, Object... args) {
+			if (handle != null && acceptsTarget(target) && acceptsArgs(args)) {
+				final Object result;
+				try {
+					result = handle.invokeExact(target, args);
+				} catch (Throwable t) {
+					throw wrapTargetException(t);
+				}
+				return (R)result;
+			}
+
 			try {
 				return (R)method.invoke(target, args);
 			} catch (ReflectiveOperationException e) {
 				throw new RuntimeException(e);
 			}
 		}
+
+		Backend getBackend() {
+			return handle != null? Backend.METHOD_HANDLE : Backend.REFLECTION;
+		}
+	}
+
+	// extracted for testing
+	static Backend getBackend(FunctionBase<?> function) {
+		return ((FunctionWrap<?>)function).getBackend();
 	}
 
 	// R()
@@ -43,14 +182,31 @@ public class MethodAccess {
 	}
 
 	private static class Function0Impl<R> extends FunctionWrap<R> implements Function0<R> {
+		private final Function0<R> direct;
+
+		@SuppressWarnings("unchecked")
 		public Function0Impl(Class<? extends R> returnCls, Method method) {
 			super(returnCls, method);
+			this.direct = createLambda(Function0.class, 0, method);
 		}
 
 		@Override
 		public R call(Object target) {
+			if (direct != null && acceptsTarget(target)) {
+				try {
+					return direct.call(target);
+				} catch (Throwable t) {
+					throw wrapTargetException(t);
+				}
+			}
+
 			return super.call(target);
 		}
+
+		@Override
+		Backend getBackend() {
+			return direct != null? Backend.LAMBDA : super.getBackend();
+		}
 	}
 
 	public static <R> Function0<R> create(Class<? extends R> returnCls, Class<?> target, String... names) {
@@ -64,14 +220,31 @@ public class MethodAccess {
 	}
 
 	private static class Function1Impl<R, P1> extends FunctionWrap<R> implements Function1<R, P1> {
+		private final Function1<R, P1> direct;
+
+		@SuppressWarnings("unchecked")
 		public Function1Impl(Class<? extends R> returnCls, Method method) {
 			super(returnCls, method);
+			this.direct = createLambda(Function1.class, 1, method);
 		}
 
 		@Override
 		public R call(Object target, P1 p1) {
+			if (direct != null && acceptsTarget(target) && acceptsArg(0, p1)) {
+				try {
+					return direct.call(target, p1);
+				} catch (Throwable t) {
+					throw wrapTargetException(t);
+				}
+			}
+
 			return super.call(target, p1);
 		}
+
+		@Override
+		Backend getBackend() {
+			return direct != null? Backend.LAMBDA : super.getBackend();
+		}
 	}
 
 	public static <R, P1> Function1<R, P1> create(Class<? extends R> returnCls, Class<?> target, Class<? extends P1> p1, String... names) {
@@ -85,14 +258,31 @@ public class MethodAccess {
 	}
 
 	private static class Function2Impl<R, P1, P2> extends FunctionWrap<R> implements Function2<R, P1, P2> {
+		private final Function2<R, P1, P2> direct;
+
+		@SuppressWarnings("unchecked")
 		public Function2Impl(Class<? extends R> returnCls, Method method) {
 			super(returnCls, method);
+			this.direct = createLambda(Function2.class, 2, method);
 		}
 
 		@Override
 		public R call(Object target, P1 p1, P2 p2) {
+			if (direct != null && acceptsTarget(target) && acceptsArg(0, p1) && acceptsArg(1, p2)) {
+				try {
+					return direct.call(target, p1, p2);
+				} catch (Throwable t) {
+					throw wrapTargetException(t);
+				}
+			}
+
 			return super.call(target, p1, p2);
 		}
+
+		@Override
+		Backend getBackend() {
+			return direct != null? Backend.LAMBDA : super.getBackend();
+		}
 	}
 
 	public static <R, P1, P2> Function2<R, P1, P2> create(Class<? extends R> returnCls, Class<?> target, Class<? extends P1> p1, Class<? extends P2> p2, String... names) {
@@ -106,14 +296,31 @@ public class MethodAccess {
 	}
 
 	private static class Function3Impl<R, P1, P2, P3> extends FunctionWrap<R> implements Function3<R, P1, P2, P3> {
+		private final Function3<R, P1, P2, P3> direct;
+
+		@SuppressWarnings("unchecked")
 		public Function3Impl(Class<? extends R> returnCls, Method method) {
 			super(returnCls, method);
+			this.direct = createLambda(Function3.class, 3, method);
 		}
 
 		@Override
 		public R call(Object target, P1 p1, P2 p2, P3 p3) {
+			if (direct != null && acceptsTarget(target) && acceptsArg(0, p1) && acceptsArg(1, p2) && acceptsArg(2, p3)) {
+				try {
+					return direct.call(target, p1, p2, p3);
+				} catch (Throwable t) {
+					throw wrapTargetException(t);
+				}
+			}
+
 			return super.call(target, p1, p2, p3);
 		}
+
+		@Override
+		Backend getBackend() {
+			return direct != null? Backend.LAMBDA : super.getBackend();
+		}
 	}
 
 	public static <R, P1, P2, P3> Function3<R, P1, P2, P3> create(Class<? extends R> returnCls, Class<?> target, Class<? extends P1> p1, Class<? extends P2> p2, Class<? extends P3> p3, String... names) {
@@ -127,14 +334,31 @@ public class MethodAccess {
 	}
 
 	private static class Function4Impl<R, P1, P2, P3, P4> extends FunctionWrap<R> implements Function4<R, P1, P2, P3, P4> {
+		private final Function4<R, P1, P2, P3, P4> direct;
+
+		@SuppressWarnings("unchecked")
 		public Function4Impl(Class<? extends R> returnCls, Method method) {
 			super(returnCls, method);
+			this.direct = createLambda(Function4.class, 4, method);
 		}
 
 		@Override
 		public R call(Object target, P1 p1, P2 p2, P3 p3, P4 p4) {
+			if (direct != null && acceptsTarget(target) && acceptsArg(0, p1) && acceptsArg(1, p2) && acceptsArg(2, p3) && acceptsArg(3, p4)) {
+				try {
+					return direct.call(target, p1, p2, p3, p4);
+				} catch (Throwable t) {
+					throw wrapTargetException(t);
+				}
+			}
+
 			return super.call(target, p1, p2, p3, p4);
 		}
+
+		@Override
+		Backend getBackend() {
+			return direct != null? Backend.LAMBDA : super.getBackend();
+		}
 	}
 
 	public static <R, P1, P2, P3, P4> Function4<R, P1, P2, P3, P4> create(Class<? extends R> returnCls, Class<?> target, Class<? extends P1> p1, Class<? extends P2> p2, Class<? extends P3> p3, Class<? extends P4> p4, String... names) {
@@ -148,14 +372,31 @@ public class MethodAccess {
 	}
 
 	private static class Function5Impl<R, P1, P2, P3, P4, P5> extends FunctionWrap<R> implements Function5<R, P1, P2, P3, P4, P5> {
+		private final Function5<R, P1, P2, P3, P4, P5> direct;
+
+		@SuppressWarnings("unchecked")
 		public Function5Impl(Class<? extends R> returnCls, Method method) {
 			super(returnCls, method);
+			this.direct = createLambda(Function5.class, 5, method);
 		}
 
 		@Override
 		public R call(Object target, P1 p1, P2 p2, P3 p3, P4 p4, P5 p5) {
+			if (direct != null && acceptsTarget(target) && acceptsArg(0, p1) && acceptsArg(1, p2) && acceptsArg(2, p3) && acceptsArg(3, p4) && acceptsArg(4, p5)) {
+				try {
+					return direct.call(target, p1, p2, p3, p4, p5);
+				} catch (Throwable t) {
+					throw wrapTargetException(t);
+				}
+			}
+
 			return super.call(target, p1, p2, p3, p4, p5);
 		}
+
+		@Override
+		Backend getBackend() {
+			return direct != null? Backend.LAMBDA : super.getBackend();
+		}
 	}
 
 	public static <R, P1, P2, P3, P4, P5> Function5<R, P1, P2, P3, P4, P5> create(Class<? extends R> returnCls, Class<?> target, Class<? extends P1> p1, Class<? extends P2> p2, Class<? extends P3> p3, Class<? extends P4> p4, Class<? extends P5> p5, String... names) {
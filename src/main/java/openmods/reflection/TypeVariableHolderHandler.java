@@ -1,6 +1,7 @@
 package openmods.reflection;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
@@ -9,6 +10,7 @@ import java.util.Map;
 import net.minecraftforge.fml.common.discovery.ASMDataTable;
 import net.minecraftforge.fml.common.discovery.ASMDataTable.ASMData;
 import openmods.Log;
+import openmods.utils.ClassMetadataCache;
 import org.objectweb.asm.Type;
 
 public class TypeVariableHolderHandler {
@@ -125,11 +127,19 @@ public class TypeVariableHolderHandler {
 			fillField(e.getKey(), e.getValue());
 	}
 
-	private final Map<Class<?>, Map<String, TypeVariable<?>>> sourceCache = Maps.newHashMap();
+	private static final ClassMetadataCache<Map<String, TypeVariable<?>>> sourceCache = new ClassMetadataCache<Map<String, TypeVariable<?>>>() {
+		@Override
+		protected Map<String, TypeVariable<?>> create(Class<?> sourceClass) {
+			final ImmutableMap.Builder<String, TypeVariable<?>> result = ImmutableMap.builder();
+			for (TypeVariable<?> t : sourceClass.getTypeParameters())
+				result.put(t.getName(), t);
+			return result.build();
+		}
+	};
 
 	private void fillField(Field targetField, Class<?> sourceClass) {
 		try {
-			final Map<String, TypeVariable<?>> sourceVariables = getSourceTypeVariables(sourceClass);
+			final Map<String, TypeVariable<?>> sourceVariables = sourceCache.get(sourceClass);
 
 			final String variableName = targetField.getName();
 			final TypeVariable<?> sourceTypeVariable = sourceVariables.get(variableName);
@@ -142,15 +152,4 @@ public class TypeVariableHolderHandler {
 		}
 	}
 
-	private Map<String, TypeVariable<?>> getSourceTypeVariables(Class<?> sourceClass) {
-		Map<String, TypeVariable<?>> result = sourceCache.get(sourceClass);
-		if (result == null) {
-			result = Maps.newHashMap();
-			for (TypeVariable<?> t : sourceClass.getTypeParameters())
-				result.put(t.getName(), t);
-			sourceCache.put(sourceClass, result);
-		}
-		return result;
-	}
-
 }
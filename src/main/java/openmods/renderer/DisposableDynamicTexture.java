@@ -1,6 +1,7 @@
 package openmods.renderer;
 
 import com.google.common.base.Preconditions;
+import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.texture.AbstractTexture;
 import net.minecraft.client.renderer.texture.TextureManager;
 import net.minecraft.client.renderer.texture.TextureUtil;
@@ -23,6 +24,7 @@ public class DisposableDynamicTexture extends AbstractTexture {
 		if (width != this.width || height != this.height) {
 			this.width = width;
 			this.height = height;
+			this.dynamicTextureData = null;
 			TextureUtil.allocateTexture(getGlTextureId(), width, height);
 		}
 	}
@@ -35,11 +37,34 @@ public class DisposableDynamicTexture extends AbstractTexture {
 		TextureUtil.uploadTexture(getGlTextureId(), dynamicTextureData, width, height);
 	}
 
+	/**
+	 * Uploads only part of texture. Contents of other areas are left as they were.
+	 */
+	public void updateRegion(int x, int y, int regionWidth, int regionHeight) {
+		Preconditions.checkNotNull(dynamicTextureData, "Texture not allocated");
+		Preconditions.checkArgument(x >= 0 && y >= 0 && x + regionWidth <= width && y + regionHeight <= height, "Region out of bounds");
+
+		final int[] region = new int[regionWidth * regionHeight];
+		for (int row = 0; row < regionHeight; row++)
+			System.arraycopy(dynamicTextureData, (y + row) * width + x, region, row * regionWidth, regionWidth);
+
+		GlStateManager.bindTexture(getGlTextureId());
+		TextureUtil.uploadTextureMipmap(new int[][] { region }, regionWidth, regionHeight, x, y, false, false);
+	}
+
 	public void updateAndDeallocate() {
 		update();
 		dynamicTextureData = null;
 	}
 
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
 	public int[] allocate() {
 		if (dynamicTextureData == null) dynamicTextureData = new int[width * height];
 
@@ -2,34 +2,68 @@ package openmods.renderer;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import net.minecraft.client.renderer.texture.TextureManager;
 import net.minecraft.util.ResourceLocation;
+import openmods.renderer.MaxRectsPacker.Rect;
 import openmods.utils.ByteUtils;
 
+/**
+ * Texture built from cells of arbitrary size, packed with {@link MaxRectsPacker}.
+ * After {@link #compile()}, cells can still be added and repainted - {@link #update()} uploads only changed areas (unless atlas had to grow).
+ * Because of that, pixel buffer is kept in memory for whole life of atlas.
+ */
 public class DynamicTextureAtlas {
 
 	public class AtlasCell {
 		private int[] pixels;
 
+		public final int width;
+		public final int height;
+
+		private Rect position;
+
+		private AtlasCell(int width, int height) {
+			this.width = width;
+			this.height = height;
+		}
+
 		public void setPixels(int[] pixels) {
+			Preconditions.checkArgument(pixels.length >= width * height, "Expected %s pixels, got %s", width * height, pixels.length);
 			this.pixels = pixels;
+			if (position != null) dirtyCells.add(this);
 		}
 
 		public float minU;
 		public float minV;
 		public float maxU;
 		public float maxV;
+
+		private void updateUVs(int atlasWidth, int atlasHeight) {
+			minU = (float)position.x / atlasWidth;
+			minV = (float)position.y / atlasHeight;
+			maxU = (float)position.maxX() / atlasWidth;
+			maxV = (float)position.maxY() / atlasHeight;
+		}
 	}
 
 	private final List<AtlasCell> cells = Lists.newArrayList();
 
+	private final List<AtlasCell> pendingCells = Lists.newArrayList();
+
+	private final Set<AtlasCell> dirtyCells = Sets.newLinkedHashSet();
+
 	public final int cellSize;
 
 	private final TextureManager manager;
 	private final DisposableDynamicTexture textureWrapper;
 	private final ResourceLocation textureLocation;
 
+	private MaxRectsPacker packer;
+
 	public DynamicTextureAtlas(TextureManager manager, int cellSize) {
 		Preconditions.checkArgument(ByteUtils.isPowerOfTwo(cellSize), "NO POWER!");
 		this.manager = manager;
@@ -43,52 +77,150 @@ public class DynamicTextureAtlas {
 	}
 
 	public AtlasCell allocateCell() {
-		AtlasCell cell = new AtlasCell();
+		return allocateCell(cellSize, cellSize);
+	}
+
+	public AtlasCell allocateCell(int width, int height) {
+		Preconditions.checkArgument(width > 0 && height > 0, "Invalid cell size: %sx%s", width, height);
+		AtlasCell cell = new AtlasCell(width, height);
 		cells.add(cell);
+		if (packer != null) pendingCells.add(cell);
 		return cell;
 	}
 
 	public void clearCells() {
 		cells.clear();
+		pendingCells.clear();
+		dirtyCells.clear();
+		packer = null;
+	}
+
+	private static final Comparator<AtlasCell> LARGEST_FIRST = (a, b) -> {
+		final int result = Integer.compare(Math.max(b.width, b.height), Math.max(a.width, a.height));
+		return result != 0? result : Integer.compare(b.width * b.height, a.width * a.height);
+	};
+
+	private static MaxRectsPacker tryPack(List<AtlasCell> cells, int width, int height) {
+		final MaxRectsPacker packer = new MaxRectsPacker(width, height);
+		for (AtlasCell cell : cells) {
+			final Rect position = packer.insert(cell.width, cell.height);
+			if (position == null) return null;
+			cell.position = position;
+		}
+		return packer;
 	}
 
+	/**
+	 * Packs all cells from scratch and uploads whole texture.
+	 */
 	public void compile() {
-		int count = cells.size();
-		Preconditions.checkState(count > 0, "No cells added");
-		int side = (int)Math.ceil(Math.sqrt(count));
-		int width = ByteUtils.nextPowerOf2(side);
-		int area = width * width;
-		int height = (count <= area / 2)? width / 2 : width;
+		Preconditions.checkState(!cells.isEmpty(), "No cells added");
+
+		final List<AtlasCell> sortedCells = Lists.newArrayList(cells);
+		sortedCells.sort(LARGEST_FIRST);
+
+		long area = 0;
+		int maxWidth = 0;
+		int maxHeight = 0;
+		for (AtlasCell cell : sortedCells) {
+			area += cell.width * cell.height;
+			maxWidth = Math.max(maxWidth, cell.width);
+			maxHeight = Math.max(maxHeight, cell.height);
+		}
 
-		textureWrapper.resize(width * cellSize, height * cellSize);
-		int[] buffer = textureWrapper.allocate();
+		int width = ByteUtils.nextPowerOf2(maxWidth);
+		int height = ByteUtils.nextPowerOf2(maxHeight);
+		while ((long)width * height < area) {
+			if (height < width) height *= 2;
+			else width *= 2;
+		}
 
-		final int pixelsPerLine = width * cellSize;
-		final int pixelsPerCellRow = pixelsPerLine * cellSize;
+		MaxRectsPacker packer;
+		while ((packer = tryPack(sortedCells, width, height)) == null) {
+			if (height < width) height *= 2;
+			else width *= 2;
+		}
 
-		final float cellU = 1.0f / width;
-		final float cellV = 1.0f / height;
+		this.packer = packer;
+		pendingCells.clear();
+		dirtyCells.clear();
 
-		for (int cell = 0; cell < count; cell++) {
-			int cellX = cell % width;
-			int cellY = cell / width;
+		textureWrapper.resize(width, height);
+		final int[] buffer = textureWrapper.allocate();
+		for (AtlasCell cell : cells) {
+			copyPixels(cell, buffer, width);
+			cell.updateUVs(width, height);
+		}
 
-			AtlasCell cellData = cells.get(cell);
+		textureWrapper.update();
+	}
+
+	/**
+	 * Places cells allocated after last {@link #compile()} and uploads pixels of new and modified cells.
+	 */
+	public void update() {
+		if (packer == null) {
+			compile();
+			return;
+		}
 
-			int cellStart = cellY * pixelsPerCellRow + cellX * cellSize;
-			for (int row = 0; row < cellSize; row++) {
-				int dstPos = cellStart + row * pixelsPerLine;
-				int srcPos = row * cellSize;
-				System.arraycopy(cellData.pixels, srcPos, buffer, dstPos, 64);
+		boolean resized = false;
+		for (AtlasCell cell : pendingCells) {
+			Rect position;
+			while ((position = packer.insert(cell.width, cell.height)) == null) {
+				if (packer.getHeight() < packer.getWidth()) packer.grow(packer.getWidth(), packer.getHeight() * 2);
+				else packer.grow(packer.getWidth() * 2, packer.getHeight());
+				resized = true;
 			}
 
-			cellData.pixels = null;
-			cellData.minU = (float)cellX / width;
-			cellData.minV = (float)cellY / height;
-			cellData.maxU = cellData.minU + cellU;
-			cellData.maxV = cellData.minV + cellV;
+			cell.position = position;
+			dirtyCells.add(cell);
 		}
+		pendingCells.clear();
+
+		if (resized) resize();
+
+		if (dirtyCells.isEmpty()) return;
+
+		final int width = packer.getWidth();
+		final int height = packer.getHeight();
+		final int[] buffer = textureWrapper.allocate();
+		for (AtlasCell cell : dirtyCells) {
+			copyPixels(cell, buffer, width);
+			if (!resized) {
+				cell.updateUVs(width, height);
+				textureWrapper.updateRegion(cell.position.x, cell.position.y, cell.width, cell.height);
+			}
+		}
+		dirtyCells.clear();
+
+		if (resized) textureWrapper.update();
+	}
+
+	private void resize() {
+		final int oldWidth = textureWrapper.getWidth();
+		final int oldHeight = textureWrapper.getHeight();
+		final int[] oldBuffer = textureWrapper.allocate();
+
+		final int width = packer.getWidth();
+		final int height = packer.getHeight();
+		textureWrapper.resize(width, height);
+		final int[] buffer = textureWrapper.allocate();
+
+		for (int row = 0; row < oldHeight; row++)
+			System.arraycopy(oldBuffer, row * oldWidth, buffer, row * width, oldWidth);
+
+		for (AtlasCell cell : cells)
+			if (cell.position != null) cell.updateUVs(width, height);
+	}
+
+	private static void copyPixels(AtlasCell cell, int[] buffer, int bufferWidth) {
+		if (cell.pixels == null) return;
+
+		final Rect position = cell.position;
+		for (int row = 0; row < cell.height; row++)
+			System.arraycopy(cell.pixels, row * cell.width, buffer, (position.y + row) * bufferWidth + position.x, cell.width);
 
-		textureWrapper.updateAndDeallocate();
+		cell.pixels = null;
 	}
 }
@@ -0,0 +1,188 @@
+package openmods.renderer;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import java.util.List;
+
+/**
+ * MaxRects rectangle packer (best short side fit, no rotation).
+ * Keeps list of maximal free rectangles, so items can be added at any time and bin can be enlarged without moving already placed items.
+ */
+public class MaxRectsPacker {
+
+	public static class Rect {
+		public final int x;
+		public final int y;
+		public final int width;
+		public final int height;
+
+		public Rect(int x, int y, int width, int height) {
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+		}
+
+		public int maxX() {
+			return x + width;
+		}
+
+		public int maxY() {
+			return y + height;
+		}
+
+		public int area() {
+			return width * height;
+		}
+
+		public boolean intersects(Rect other) {
+			return x < other.maxX() && other.x < maxX() && y < other.maxY() && other.y < maxY();
+		}
+
+		public boolean contains(Rect other) {
+			return other.x >= x && other.y >= y && other.maxX() <= maxX() && other.maxY() <= maxY();
+		}
+
+		@Override
+		public String toString() {
+			return "[" + x + "," + y + " " + width + "x" + height + "]";
+		}
+	}
+
+	private int width;
+
+	private int height;
+
+	private long usedArea;
+
+	private final List<Rect> freeRects = Lists.newArrayList();
+
+	public MaxRectsPacker(int width, int height) {
+		Preconditions.checkArgument(width > 0 && height > 0, "Invalid size: %sx%s", width, height);
+		this.width = width;
+		this.height = height;
+		freeRects.add(new Rect(0, 0, width, height));
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public long getUsedArea() {
+		return usedArea;
+	}
+
+	public float getOccupancy() {
+		return (float)usedArea / ((long)width * height);
+	}
+
+	/**
+	 * @return position of placed rectangle or {@code null} if there is no free space large enough
+	 */
+	public Rect insert(int rectWidth, int rectHeight) {
+		Preconditions.checkArgument(rectWidth > 0 && rectHeight > 0, "Invalid size: %sx%s", rectWidth, rectHeight);
+
+		Rect best = null;
+		int bestShortSide = Integer.MAX_VALUE;
+		int bestLongSide = Integer.MAX_VALUE;
+
+		for (int i = 0; i < freeRects.size(); i++) {
+			final Rect free = freeRects.get(i);
+			if (free.width < rectWidth || free.height < rectHeight) continue;
+
+			final int leftoverX = free.width - rectWidth;
+			final int leftoverY = free.height - rectHeight;
+			final int shortSide = Math.min(leftoverX, leftoverY);
+			final int longSide = Math.max(leftoverX, leftoverY);
+
+			if (shortSide < bestShortSide || (shortSide == bestShortSide && longSide < bestLongSide)) {
+				best = free;
+				bestShortSide = shortSide;
+				bestLongSide = longSide;
+			}
+		}
+
+		if (best == null) return null;
+
+		final Rect result = new Rect(best.x, best.y, rectWidth, rectHeight);
+		place(result);
+		return result;
+	}
+
+	private void place(Rect used) {
+		final List<Rect> splits = Lists.newArrayList();
+
+		for (int i = freeRects.size() - 1; i >= 0; i--) {
+			final Rect free = freeRects.get(i);
+			if (!free.intersects(used)) continue;
+
+			removeAt(i);
+
+			if (used.x > free.x) splits.add(new Rect(free.x, free.y, used.x - free.x, free.height));
+			if (used.maxX() < free.maxX()) splits.add(new Rect(used.maxX(), free.y, free.maxX() - used.maxX(), free.height));
+			if (used.y > free.y) splits.add(new Rect(free.x, free.y, free.width, used.y - free.y));
+			if (used.maxY() < free.maxY()) splits.add(new Rect(free.x, used.maxY(), free.width, free.maxY() - used.maxY()));
+		}
+
+		freeRects.addAll(splits);
+		pruneFreeRects();
+		usedArea += used.area();
+	}
+
+	private void removeAt(int i) {
+		// order is irrelevant, so avoid shifting
+		final int last = freeRects.size() - 1;
+		freeRects.set(i, freeRects.get(last));
+		freeRects.remove(last);
+	}
+
+	private void pruneFreeRects() {
+		for (int i = 0; i < freeRects.size(); i++) {
+			final Rect a = freeRects.get(i);
+			for (int j = i + 1; j < freeRects.size(); j++) {
+				final Rect b = freeRects.get(j);
+				if (b.contains(a)) {
+					removeAt(i);
+					i--;
+					break;
+				} else if (a.contains(b)) {
+					removeAt(j);
+					j--;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Enlarges bin. Placed rectangles keep their positions, added area becomes free.
+	 */
+	public void grow(int newWidth, int newHeight) {
+		Preconditions.checkArgument(newWidth >= width && newHeight >= height, "Can't shrink from %sx%s to %sx%s", width, height, newWidth, newHeight);
+		if (newWidth == width && newHeight == height) return;
+
+		// free areas touching old border can be extended into new space
+		for (int i = 0; i < freeRects.size(); i++) {
+			final Rect free = freeRects.get(i);
+			final int maxX = free.maxX() == width? newWidth : free.maxX();
+			final int maxY = free.maxY() == height? newHeight : free.maxY();
+			if (maxX != free.maxX() || maxY != free.maxY()) freeRects.set(i, new Rect(free.x, free.y, maxX - free.x, maxY - free.y));
+		}
+
+		if (newWidth > width) freeRects.add(new Rect(width, 0, newWidth - width, newHeight));
+		if (newHeight > height) freeRects.add(new Rect(0, height, newWidth, newHeight - height));
+
+		this.width = newWidth;
+		this.height = newHeight;
+		pruneFreeRects();
+	}
+
+	public void clear() {
+		freeRects.clear();
+		freeRects.add(new Rect(0, 0, width, height));
+		usedArea = 0;
+	}
+}
@@ -16,6 +16,7 @@ import openmods.serializable.providers.EnumSerializerProvider;
 import openmods.serializable.providers.ListSerializerProvider;
 import openmods.serializable.providers.MapSerializerProvider;
 import openmods.serializable.providers.SetSerializerProvider;
+import openmods.utils.ClassMetadataCache;
 import openmods.utils.io.IStreamReader;
 import openmods.utils.io.IStreamSerializer;
 import openmods.utils.io.IStreamWriter;
@@ -31,6 +32,9 @@ public class SerializerRegistry {
 
 	private final List<IGenericSerializerProvider> genericProviders = Lists.newArrayList();
 
+	// failed lookups are cached too, so whole cache is replaced when new provider is added
+	private volatile ClassMetadataCache<IStreamSerializer<?>> providedSerializers = createProvidedSerializersCache();
+
 	{
 		providers.add(new EnumSerializerProvider());
 		providers.add(new ArraySerializerProvider());
@@ -84,15 +88,22 @@ public class SerializerRegistry {
 	public void registerProvider(ISerializerProvider provider) {
 		Preconditions.checkNotNull(provider);
 		providers.add(provider);
+		providedSerializers = createProvidedSerializersCache();
 	}
 
-	private IStreamSerializer<?> findClassSerializer(Class<?> cls, IStreamSerializer<?> serializer) {
-		for (ISerializerProvider provider : providers) {
-			serializer = provider.getSerializer(cls);
-			if (serializer != null) {
-				serializers.put(cls, serializer);
-				return serializer;
+	private ClassMetadataCache<IStreamSerializer<?>> createProvidedSerializersCache() {
+		return new ClassMetadataCache<IStreamSerializer<?>>() {
+			@Override
+			protected IStreamSerializer<?> create(Class<?> cls) {
+				return findClassSerializer(cls);
 			}
+		};
+	}
+
+	private IStreamSerializer<?> findClassSerializer(Class<?> cls) {
+		for (ISerializerProvider provider : providers) {
+			final IStreamSerializer<?> serializer = provider.getSerializer(cls);
+			if (serializer != null) return serializer;
 		}
 
 		return null;
@@ -102,7 +113,7 @@ public class SerializerRegistry {
 	public <T> IStreamSerializer<T> findSerializer(Class<? extends T> cls) {
 		IStreamSerializer<?> serializer = serializers.get(cls);
 
-		if (serializer == null) serializer = findClassSerializer(cls, serializer);
+		if (serializer == null) serializer = providedSerializers.get(cls);
 
 		return (IStreamSerializer<T>)serializer;
 	}
@@ -6,13 +6,13 @@ import java.lang.reflect.Field;
 import java.util.List;
 import net.minecraft.network.PacketBuffer;
 import openmods.serializable.IObjectSerializer;
-import openmods.utils.CachedFactory;
+import openmods.utils.ClassMetadataCache;
 import openmods.utils.FieldsSelector;
 
 public class ClassSerializersProvider {
 	public static final ClassSerializersProvider instance = new ClassSerializersProvider();
 
-	private final CachedFactory<Class<?>, IObjectSerializer<?>> cache = new CachedFactory<Class<?>, IObjectSerializer<?>>() {
+	private final ClassMetadataCache<IObjectSerializer<?>> cache = new ClassMetadataCache<IObjectSerializer<?>>() {
 		@Override
 		protected IObjectSerializer<?> create(Class<?> key) {
 			ClassSerializerBuilder<Object> builder = new ClassSerializerBuilder<>(key);
@@ -39,7 +39,7 @@ public class ClassSerializersProvider {
 
 	@SuppressWarnings("unchecked")
 	public <T> IObjectSerializer<T> getSerializer(Class<? extends T> cls) {
-		return (IObjectSerializer<T>)cache.getOrCreate(cls);
+		return (IObjectSerializer<T>)cache.get(cls);
 	}
 
 	@SuppressWarnings("unchecked")
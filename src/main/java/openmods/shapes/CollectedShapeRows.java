@@ -0,0 +1,80 @@
+package openmods.shapes;
+
+import com.google.common.collect.Maps;
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * Fallback for generators without analytic rows: all blocks are generated upfront and stored as bitmap per row.
+ */
+class CollectedShapeRows implements IShapeRows {
+
+	private final Map<Long, BitSet> rows = Maps.newHashMap();
+
+	private int offsetX;
+
+	public int minX = Integer.MAX_VALUE;
+	public int minY = Integer.MAX_VALUE;
+	public int minZ = Integer.MAX_VALUE;
+
+	public int maxX = Integer.MIN_VALUE;
+	public int maxY = Integer.MIN_VALUE;
+	public int maxZ = Integer.MIN_VALUE;
+
+	private static Long key(int y, int z) {
+		return ((long)y << 32) | (z & 0xFFFFFFFFL);
+	}
+
+	public CollectedShapeRows(IShapeGenerator generator, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+		this.offsetX = minX;
+		generator.generateShape(minX, minY, minZ, maxX, maxY, maxZ, this::addBlock);
+	}
+
+	private void addBlock(int x, int y, int z) {
+		if (x < offsetX) {
+			// some generators go outside of requested bounds, so rebase all existing rows
+			final int shift = offsetX - x;
+			for (Map.Entry<Long, BitSet> e : rows.entrySet()) {
+				final BitSet prev = e.getValue();
+				final BitSet shifted = new BitSet();
+				for (int i = prev.nextSetBit(0); i >= 0; i = prev.nextSetBit(i + 1))
+					shifted.set(i + shift);
+				e.setValue(shifted);
+			}
+			offsetX = x;
+		}
+
+		final Long key = key(y, z);
+		BitSet row = rows.get(key);
+		if (row == null) {
+			row = new BitSet();
+			rows.put(key, row);
+		}
+		row.set(x - offsetX);
+
+		minX = Math.min(minX, x);
+		minY = Math.min(minY, y);
+		minZ = Math.min(minZ, z);
+		maxX = Math.max(maxX, x);
+		maxY = Math.max(maxY, y);
+		maxZ = Math.max(maxZ, z);
+	}
+
+	public boolean isEmpty() {
+		return rows.isEmpty();
+	}
+
+	@Override
+	public void getSpans(int y, int z, IShapeSpanConsumer output) {
+		final BitSet row = rows.get(key(y, z));
+		if (row == null) return;
+
+		int start = row.nextSetBit(0);
+		while (start >= 0) {
+			final int end = row.nextClearBit(start);
+			output.addSpan(start + offsetX, end - 1 + offsetX, y, z);
+			start = row.nextSetBit(end);
+		}
+	}
+
+}
@@ -0,0 +1,76 @@
+package openmods.shapes;
+
+/**
+ * Analytic version of {@link ShapeCuboidGenerator}.
+ */
+class CuboidShapeRows implements IShapeRows {
+
+	private final int minX;
+	private final int minY;
+	private final int minZ;
+
+	private final int maxX;
+	private final int maxY;
+	private final int maxZ;
+
+	private final boolean corners;
+
+	private final boolean edges;
+
+	private final boolean walls;
+
+	private final boolean hollow;
+
+	public CuboidShapeRows(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, boolean corners, boolean edges, boolean walls, boolean hollow) {
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.maxZ = maxZ;
+		this.corners = corners;
+		this.edges = edges;
+		this.walls = walls;
+		this.hollow = hollow;
+	}
+
+	@Override
+	public void getSpans(int y, int z, IShapeSpanConsumer output) {
+		if (y < minY || y > maxY || z < minZ || z > maxZ) return;
+
+		if (!hollow) {
+			output.addSpan(minX, maxX, y, z);
+			return;
+		}
+
+		final boolean borderY = y == minY || y == maxY;
+		final boolean borderZ = z == minZ || z == maxZ;
+
+		final boolean outerBlocks;
+		final boolean innerBlocks;
+
+		if (borderY && borderZ) {
+			// edge along X
+			outerBlocks = corners;
+			innerBlocks = edges;
+		} else if (borderY || borderZ) {
+			// wall perpendicular to Y or Z
+			outerBlocks = edges;
+			innerBlocks = walls;
+		} else {
+			// walls perpendicular to X
+			outerBlocks = walls;
+			innerBlocks = false;
+		}
+
+		if (outerBlocks && innerBlocks) {
+			output.addSpan(minX, maxX, y, z);
+		} else if (outerBlocks) {
+			output.addSpan(minX, minX, y, z);
+			if (maxX != minX) output.addSpan(maxX, maxX, y, z);
+		} else if (innerBlocks) {
+			if (maxX - minX >= 2) output.addSpan(minX + 1, maxX - 1, y, z);
+		}
+	}
+
+}
@@ -0,0 +1,86 @@
+package openmods.shapes;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Set;
+import openmods.utils.MathUtils;
+import openmods.utils.render.GeometryUtils.Quadrant;
+
+/**
+ * Analytic version of {@link ShapeCylinderGenerator}: ellipse in XZ plane, extruded along Y.
+ */
+class CylinderShapeRows implements IShapeRows {
+
+	private final ShapeAxis axisX;
+
+	private final ShapeAxis axisZ;
+
+	private final int minY;
+
+	private final int maxY;
+
+	private final List<Quadrant> quadrants;
+
+	private final boolean hollow;
+
+	public CylinderShapeRows(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Set<Quadrant> quadrants, boolean hollow) {
+		this.axisX = new ShapeAxis(minX, maxX);
+		this.axisZ = new ShapeAxis(minZ, maxZ);
+		this.minY = minY;
+		this.maxY = maxY;
+		this.quadrants = ImmutableList.copyOf(quadrants);
+		this.hollow = hollow;
+	}
+
+	private boolean isInside(int x, int z) {
+		return MathUtils.lengthSq(axisX.normalized(x), axisZ.normalized(z)) <= 1;
+	}
+
+	private int rowMax(int z) {
+		if (!isInside(0, z)) return -1;
+
+		int low = 0;
+		int high = axisX.radius;
+		while (low < high) {
+			final int mid = (low + high + 1) >>> 1;
+			if (isInside(mid, z)) low = mid;
+			else high = mid - 1;
+		}
+
+		return low;
+	}
+
+	@Override
+	public void getSpans(int y, int z, IShapeSpanConsumer output) {
+		if (y < minY || y > maxY) return;
+
+		final int localZ = axisZ.toLocal(z);
+		final int offsetZ = Math.abs(localZ);
+		if (offsetZ > axisZ.radius) return;
+
+		final int signZ = Integer.signum(localZ);
+
+		boolean negative = false;
+		boolean positive = false;
+		for (Quadrant quadrant : quadrants) {
+			if (signZ == 0 || quadrant.z == signZ) {
+				if (quadrant.x > 0) positive = true;
+				else negative = true;
+			}
+		}
+
+		if (!negative && !positive) return;
+
+		final int max = rowMax(offsetZ);
+		if (max < 0) return;
+
+		int min = 0;
+		if (hollow) {
+			final int interiorMax = Math.min(max - 1, rowMax(offsetZ + 1));
+			min = interiorMax + 1;
+		}
+
+		axisX.emitMirroredSpan(min, max, negative, positive, y, z, output);
+	}
+
+}
@@ -0,0 +1,88 @@
+package openmods.shapes;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Set;
+import openmods.utils.MathUtils;
+import openmods.utils.render.GeometryUtils.Octant;
+
+/**
+ * Analytic version of {@link openmods.utils.render.GeometryUtils#makeEllipsoid(int, int, int, int, int, int, IShapeable, Set)}.
+ * Row extent is found with binary search, since distance from center is monotonic along x.
+ */
+class EllipsoidShapeRows implements IShapeRows {
+
+	private final ShapeAxis axisX;
+
+	private final ShapeAxis axisY;
+
+	private final ShapeAxis axisZ;
+
+	private final List<Octant> octants;
+
+	private final boolean hollow;
+
+	public EllipsoidShapeRows(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Set<Octant> octants, boolean hollow) {
+		this.axisX = new ShapeAxis(minX, maxX);
+		this.axisY = new ShapeAxis(minY, maxY);
+		this.axisZ = new ShapeAxis(minZ, maxZ);
+		this.octants = ImmutableList.copyOf(octants);
+		this.hollow = hollow;
+	}
+
+	private boolean isInside(int x, int y, int z) {
+		return MathUtils.lengthSq(axisX.normalized(x), axisY.normalized(y), axisZ.normalized(z)) <= 1;
+	}
+
+	// highest x in [0, radiusX] inside shape, or -1 if row is empty
+	private int rowMax(int y, int z) {
+		if (!isInside(0, y, z)) return -1;
+
+		int low = 0;
+		int high = axisX.radius;
+		while (low < high) {
+			final int mid = (low + high + 1) >>> 1;
+			if (isInside(mid, y, z)) low = mid;
+			else high = mid - 1;
+		}
+
+		return low;
+	}
+
+	@Override
+	public void getSpans(int y, int z, IShapeSpanConsumer output) {
+		final int localY = axisY.toLocal(y);
+		final int localZ = axisZ.toLocal(z);
+
+		final int offsetY = Math.abs(localY);
+		final int offsetZ = Math.abs(localZ);
+		if (offsetY > axisY.radius || offsetZ > axisZ.radius) return;
+
+		final int signY = Integer.signum(localY);
+		final int signZ = Integer.signum(localZ);
+
+		boolean negative = false;
+		boolean positive = false;
+		for (Octant octant : octants) {
+			if ((signY == 0 || octant.y == signY) && (signZ == 0 || octant.z == signZ)) {
+				if (octant.x > 0) positive = true;
+				else negative = true;
+			}
+		}
+
+		if (!negative && !positive) return;
+
+		final int max = rowMax(offsetY, offsetZ);
+		if (max < 0) return;
+
+		int min = 0;
+		if (hollow) {
+			// block is interior when neighbours in +x, +y and +z are still inside
+			final int interiorMax = Math.min(max - 1, Math.min(rowMax(offsetY + 1, offsetZ), rowMax(offsetY, offsetZ + 1)));
+			min = interiorMax + 1;
+		}
+
+		axisX.emitMirroredSpan(min, max, negative, positive, y, z, output);
+	}
+
+}
@@ -0,0 +1,11 @@
+package openmods.shapes;
+
+/**
+ * Row-by-row view of shape, allowing random access to any (y, z) row without generating whole shape.
+ */
+public interface IShapeRows {
+	/**
+	 * Emits spans of blocks in given row. Spans must be sorted by x and must not overlap.
+	 */
+	public void getSpans(int y, int z, IShapeSpanConsumer output);
+}
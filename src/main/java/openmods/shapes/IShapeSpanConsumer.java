@@ -0,0 +1,9 @@
+package openmods.shapes;
+
+@FunctionalInterface
+public interface IShapeSpanConsumer {
+	/**
+	 * Receives all blocks from {@code minX} to {@code maxX} (inclusive) in single row
+	 */
+	public void addSpan(int minX, int maxX, int y, int z);
+}
@@ -0,0 +1,11 @@
+package openmods.shapes;
+
+/**
+ * Generator that can compute rows of shape directly, without visiting every block.
+ */
+public interface IStreamingShapeGenerator extends IShapeGenerator {
+	/**
+	 * @param hollow if true, only outer shell is generated (same blocks as {@link #generateShape(int, int, int, int, int, int, IShapeable)}), otherwise shape is filled
+	 */
+	public IShapeRows createRows(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, boolean hollow);
+}
@@ -0,0 +1,77 @@
+package openmods.shapes;
+
+/**
+ * Single axis of symmetric shape, with same centering and radius rules as ellipsoids in {@link openmods.utils.render.GeometryUtils}.
+ */
+class ShapeAxis {
+
+	public final int center;
+
+	public final int radius;
+
+	// for even sizes, middle of shape is removed and negative half is shifted to fill gap
+	public final boolean skipMiddle;
+
+	// same values as iteratively computed in GeometryUtils, to get identical rounding
+	private final double[] normalized;
+
+	public ShapeAxis(int min, int max) {
+		this.center = (min + max) / 2;
+
+		final int diff = max - min;
+		if ((diff & 1) == 0) {
+			this.radius = diff / 2;
+			this.skipMiddle = false;
+		} else {
+			this.radius = diff / 2 + 1;
+			this.skipMiddle = true;
+		}
+
+		this.normalized = new double[radius + 2];
+		final double invRadius = 1.0 / (radius + 0.5);
+		double next = 0;
+		for (int i = 0; i < normalized.length; i++) {
+			normalized[i] = next;
+			next += invRadius;
+		}
+	}
+
+	/**
+	 * @param offset value in range [0, radius + 1]
+	 */
+	public double normalized(int offset) {
+		return normalized[offset];
+	}
+
+	/**
+	 * Converts world coordinate to signed offset from center, as used before shifting
+	 */
+	public int toLocal(int coord) {
+		final int rel = coord - center;
+		return (skipMiddle && rel <= 0)? rel - 1 : rel;
+	}
+
+	public void emitSpan(int localMin, int localMax, int y, int z, IShapeSpanConsumer output) {
+		if (!skipMiddle) {
+			output.addSpan(center + localMin, center + localMax, y, z);
+			return;
+		}
+
+		final int min = localMin < 0? localMin + 1 : Math.max(localMin, 1);
+		final int max = localMax > 0? localMax : (localMax == 0? 0 : localMax + 1);
+		if (min <= max)
+			output.addSpan(center + min, center + max, y, z);
+	}
+
+	/**
+	 * Emits symmetric span [-max, -min] + [min, max] (in local coordinates), with optional halves.
+	 */
+	public void emitMirroredSpan(int min, int max, boolean negative, boolean positive, int y, int z, IShapeSpanConsumer output) {
+		if (min == 0 && negative && positive) {
+			emitSpan(-max, max, y, z, output);
+		} else {
+			if (negative) emitSpan(-max, -min, y, z, output);
+			if (positive) emitSpan(min, max, y, z, output);
+		}
+	}
+}
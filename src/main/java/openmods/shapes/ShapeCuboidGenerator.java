@@ -3,7 +3,7 @@ package openmods.shapes;
 import openmods.utils.render.GeometryUtils;
 import openmods.utils.render.GeometryUtils.Axis;
 
-public class ShapeCuboidGenerator extends DefaultShapeGenerator {
+public class ShapeCuboidGenerator extends DefaultShapeGenerator implements IStreamingShapeGenerator {
 
 	public enum Elements {
 		CORNERS(true, false, false),
@@ -88,4 +88,9 @@ public class ShapeCuboidGenerator extends DefaultShapeGenerator {
 			GeometryUtils.makePlane(maxX, minY + 1, minZ + 1, dy, dz, Axis.Y, Axis.Z, shapeable);
 		}
 	}
+
+	@Override
+	public IShapeRows createRows(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, boolean hollow) {
+		return new CuboidShapeRows(minX, minY, minZ, maxX, maxY, maxZ, corners, edges, walls, hollow);
+	}
 }
@@ -4,7 +4,7 @@ import java.util.Set;
 import openmods.utils.render.GeometryUtils;
 import openmods.utils.render.GeometryUtils.Quadrant;
 
-public class ShapeCylinderGenerator extends DefaultShapeGenerator {
+public class ShapeCylinderGenerator extends DefaultShapeGenerator implements IStreamingShapeGenerator {
 
 	private final Set<Quadrant> quadrants;
 
@@ -24,4 +24,9 @@ public class ShapeCylinderGenerator extends DefaultShapeGenerator {
 		}, quadrants);
 	}
 
+	@Override
+	public IShapeRows createRows(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, boolean hollow) {
+		return new CylinderShapeRows(minX, minY, minZ, maxX, maxY, maxZ, quadrants, hollow);
+	}
+
 }
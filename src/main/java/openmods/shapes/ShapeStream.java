@@ -0,0 +1,197 @@
+package openmods.shapes;
+
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * Incremental generator of shape blocks. Blocks are emitted as x-spans, grouped by chunk section (16x16x16), with chunk columns processed one by one.
+ * Work can be split into multiple calls (for example, one per tick) with {@link #advance(int, IShapeSpanConsumer)}.
+ */
+public class ShapeStream {
+
+	private static final int SECTION_BITS = 4;
+
+	private static final int SECTION_MASK = (1 << SECTION_BITS) - 1;
+
+	private final IShapeRows rows;
+
+	private final int minX;
+	private final int minY;
+	private final int minZ;
+
+	private final int maxX;
+	private final int maxY;
+	private final int maxZ;
+
+	private boolean started;
+
+	private boolean finished;
+
+	private int sectionX;
+	private int sectionY;
+	private int sectionZ;
+
+	private int sectionMinX;
+	private int sectionMaxX;
+
+	private int y;
+	private int z;
+
+	// start/end pairs, clipped to current section
+	private final TIntArrayList rowSpans = new TIntArrayList();
+
+	private int spanIndex;
+
+	private int nextX;
+
+	private long emittedBlocks;
+
+	private final IShapeSpanConsumer rowCollector = (spanMinX, spanMaxX, spanY, spanZ) -> {
+		final int clippedMin = Math.max(spanMinX, sectionMinX);
+		final int clippedMax = Math.min(spanMaxX, sectionMaxX);
+		if (clippedMin <= clippedMax) {
+			rowSpans.add(clippedMin);
+			rowSpans.add(clippedMax);
+		}
+	};
+
+	public ShapeStream(IShapeRows rows, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+		this.rows = rows;
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.maxZ = maxZ;
+		this.finished = minX > maxX || minY > maxY || minZ > maxZ;
+	}
+
+	/**
+	 * Creates stream with same blocks as {@link IShapeGenerator#generateShape(int, int, int, int, int, int, IShapeable)}.
+	 * Generators not implementing {@link IStreamingShapeGenerator} are fully evaluated upfront.
+	 */
+	public static ShapeStream create(IShapeGenerator generator, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+		if (generator instanceof IStreamingShapeGenerator)
+			return create((IStreamingShapeGenerator)generator, minX, minY, minZ, maxX, maxY, maxZ, true);
+
+		final CollectedShapeRows rows = new CollectedShapeRows(generator, minX, minY, minZ, maxX, maxY, maxZ);
+		if (rows.isEmpty()) return new ShapeStream(rows, 0, 0, 0, -1, -1, -1);
+		return new ShapeStream(rows, rows.minX, rows.minY, rows.minZ, rows.maxX, rows.maxY, rows.maxZ);
+	}
+
+	public static ShapeStream create(IStreamingShapeGenerator generator, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, boolean hollow) {
+		final IShapeRows rows = generator.createRows(minX, minY, minZ, maxX, maxY, maxZ, hollow);
+		// centering of symmetric shapes rounds towards zero, so they may go one block outside requested bounds
+		return new ShapeStream(rows, minX - 1, minY - 1, minZ - 1, maxX + 1, maxY + 1, maxZ + 1);
+	}
+
+	public boolean isFinished() {
+		return finished;
+	}
+
+	public long getEmittedBlocks() {
+		return emittedBlocks;
+	}
+
+	/**
+	 * Emits at most {@code maxBlocks} blocks. Span may be split between calls, if it doesn't fit in budget.
+	 *
+	 * @return true if there are blocks left
+	 */
+	public boolean advance(int maxBlocks, IShapeSpanConsumer output) {
+		int budget = maxBlocks;
+		while (true) {
+			if (spanIndex >= rowSpans.size()) {
+				if (finished || !nextRow()) {
+					finished = true;
+					return false;
+				}
+				continue;
+			}
+
+			if (budget <= 0) return true;
+
+			final int spanEnd = rowSpans.getQuick(spanIndex + 1);
+			final int start = nextX;
+			final int end = (spanEnd - start < budget)? spanEnd : start + budget - 1;
+
+			output.addSpan(start, end, y, z);
+
+			final int count = end - start + 1;
+			budget -= count;
+			emittedBlocks += count;
+
+			if (end == spanEnd) {
+				spanIndex += 2;
+				if (spanIndex < rowSpans.size()) nextX = rowSpans.getQuick(spanIndex);
+			} else {
+				nextX = end + 1;
+			}
+		}
+	}
+
+	public boolean advance(int maxBlocks, IShapeable output) {
+		return advance(maxBlocks, (spanMinX, spanMaxX, spanY, spanZ) -> {
+			for (int x = spanMinX; x <= spanMaxX; x++)
+				output.setBlock(x, spanY, spanZ);
+		});
+	}
+
+	public void generateAll(IShapeSpanConsumer output) {
+		while (advance(Integer.MAX_VALUE, output)) {}
+	}
+
+	private static int sectionStart(int section) {
+		return section << SECTION_BITS;
+	}
+
+	private static int sectionEnd(int section) {
+		return (section << SECTION_BITS) | SECTION_MASK;
+	}
+
+	private int sectionMinY() {
+		return Math.max(minY, sectionStart(sectionY));
+	}
+
+	private int sectionMinZ() {
+		return Math.max(minZ, sectionStart(sectionZ));
+	}
+
+	private void enterSection() {
+		sectionMinX = Math.max(minX, sectionStart(sectionX));
+		sectionMaxX = Math.min(maxX, sectionEnd(sectionX));
+		y = sectionMinY();
+		z = sectionMinZ();
+	}
+
+	private boolean nextSection() {
+		if (++sectionY <= (maxY >> SECTION_BITS)) return true;
+		sectionY = minY >> SECTION_BITS;
+
+		if (++sectionZ <= (maxZ >> SECTION_BITS)) return true;
+		sectionZ = minZ >> SECTION_BITS;
+
+		return ++sectionX <= (maxX >> SECTION_BITS);
+	}
+
+	private boolean nextRow() {
+		if (!started) {
+			started = true;
+			sectionX = minX >> SECTION_BITS;
+			sectionY = minY >> SECTION_BITS;
+			sectionZ = minZ >> SECTION_BITS;
+			enterSection();
+		} else if (++z > Math.min(maxZ, sectionEnd(sectionZ))) {
+			z = sectionMinZ();
+			if (++y > Math.min(maxY, sectionEnd(sectionY))) {
+				if (!nextSection()) return false;
+				enterSection();
+			}
+		}
+
+		rowSpans.resetQuick();
+		spanIndex = 0;
+		rows.getSpans(y, z, rowCollector);
+		if (!rowSpans.isEmpty()) nextX = rowSpans.getQuick(0);
+		return true;
+	}
+}
@@ -0,0 +1,16 @@
+package openmods.sync;
+
+import java.io.IOException;
+import net.minecraft.network.PacketBuffer;
+
+/**
+ * Syncable object that can send only changes since last update.
+ * Initialization data is still written by {@link #writeToStream(PacketBuffer)}, while {@link #writeDeltaToStream(PacketBuffer)} is used for update packets.
+ * Both formats must be readable by {@link #readFromStream(PacketBuffer)}.
+ */
+public interface ISyncableDeltaObject extends ISyncableObject {
+	/**
+	 * Writes changes since previous call. Implementation should fall back to full state if any receiver may not have previous value (i.e. on first call or after initialization of new receiver with different state).
+	 */
+	public void writeDeltaToStream(PacketBuffer buf) throws IOException;
+}
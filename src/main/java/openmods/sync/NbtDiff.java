@@ -0,0 +1,45 @@
+package openmods.sync;
+
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTTagString;
+import net.minecraftforge.common.util.Constants;
+
+/**
+ * Shallow (top-level keys only) difference between two compound tags. Applying diff is idempotent.
+ */
+class NbtDiff {
+
+	private static final String TAG_CHANGED = "c";
+
+	private static final String TAG_REMOVED = "r";
+
+	public static NBTTagCompound create(NBTTagCompound from, NBTTagCompound to) {
+		final NBTTagCompound changed = new NBTTagCompound();
+		for (String key : to.getKeySet()) {
+			final NBTBase value = to.getTag(key);
+			if (!value.equals(from.getTag(key))) changed.setTag(key, value);
+		}
+
+		final NBTTagList removed = new NBTTagList();
+		for (String key : from.getKeySet())
+			if (!to.hasKey(key)) removed.appendTag(new NBTTagString(key));
+
+		final NBTTagCompound result = new NBTTagCompound();
+		if (!changed.hasNoTags()) result.setTag(TAG_CHANGED, changed);
+		if (!removed.hasNoTags()) result.setTag(TAG_REMOVED, removed);
+		return result;
+	}
+
+	public static void apply(NBTTagCompound target, NBTTagCompound diff) {
+		final NBTTagList removed = diff.getTagList(TAG_REMOVED, Constants.NBT.TAG_STRING);
+		for (int i = 0; i < removed.tagCount(); i++)
+			target.removeTag(removed.getStringTagAt(i));
+
+		final NBTTagCompound changed = diff.getCompoundTag(TAG_CHANGED);
+		for (String key : changed.getKeySet())
+			target.setTag(key, changed.getTag(key).copy());
+	}
+
+}
@@ -30,6 +30,11 @@ public class SyncMapEntity extends SyncMapServer {
 		return null;
 	}
 
+	@Override
+	protected Class<?> getOwnerClass() {
+		return owner.getClass();
+	}
+
 	@Override
 	protected int getOwnerType() {
 		return OWNER_TYPE;
@@ -16,6 +16,8 @@ import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.PacketBuffer;
 import openmods.Log;
+import openmods.network.NetworkMetrics;
+import openmods.network.NetworkMetrics.Category;
 import openmods.utils.bitstream.OutputBitStream;
 
 public abstract class SyncMapServer extends SyncMap {
@@ -27,11 +29,10 @@ public abstract class SyncMapServer extends SyncMap {
 		private final ISyncableObject obj;
 		private final SyncableObjectType type;
 
-		public Entry(String name, ISyncableObject obj) {
+		public Entry(String name, ISyncableObject obj, SyncableObjectType type) {
 			this.name = name;
 			this.obj = obj;
-			this.type = SyncableObjectTypeRegistry.getType(obj.getClass());
-			Preconditions.checkNotNull(type, "Type %s is not registered", obj.getClass());
+			this.type = type;
 		}
 	}
 
@@ -51,6 +52,13 @@ public abstract class SyncMapServer extends SyncMap {
 
 	@Override
 	public void registerObject(String name, ISyncableObject value) {
+		final SyncableObjectType type = SyncableObjectTypeRegistry.getType(value.getClass());
+		Preconditions.checkNotNull(type, "Type %s is not registered", value.getClass());
+		registerObject(name, value, type);
+	}
+
+	// extracted for benchmarks - type registry is not available without running game
+	void registerObject(String name, ISyncableObject value, SyncableObjectType type) {
 		Preconditions.checkState(!firstRemoteObjectInitialized, "Can't add fields to object that has already sent data to clients");
 
 		{
@@ -59,7 +67,7 @@ public abstract class SyncMapServer extends SyncMap {
 		}
 
 		final int newId = orderedEntries.size();
-		orderedEntries.add(new Entry(name, value));
+		orderedEntries.add(new Entry(name, value, type));
 
 		{
 			final Integer prev = objectToId.put(value, newId);
@@ -126,11 +134,15 @@ public abstract class SyncMapServer extends SyncMap {
 		writeOwnerData(dos);
 	}
 
-	private void writeSyncObjectInitialization(PacketBuffer dos) throws IOException {
+	private void initializeRemoteObjects() {
 		if (!firstRemoteObjectInitialized) {
 			firstRemoteObjectInitialized = true;
 			bitmapLength = (objects.size() + 7) / 8;
 		}
+	}
+
+	private void writeSyncObjectInitialization(PacketBuffer dos) throws IOException {
+		initializeRemoteObjects();
 
 		dos.writeVarInt(objects.size());
 
@@ -155,7 +167,8 @@ public abstract class SyncMapServer extends SyncMap {
 
 		for (Entry e : orderedEntries) {
 			if (changes.contains(e.obj)) {
-				e.obj.writeToStream(dos);
+				if (e.obj instanceof ISyncableDeltaObject) ((ISyncableDeltaObject)e.obj).writeDeltaToStream(dos);
+				else e.obj.writeToStream(dos);
 				bitmap.writeBit(true);
 			} else {
 				bitmap.writeBit(false);
@@ -165,6 +178,21 @@ public abstract class SyncMapServer extends SyncMap {
 		bitmap.flush();
 	}
 
+	private static long metricsTimerStart() {
+		return NetworkMetrics.instance.isEnabled()? System.nanoTime() : 0;
+	}
+
+	private void recordMetrics(PacketBuffer payload, long encodeStart) {
+		if (encodeStart != 0) NetworkMetrics.instance.recordPacket(SyncChannelHolder.CHANNEL_NAME, Category.SYNC_OWNER, getOwnerClass(), payload.readableBytes(), System.nanoTime() - encodeStart);
+	}
+
+	// extracted for benchmarks - same payload as delta packet, but without sending it
+	void writeUpdates(PacketBuffer dos) throws IOException {
+		initializeRemoteObjects();
+		writeOwnerInfo(dos);
+		writeUpdatePacket(dos, listChanges());
+	}
+
 	protected interface IUpdateStrategy {
 		public void sendUpdates(Set<ISyncableObject> changedObjects);
 
@@ -182,9 +210,11 @@ public abstract class SyncMapServer extends SyncMap {
 			final Set<EntityPlayerMP> players = getPlayersWatching();
 
 			try {
+				final long encodeStart = metricsTimerStart();
 				final PacketBuffer deltaPayload = new PacketBuffer(Unpooled.buffer());
 				writeOwnerInfo(deltaPayload);
 				writeUpdatePacket(deltaPayload, changedObjects);
+				recordMetrics(deltaPayload, encodeStart);
 				SyncChannelHolder.INSTANCE.sendPayloadToPlayers(deltaPayload, players);
 			} catch (IOException e) {
 				Log.warn(e, "IOError during delta sync");
@@ -215,20 +245,27 @@ public abstract class SyncMapServer extends SyncMap {
 			List<EntityPlayerMP> deltaPacketTargets = Lists.newArrayList();
 
 			Set<EntityPlayerMP> players = getPlayersWatching();
+			Set<Integer> currentUsers = Sets.newHashSet();
 			for (EntityPlayerMP player : players) {
-				if (knownUsers.contains(player.getEntityId())) {
+				final int playerId = player.getEntityId();
+				currentUsers.add(playerId);
+				if (knownUsers.contains(playerId)) {
 					if (hasChanges) deltaPacketTargets.add(player);
 				} else {
-					knownUsers.add(player.getEntityId());
 					fullPacketTargets.add(player);
 				}
 			}
 
+			// players that left tracking range missed deltas, so they need full state on return
+			knownUsers = currentUsers;
+
 			try {
 				if (!deltaPacketTargets.isEmpty()) {
+					final long encodeStart = metricsTimerStart();
 					final PacketBuffer deltaPayload = new PacketBuffer(Unpooled.buffer());
 					writeOwnerInfo(deltaPayload);
 					writeUpdatePacket(deltaPayload, changes);
+					recordMetrics(deltaPayload, encodeStart);
 					SyncChannelHolder.INSTANCE.sendPayloadToPlayers(deltaPayload, deltaPacketTargets);
 				}
 			} catch (IOException e) {
@@ -237,9 +274,11 @@ public abstract class SyncMapServer extends SyncMap {
 
 			try {
 				if (!fullPacketTargets.isEmpty()) {
+					final long encodeStart = metricsTimerStart();
 					final PacketBuffer fullPayload = new PacketBuffer(Unpooled.buffer());
 					writeOwnerInfo(fullPayload);
 					writeSyncObjectInitialization(fullPayload);
+					recordMetrics(fullPayload, encodeStart);
 					SyncChannelHolder.INSTANCE.sendPayloadToPlayers(fullPayload, fullPacketTargets);
 				}
 			} catch (IOException e) {
@@ -338,6 +377,13 @@ public abstract class SyncMapServer extends SyncMap {
 		return result;
 	}
 
+	/**
+	 * Class used to group network statistics. Should be overriden when map is generic wrapper.
+	 */
+	protected Class<?> getOwnerClass() {
+		return getClass();
+	}
+
 	protected abstract int getOwnerType();
 
 	protected abstract void writeOwnerData(PacketBuffer output);
@@ -33,6 +33,11 @@ public class SyncMapTile extends SyncMapServer {
 		return null;
 	}
 
+	@Override
+	protected Class<?> getOwnerClass() {
+		return owner.getClass();
+	}
+
 	@Override
 	protected int getOwnerType() {
 		return OWNER_TYPE;
@@ -1,26 +1,103 @@
 package openmods.sync;
 
+import com.google.common.base.Objects;
+import io.netty.buffer.Unpooled;
 import java.io.IOException;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.common.util.Constants;
 
-public class SyncableItemStack extends SyncableObjectBase {
+public class SyncableItemStack extends SyncableObjectBase implements ISyncableDeltaObject {
+
+	private static final byte TYPE_FULL = 0;
+	private static final byte TYPE_COUNT = 1;
+	private static final byte TYPE_TAG = 2;
 
 	@Nonnull
 	private ItemStack stack = ItemStack.EMPTY;
 
+	private boolean hasDeltaBase;
+
+	@Nonnull
+	private ItemStack lastSentStack = ItemStack.EMPTY;
+
 	@Override
 	public void readFromStream(PacketBuffer stream) throws IOException {
-		this.stack = stream.readItemStack();
+		final byte type = stream.readByte();
+		switch (type) {
+			case TYPE_FULL:
+				this.stack = stream.readItemStack();
+				break;
+			case TYPE_COUNT:
+				this.stack.setCount(stream.readVarInt());
+				break;
+			case TYPE_TAG: {
+				this.stack.setCount(stream.readVarInt());
+				final NBTTagCompound diff = stream.readCompoundTag();
+				final NBTTagCompound tag = stack.getTagCompound();
+				if (tag != null && diff != null) NbtDiff.apply(tag, diff);
+				break;
+			}
+			default:
+				throw new IOException("Invalid item stack update type: " + type);
+		}
+	}
+
+	private void writeFull(PacketBuffer stream) {
+		stream.writeByte(TYPE_FULL);
+		stream.writeItemStack(this.stack);
 	}
 
 	@Override
 	public void writeToStream(PacketBuffer stream) {
-		stream.writeItemStack(this.stack);
+		// new receiver gets current state, so older ones may no longer share single base for deltas
+		if (hasDeltaBase && !ItemStack.areItemStacksEqual(lastSentStack, stack)) hasDeltaBase = false;
+		writeFull(stream);
+	}
+
+	@Override
+	public void writeDeltaToStream(PacketBuffer stream) {
+		if (hasDeltaBase && !stack.isEmpty() && !lastSentStack.isEmpty() && ItemStack.areItemsEqual(stack, lastSentStack)) {
+			writeDelta(stream);
+		} else {
+			writeFull(stream);
+		}
+
+		lastSentStack = stack.copy();
+		hasDeltaBase = true;
+	}
+
+	private void writeDelta(PacketBuffer stream) {
+		final NBTTagCompound prevTag = getSyncedTag(lastSentStack);
+		final NBTTagCompound currentTag = getSyncedTag(stack);
+
+		if (Objects.equal(prevTag, currentTag)) {
+			stream.writeByte(TYPE_COUNT);
+			stream.writeVarInt(stack.getCount());
+		} else if (prevTag != null && currentTag != null) {
+			final PacketBuffer delta = new PacketBuffer(Unpooled.buffer());
+			delta.writeByte(TYPE_TAG);
+			delta.writeVarInt(stack.getCount());
+			delta.writeCompoundTag(NbtDiff.create(prevTag, currentTag));
+
+			final PacketBuffer full = new PacketBuffer(Unpooled.buffer());
+			writeFull(full);
+
+			stream.writeBytes(delta.readableBytes() < full.readableBytes()? delta : full);
+		} else {
+			writeFull(stream);
+		}
+	}
 
+	@Nullable
+	private static NBTTagCompound getSyncedTag(@Nonnull ItemStack stack) {
+		// same selection as in PacketBuffer.writeItemStack
+		final Item item = stack.getItem();
+		return (item.isDamageable() || item.getShareTag())? item.getNBTShareTag(stack) : null;
 	}
 
 	@Override
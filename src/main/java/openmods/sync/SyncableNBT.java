@@ -1,5 +1,6 @@
 package openmods.sync;
 
+import io.netty.buffer.Unpooled;
 import java.io.IOException;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.PacketBuffer;
@@ -7,10 +8,16 @@ import net.minecraft.network.PacketBuffer;
 /***
  * Note: you must manually .markDirty() right now
  */
-public class SyncableNBT extends SyncableObjectBase implements ISyncableValueProvider<NBTTagCompound> {
+public class SyncableNBT extends SyncableObjectBase implements ISyncableValueProvider<NBTTagCompound>, ISyncableDeltaObject {
+
+	private static final byte TYPE_FULL = 0;
+	private static final byte TYPE_DIFF = 1;
 
 	private NBTTagCompound tag;
 
+	// server side only, null if receivers may not share same state
+	private NBTTagCompound lastSentTag;
+
 	public SyncableNBT() {
 		tag = new NBTTagCompound();
 	}
@@ -30,13 +37,47 @@ public class SyncableNBT extends SyncableObjectBase implements ISyncableValuePro
 
 	@Override
 	public void readFromStream(PacketBuffer stream) throws IOException {
-		this.tag = stream.readCompoundTag();
+		final byte type = stream.readByte();
+		switch (type) {
+			case TYPE_FULL:
+				this.tag = stream.readCompoundTag();
+				break;
+			case TYPE_DIFF:
+				NbtDiff.apply(this.tag, stream.readCompoundTag());
+				break;
+			default:
+				throw new IOException("Invalid NBT update type: " + type);
+		}
+	}
 
+	private void writeFull(PacketBuffer stream) {
+		stream.writeByte(TYPE_FULL);
+		stream.writeCompoundTag(this.tag);
 	}
 
 	@Override
 	public void writeToStream(PacketBuffer stream) {
-		stream.writeCompoundTag(this.tag);
+		// new receiver gets current state, so older ones may no longer share single base for deltas
+		if (lastSentTag != null && !lastSentTag.equals(tag)) lastSentTag = null;
+		writeFull(stream);
+	}
+
+	@Override
+	public void writeDeltaToStream(PacketBuffer stream) {
+		if (lastSentTag != null) {
+			final PacketBuffer delta = new PacketBuffer(Unpooled.buffer());
+			delta.writeByte(TYPE_DIFF);
+			delta.writeCompoundTag(NbtDiff.create(lastSentTag, tag));
+
+			final PacketBuffer full = new PacketBuffer(Unpooled.buffer());
+			writeFull(full);
+
+			stream.writeBytes(delta.readableBytes() < full.readableBytes()? delta : full);
+		} else {
+			writeFull(stream);
+		}
+
+		lastSentTag = tag.copy();
 	}
 
 	@Override
@@ -11,10 +11,19 @@ import net.minecraftforge.fluids.FluidStack;
 import openmods.api.IValueProvider;
 import openmods.liquids.GenericTank;
 
-public class SyncableTank extends GenericTank implements ISyncableObject, IValueProvider<FluidStack> {
+public class SyncableTank extends GenericTank implements ISyncableDeltaObject, IValueProvider<FluidStack> {
+
+	private static final byte TYPE_EMPTY = 0;
+	private static final byte TYPE_FULL = 1;
+	private static final byte TYPE_AMOUNT = 2;
 
 	private boolean dirty = false;
 
+	private boolean hasDeltaBase;
+
+	@Nullable
+	private FluidStack lastSentFluid;
+
 	public SyncableTank() {
 		super(0);
 	}
@@ -48,30 +57,57 @@ public class SyncableTank extends GenericTank implements ISyncableObject, IValue
 
 	@Override
 	public void readFromStream(PacketBuffer stream) throws IOException {
-		if (stream.readBoolean()) {
-			String fluidName = stream.readString(Short.MAX_VALUE);
-			Fluid fluid = FluidRegistry.getFluid(fluidName);
-
-			int fluidAmount = stream.readInt();
+		final byte type = stream.readByte();
+		switch (type) {
+			case TYPE_EMPTY:
+				this.fluid = null;
+				break;
+			case TYPE_FULL: {
+				final Fluid fluid = FluidRegistry.getFluid(stream.readVarInt());
+				final int fluidAmount = stream.readVarInt();
+				this.fluid = new FluidStack(fluid, fluidAmount);
+				this.fluid.tag = stream.readCompoundTag();
+				break;
+			}
+			case TYPE_AMOUNT: {
+				final int fluidAmount = stream.readVarInt();
+				if (this.fluid != null) this.fluid.amount = fluidAmount;
+				break;
+			}
+			default:
+				throw new IOException("Invalid tank update type: " + type);
+		}
+	}
 
-			this.fluid = new FluidStack(fluid, fluidAmount);
-			this.fluid.tag = stream.readCompoundTag();
+	private void writeFull(PacketBuffer stream) {
+		if (fluid != null) {
+			stream.writeByte(TYPE_FULL);
+			stream.writeVarInt(FluidRegistry.getFluidID(fluid.getFluid()));
+			stream.writeVarInt(fluid.amount);
+			stream.writeCompoundTag(fluid.tag);
 		} else {
-			this.fluid = null;
+			stream.writeByte(TYPE_EMPTY);
 		}
 	}
 
 	@Override
 	public void writeToStream(PacketBuffer stream) {
-		if (fluid != null) {
-			stream.writeBoolean(true);
-			final String id = FluidRegistry.getFluidName(fluid.getFluid());
-			stream.writeString(id);
-			stream.writeInt(fluid.amount);
-			stream.writeCompoundTag(fluid.tag);
+		// new receiver gets current state, so older ones may no longer share single base for deltas
+		if (hasDeltaBase && !FluidStack.areFluidStackIdentical(lastSentFluid, fluid)) hasDeltaBase = false;
+		writeFull(stream);
+	}
+
+	@Override
+	public void writeDeltaToStream(PacketBuffer stream) {
+		if (hasDeltaBase && fluid != null && fluid.isFluidEqual(lastSentFluid)) {
+			stream.writeByte(TYPE_AMOUNT);
+			stream.writeVarInt(fluid.amount);
 		} else {
-			stream.writeBoolean(false);
+			writeFull(stream);
 		}
+
+		lastSentFluid = fluid != null? fluid.copy() : null;
+		hasDeltaBase = true;
 	}
 
 	@Override
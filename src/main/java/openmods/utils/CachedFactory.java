@@ -1,18 +1,25 @@
 package openmods.utils;
 
 import com.google.common.collect.Maps;
-import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Thread-safe cache of values created on first access. For caches keyed by classes, use {@link ClassMetadataCache}.
+ */
 public abstract class CachedFactory<K, V> {
 
-	private final Map<K, V> cache = Maps.newHashMap();
+	private final ConcurrentMap<K, V> cache = Maps.newConcurrentMap();
 
 	public V getOrCreate(K key) {
 		V value = cache.get(key);
 
 		if (value == null) {
+			// not using computeIfAbsent, since factories may request other keys while creating value
 			value = create(key);
-			cache.put(key, value);
+			if (value != null) {
+				final V prev = cache.putIfAbsent(key, value);
+				if (prev != null) value = prev;
+			}
 		}
 
 		return value;
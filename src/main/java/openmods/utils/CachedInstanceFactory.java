@@ -1,14 +1,21 @@
 package openmods.utils;
 
-public class CachedInstanceFactory<V> extends CachedFactory<Class<? extends V>, V> {
+public class CachedInstanceFactory<V> {
 
-	@Override
-	protected V create(Class<? extends V> key) {
-		try {
-			return key.newInstance();
-		} catch (ReflectiveOperationException e) {
-			throw new RuntimeException(e);
+	private final ClassMetadataCache<V> cache = new ClassMetadataCache<V>() {
+		@Override
+		@SuppressWarnings("unchecked")
+		protected V create(Class<?> key) {
+			try {
+				return (V)key.newInstance();
+			} catch (ReflectiveOperationException e) {
+				throw new RuntimeException(e);
+			}
 		}
+	};
+
+	public V getOrCreate(Class<? extends V> key) {
+		return cache.get(key);
 	}
 
 	public static <V> CachedInstanceFactory<V> create() {
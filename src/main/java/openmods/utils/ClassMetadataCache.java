@@ -0,0 +1,26 @@
+package openmods.utils;
+
+/**
+ * Lock-free cache of values derived from classes, backed by {@link ClassValue}.
+ * Entries are stored with class itself, so they don't prevent class unloading.
+ * Value may be created more than once when same class is requested concurrently, but all callers will get the same instance.
+ */
+public abstract class ClassMetadataCache<V> {
+
+	private final ClassValue<V> values = new ClassValue<V>() {
+		@Override
+		protected V computeValue(Class<?> type) {
+			return create(type);
+		}
+	};
+
+	public V get(Class<?> cls) {
+		return values.get(cls);
+	}
+
+	public void invalidate(Class<?> cls) {
+		values.remove(cls);
+	}
+
+	protected abstract V create(Class<?> cls);
+}
@@ -0,0 +1,156 @@
+package openmods.utils;
+
+import gnu.trove.map.TLongFloatMap;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongFloatHashMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import javax.annotation.Nullable;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+/**
+ * Cache for {@link EnchantmentUtils#getPower(World, BlockPos)}, keyed by world and position.
+ * Entries are dropped when any block in scanned cuboid changes (as reported by {@link IWorldEventListener#notifyBlockUpdate}).
+ * Changes that don't notify clients (i.e. {@code setBlockState} without flag 2) and enchant power provided by tile entities are not noticed.
+ */
+public class EnchantingPowerCache {
+
+	public static final EnchantingPowerCache instance = new EnchantingPowerCache();
+
+	// scanned area, relative to enchanter: x and z in [-2, 2], y in [0, 1]
+	private static final int RADIUS = 2;
+	private static final int HEIGHT = 2;
+
+	private static class WorldCache implements IWorldEventListener {
+		private final TLongFloatMap powers = new TLongFloatHashMap();
+
+		// number of cached enchanters that see given block
+		private final TLongIntMap watched = new TLongIntHashMap();
+
+		public float getPower(World world, BlockPos pos) {
+			final long key = pos.toLong();
+			if (powers.containsKey(key)) return powers.get(key);
+
+			final float power = EnchantmentUtils.getPower(world, pos);
+			powers.put(key, power);
+			updateWatched(pos, +1);
+			return power;
+		}
+
+		private void updateWatched(BlockPos pos, int delta) {
+			for (int dx = -RADIUS; dx <= RADIUS; dx++)
+				for (int dy = 0; dy < HEIGHT; dy++)
+					for (int dz = -RADIUS; dz <= RADIUS; dz++) {
+						final long key = pos.add(dx, dy, dz).toLong();
+						if (watched.adjustOrPutValue(key, delta, delta) <= 0) watched.remove(key);
+					}
+		}
+
+		public void invalidate(BlockPos changed) {
+			if (!watched.containsKey(changed.toLong())) return;
+
+			for (int dx = -RADIUS; dx <= RADIUS; dx++)
+				for (int dy = 1 - HEIGHT; dy <= 0; dy++)
+					for (int dz = -RADIUS; dz <= RADIUS; dz++) {
+						final BlockPos enchanter = changed.add(dx, dy, dz);
+						if (powers.containsKey(enchanter.toLong())) {
+							powers.remove(enchanter.toLong());
+							updateWatched(enchanter, -1);
+						}
+					}
+		}
+
+		public int size() {
+			return powers.size();
+		}
+
+		@Override
+		public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+			invalidate(pos);
+		}
+
+		@Override
+		public void notifyLightSet(BlockPos pos) {}
+
+		@Override
+		public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {}
+
+		@Override
+		public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent soundIn, SoundCategory category, double x, double y, double z, float volume, float pitch) {}
+
+		@Override
+		public void playRecord(SoundEvent soundIn, BlockPos pos) {}
+
+		@Override
+		public void spawnParticle(int particleID, boolean ignoreRange, double xCoord, double yCoord, double zCoord, double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+
+		@Override
+		public void spawnParticle(int id, boolean ignoreRange, boolean minimiseParticleLevel, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+
+		@Override
+		public void onEntityAdded(Entity entityIn) {}
+
+		@Override
+		public void onEntityRemoved(Entity entityIn) {}
+
+		@Override
+		public void broadcastSound(int soundID, BlockPos pos, int data) {}
+
+		@Override
+		public void playEvent(EntityPlayer player, int type, BlockPos blockPosIn, int data) {}
+
+		@Override
+		public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {}
+	}
+
+	// integrated server and client may both use it
+	private final Map<World, WorldCache> worlds = Collections.synchronizedMap(new WeakHashMap<World, WorldCache>());
+
+	private WorldCache getWorldCache(World world) {
+		synchronized (worlds) {
+			WorldCache result = worlds.get(world);
+			if (result == null) {
+				result = new WorldCache();
+				world.addEventListener(result);
+				worlds.put(world, result);
+			}
+			return result;
+		}
+	}
+
+	public float getPower(World world, BlockPos pos) {
+		return getWorldCache(world).getPower(world, pos);
+	}
+
+	/**
+	 * Drops all entries that depend on given block. Only needed for changes not reported to world listeners.
+	 */
+	public void onBlockChanged(World world, BlockPos pos) {
+		final WorldCache cache = worlds.get(world);
+		if (cache != null) cache.invalidate(pos);
+	}
+
+	// extracted for testing
+	int size(World world) {
+		final WorldCache cache = worlds.get(world);
+		return cache != null? cache.size() : 0;
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		final World world = evt.getWorld();
+		final WorldCache cache = worlds.remove(world);
+		if (cache != null) world.removeEventListener(cache);
+	}
+}
@@ -90,6 +90,13 @@ public class EnchantmentUtils {
 		return power;
 	}
 
+	/**
+	 * Same as {@link #getPower(World, BlockPos)}, but result is kept until block near position changes. Intended for machines that check power every tick.
+	 */
+	public static float getCachedPower(World world, BlockPos position) {
+		return EnchantingPowerCache.instance.getPower(world, position);
+	}
+
 	public static void addAllBooks(Enchantment enchantment, List<ItemStack> items) {
 		for (int i = enchantment.getMinLevel(); i <= enchantment.getMaxLevel(); i++)
 			items.add(ItemEnchantedBook.getEnchantedItemStack(new EnchantmentData(enchantment, i)));
@@ -0,0 +1,102 @@
+package openmods.utils;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import java.util.Map;
+import java.util.Set;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent;
+
+/**
+ * Per-tick view of players tracking entities, shared by sync maps and packet target selectors.
+ * Snapshot for every entity is copied from tracker once per server tick and reused by all later lookups in same tick.
+ * Only lookups from server thread are cached, calls from other threads always get fresh copy.
+ */
+public class EntityWatcherCache {
+
+	public static final EntityWatcherCache instance = new EntityWatcherCache();
+
+	// extracted for testing
+	EntityWatcherCache() {}
+
+	private final Map<Entity, Set<EntityPlayerMP>> watchers = Maps.newIdentityHashMap();
+
+	private Thread serverThread;
+
+	private int lookups;
+
+	private int misses;
+
+	private int lastTickLookups;
+
+	private int lastTickMisses;
+
+	@SubscribeEvent
+	public void onServerTick(ServerTickEvent evt) {
+		if (evt.phase == Phase.START) {
+			serverThread = Thread.currentThread();
+			lastTickLookups = lookups;
+			lastTickMisses = misses;
+			lookups = 0;
+			misses = 0;
+			watchers.clear();
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		// no tick will follow after server stops, so don't keep entities (and their worlds) until next one
+		if (!evt.getWorld().isRemote) watchers.clear();
+	}
+
+	public Set<EntityPlayerMP> getPlayersWatching(WorldServer server, Entity entity) {
+		if (Thread.currentThread() != serverThread) return copyPlayersWatching(server, entity);
+
+		lookups++;
+		Set<EntityPlayerMP> result = watchers.get(entity);
+		if (result == null) {
+			misses++;
+			result = copyPlayersWatching(server, entity);
+			watchers.put(entity, result);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Drops cached watchers of entity. Should be called when tracking of entity changed in middle of tick and up-to-date view is needed.
+	 */
+	public void invalidate(Entity entity) {
+		if (Thread.currentThread() == serverThread) watchers.remove(entity);
+	}
+
+	private static Set<EntityPlayerMP> copyPlayersWatching(WorldServer server, Entity entity) {
+		@SuppressWarnings("unchecked")
+		final Set<? extends EntityPlayerMP> trackingPlayers = (Set<? extends EntityPlayerMP>)server.getEntityTracker().getTrackingPlayers(entity);
+		return ImmutableSet.copyOf(trackingPlayers);
+	}
+
+	// extracted for testing
+	int size() {
+		return watchers.size();
+	}
+
+	/**
+	 * @return number of watcher lookups made during previous server tick
+	 */
+	public int getLastTickLookups() {
+		return lastTickLookups;
+	}
+
+	/**
+	 * @return number of watcher lookups during previous server tick that had to copy tracker data
+	 */
+	public int getLastTickMisses() {
+		return lastTickMisses;
+	}
+}
@@ -20,17 +20,17 @@ public class EnumUtils {
 
 	}
 
-	private static final CachedFactory<Class<? extends Enum<?>>, EnumMappings<?>> mappings = new CachedFactory<Class<? extends Enum<?>>, EnumMappings<?>>() {
+	private static final ClassMetadataCache<EnumMappings<?>> mappings = new ClassMetadataCache<EnumMappings<?>>() {
 		@Override
 		@SuppressWarnings({ "rawtypes", "unchecked" })
-		protected EnumMappings<?> create(Class<? extends Enum<?>> key) {
+		protected EnumMappings<?> create(Class<?> key) {
 			return new EnumMappings(key);
 		}
 	};
 
 	public static <T extends Enum<T>> T fromOrdinal(Class<T> cls, int ordinal) {
 		@SuppressWarnings("unchecked")
-		final EnumMappings<T> mapping = (EnumMappings<T>)mappings.getOrCreate(cls);
+		final EnumMappings<T> mapping = (EnumMappings<T>)mappings.get(cls);
 		return mapping.getValue(ordinal);
 	}
 }
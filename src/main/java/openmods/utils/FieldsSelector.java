@@ -27,7 +27,7 @@ public abstract class FieldsSelector {
 		}
 	}
 
-	private final CachedFactory<Class<?>, Collection<Field>> cache = new CachedFactory<Class<?>, Collection<Field>>() {
+	private final ClassMetadataCache<Collection<Field>> cache = new ClassMetadataCache<Collection<Field>>() {
 		@Override
 		protected Collection<Field> create(Class<?> key) {
 			return scanForFields(key);
@@ -50,8 +50,6 @@ public abstract class FieldsSelector {
 	}
 
 	public Collection<Field> getFields(Class<?> cls) {
-		synchronized (cache) {
-			return cache.getOrCreate(cls);
-		}
+		return cache.get(cls);
 	}
 }
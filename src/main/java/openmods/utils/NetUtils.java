@@ -1,12 +1,10 @@
 package openmods.utils;
 
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import java.util.Set;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.EntityTracker;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.server.management.PlayerChunkMapEntry;
@@ -24,12 +22,11 @@ public class NetUtils {
 		return dispatcher;
 	}
 
+	/**
+	 * Returns immutable set of players tracking entity. Result is cached for remainder of server tick (see {@link EntityWatcherCache}).
+	 */
 	public static Set<EntityPlayerMP> getPlayersWatchingEntity(WorldServer server, Entity entity) {
-		final EntityTracker tracker = server.getEntityTracker();
-
-		@SuppressWarnings("unchecked")
-		final Set<? extends EntityPlayerMP> trackingPlayers = (Set<? extends EntityPlayerMP>)tracker.getTrackingPlayers(entity);
-		return ImmutableSet.copyOf(trackingPlayers);
+		return EntityWatcherCache.instance.getPlayersWatching(server, entity);
 	}
 
 	public static Set<EntityPlayerMP> getPlayersWatchingChunk(WorldServer world, int chunkX, int chunkZ) {
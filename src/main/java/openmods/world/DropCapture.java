@@ -1,50 +1,158 @@
 package openmods.world;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import java.util.List;
+import java.util.Map;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.item.EntityItem;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 import net.minecraftforge.event.entity.EntityJoinWorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 
+/**
+ * Collects items spawned in given area while capture is active.
+ * World-scoped captures are indexed by chunk, so spawned item is only checked against captures near it.
+ * When captures overlap, most recently started one gets item, so nested captures (i.e. breaking block while other capture is running) get their own drops.
+ */
 public class DropCapture {
 
 	public class CaptureContext {
+		private final World world;
+
 		private final AxisAlignedBB aabb;
 
+		private final long order;
+
+		private final long[] chunks;
+
+		private boolean active = true;
+
 		private final List<EntityItem> drops = Lists.newArrayList();
 
-		public CaptureContext(AxisAlignedBB aabb) {
+		private CaptureContext(World world, AxisAlignedBB aabb, long order) {
+			this.world = world;
 			this.aabb = aabb;
+			this.order = order;
+			this.chunks = world != null? chunksAround(aabb) : null;
 		}
 
-		private boolean check(EntityItem item) {
-			if (!item.isDead && aabb.intersects(item.getEntityBoundingBox())) {
-				drops.add(item);
-				return true;
-			}
+		private boolean matches(EntityItem item) {
+			return !item.isDead && aabb.intersects(item.getEntityBoundingBox());
+		}
 
-			return false;
+		/**
+		 * Returns items captured since start (or previous call) without stopping capture. Used to attribute drops when single context covers many actions.
+		 */
+		public List<EntityItem> takeDrops() {
+			final List<EntityItem> result = Lists.newArrayList(drops);
+			drops.clear();
+			return result;
 		}
 
 		public List<EntityItem> stop() {
-			captures.remove(this);
+			if (active) {
+				active = false;
+				remove(this);
+			}
 			return drops;
 		}
 	}
 
 	public static final DropCapture instance = new DropCapture();
 
-	private final List<CaptureContext> captures = Lists.newArrayList();
+	// contexts not bound to world, checked for every item
+	private final List<CaptureContext> globalCaptures = Lists.newArrayList();
 
-	public CaptureContext start(AxisAlignedBB aabb) {
-		CaptureContext context = new CaptureContext(aabb);
-		captures.add(context);
+	private final Map<World, TLongObjectMap<List<CaptureContext>>> worldCaptures = Maps.newIdentityHashMap();
+
+	private int activeCaptures;
+
+	private long nextOrder;
+
+	private static long[] chunksAround(AxisAlignedBB aabb) {
+		// items are checked by bounding box, but indexed by position, so add some margin
+		final int minX = (int)Math.floor(aabb.minX - 1) >> 4;
+		final int maxX = (int)Math.floor(aabb.maxX + 1) >> 4;
+		final int minZ = (int)Math.floor(aabb.minZ - 1) >> 4;
+		final int maxZ = (int)Math.floor(aabb.maxZ + 1) >> 4;
+
+		final long[] result = new long[(maxX - minX + 1) * (maxZ - minZ + 1)];
+		int i = 0;
+		for (int x = minX; x <= maxX; x++)
+			for (int z = minZ; z <= maxZ; z++)
+				result[i++] = ChunkPos.asLong(x, z);
+
+		return result;
+	}
+
+	private CaptureContext add(World world, AxisAlignedBB aabb) {
+		final CaptureContext context = new CaptureContext(world, aabb, nextOrder++);
+
+		if (world == null) {
+			globalCaptures.add(context);
+		} else {
+			TLongObjectMap<List<CaptureContext>> chunkCaptures = worldCaptures.get(world);
+			if (chunkCaptures == null) {
+				chunkCaptures = new TLongObjectHashMap<>();
+				worldCaptures.put(world, chunkCaptures);
+			}
+
+			for (long chunk : context.chunks) {
+				List<CaptureContext> contexts = chunkCaptures.get(chunk);
+				if (contexts == null) {
+					contexts = Lists.newArrayListWithCapacity(1);
+					chunkCaptures.put(chunk, contexts);
+				}
+				contexts.add(context);
+			}
+		}
+
+		activeCaptures++;
 		return context;
 	}
 
+	private void remove(CaptureContext context) {
+		activeCaptures--;
+
+		if (context.world == null) {
+			globalCaptures.remove(context);
+		} else {
+			final TLongObjectMap<List<CaptureContext>> chunkCaptures = worldCaptures.get(context.world);
+			if (chunkCaptures == null) return;
+
+			for (long chunk : context.chunks) {
+				final List<CaptureContext> contexts = chunkCaptures.get(chunk);
+				if (contexts != null) {
+					contexts.remove(context);
+					if (contexts.isEmpty()) chunkCaptures.remove(chunk);
+				}
+			}
+
+			if (chunkCaptures.isEmpty()) worldCaptures.remove(context.world);
+		}
+	}
+
+	public CaptureContext start(World world, AxisAlignedBB aabb) {
+		return add(world, aabb);
+	}
+
+	public CaptureContext start(World world, BlockPos pos) {
+		return add(world, new AxisAlignedBB(pos));
+	}
+
+	/**
+	 * Starts capture in all worlds. Prefer world-scoped version, which is cheaper to check.
+	 */
+	public CaptureContext start(AxisAlignedBB aabb) {
+		return add(null, aabb);
+	}
+
 	public CaptureContext start(int x, int y, int z) {
 		return start(new AxisAlignedBB(x, y, z, x + 1, y + 1, z + 1));
 	}
@@ -53,16 +161,34 @@ public class DropCapture {
 		return start(pos.getX(), pos.getY(), pos.getZ());
 	}
 
+	private static CaptureContext selectLatest(CaptureContext current, List<CaptureContext> candidates, EntityItem item) {
+		for (int i = 0; i < candidates.size(); i++) {
+			final CaptureContext c = candidates.get(i);
+			if ((current == null || c.order > current.order) && c.matches(item)) current = c;
+		}
+
+		return current;
+	}
+
 	@SubscribeEvent
 	public void onEntityConstruct(EntityJoinWorldEvent evt) {
+		if (activeCaptures == 0) return;
+
 		final Entity e = evt.getEntity();
 		if (e != null
 				&& e.getClass() == EntityItem.class
 				&& !e.world.isRemote) {
 			final EntityItem ei = (EntityItem)e;
 
-			for (CaptureContext c : captures)
-				if (c.check(ei)) break;
+			CaptureContext selected = selectLatest(null, globalCaptures, ei);
+
+			final TLongObjectMap<List<CaptureContext>> chunkCaptures = worldCaptures.get(e.world);
+			if (chunkCaptures != null) {
+				final List<CaptureContext> contexts = chunkCaptures.get(ChunkPos.asLong((int)Math.floor(ei.posX) >> 4, (int)Math.floor(ei.posZ) >> 4));
+				if (contexts != null) selected = selectLatest(selected, contexts, ei);
+			}
+
+			if (selected != null) selected.drops.add(ei);
 		}
 	}
 
@@ -0,0 +1,140 @@
+package openmods.world;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Task queue for single dimension. Tasks can be added from any thread, but {@link #tick(long)} must always be called from same thread.
+ */
+public class ScheduledTaskQueue {
+
+	public enum Priority {
+		/**
+		 * Never deferred by time budget
+		 */
+		HIGH,
+		NORMAL,
+		LOW
+	}
+
+	public static class Metrics {
+		public final int queued;
+		public final long executed;
+		public final long deferred;
+		public final long maxLatency;
+
+		public Metrics(int queued, long executed, long deferred, long maxLatency) {
+			this.queued = queued;
+			this.executed = executed;
+			this.deferred = deferred;
+			this.maxLatency = maxLatency;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("queued: %d, executed: %d, deferred: %d, max latency: %d ticks", queued, executed, deferred, maxLatency);
+		}
+	}
+
+	private static class Task {
+		public final long dueTick;
+		public final Priority priority;
+		public final long sequence;
+		public final Runnable callback;
+
+		public Task(long dueTick, Priority priority, long sequence, Runnable callback) {
+			this.dueTick = dueTick;
+			this.priority = priority;
+			this.sequence = sequence;
+			this.callback = callback;
+		}
+	}
+
+	private static final Comparator<Task> BY_DUE_TICK = Comparator.<Task> comparingLong(t -> t.dueTick).thenComparingLong(t -> t.sequence);
+
+	private static final Comparator<Task> BY_PRIORITY = Comparator.<Task, Priority> comparing(t -> t.priority).thenComparingLong(t -> t.dueTick).thenComparingLong(t -> t.sequence);
+
+	private final Queue<Task> incoming = new ConcurrentLinkedQueue<>();
+
+	private final PriorityQueue<Task> delayed = new PriorityQueue<>(BY_DUE_TICK);
+
+	private final PriorityQueue<Task> ready = new PriorityQueue<>(BY_PRIORITY);
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	private final AtomicInteger queued = new AtomicInteger();
+
+	private final LongSupplier clock;
+
+	private volatile long currentTick;
+
+	private long overrun;
+
+	private long executed;
+
+	private long deferred;
+
+	private long maxLatency;
+
+	public ScheduledTaskQueue() {
+		this(System::nanoTime);
+	}
+
+	// extracted for testing
+	ScheduledTaskQueue(LongSupplier clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * @param delay number of ticks to wait, 0 means next call to {@link #tick(long)}
+	 */
+	public void add(int delay, Priority priority, Runnable callback) {
+		incoming.add(new Task(currentTick + Math.max(delay, 0), priority, sequence.getAndIncrement(), callback));
+		queued.incrementAndGet();
+	}
+
+	/**
+	 * Runs due tasks, highest priority first, until time budget is used. At least one task is executed every tick, so queue always makes progress.
+	 * {@link Priority#HIGH} tasks always run, but their time still counts against budget.
+	 * Time spent over budget is subtracted from budget of following ticks.
+	 */
+	public void tick(long budgetNanos) {
+		final long tick = currentTick;
+
+		Task task;
+		while ((task = incoming.poll()) != null)
+			delayed.add(task);
+
+		while ((task = delayed.peek()) != null && task.dueTick <= tick)
+			ready.add(delayed.poll());
+
+		final long start = clock.getAsLong();
+		final long budget = budgetNanos - overrun;
+		boolean first = true;
+
+		while ((task = ready.peek()) != null) {
+			if (!first && task.priority != Priority.HIGH && clock.getAsLong() - start >= budget) break;
+			first = false;
+
+			ready.poll();
+			queued.decrementAndGet();
+			maxLatency = Math.max(maxLatency, tick - task.dueTick);
+			executed++;
+			task.callback.run();
+		}
+
+		deferred += ready.size();
+		overrun = Math.max(clock.getAsLong() - start - budget, 0);
+		currentTick = tick + 1;
+	}
+
+	public Metrics getMetrics() {
+		return new Metrics(queued.get(), executed, deferred, maxLatency);
+	}
+
+}
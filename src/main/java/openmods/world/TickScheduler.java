@@ -0,0 +1,74 @@
+package openmods.world;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.WorldTickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import openmods.LibConfig;
+import openmods.world.ScheduledTaskQueue.Metrics;
+import openmods.world.ScheduledTaskQueue.Priority;
+
+/**
+ * Runs tasks at end of server world tick, with optional delay and priority.
+ * Time spent on tasks in every tick is limited by config - tasks that don't fit are moved to next tick (except {@link Priority#HIGH} ones).
+ * Pending tasks are dropped when world is unloaded.
+ */
+public class TickScheduler {
+
+	public static final TickScheduler INSTANCE = new TickScheduler();
+
+	private TickScheduler() {}
+
+	private final Map<Integer, ScheduledTaskQueue> queues = new ConcurrentHashMap<>();
+
+	private ScheduledTaskQueue getWorldQueue(int worldId) {
+		return queues.computeIfAbsent(worldId, id -> new ScheduledTaskQueue());
+	}
+
+	public void schedule(int dimension, int delay, Priority priority, Runnable callback) {
+		getWorldQueue(dimension).add(delay, priority, callback);
+	}
+
+	public void schedule(World world, int delay, Priority priority, Runnable callback) {
+		schedule(world.provider.getDimension(), delay, priority, callback);
+	}
+
+	public void schedule(World world, int delay, Runnable callback) {
+		schedule(world, delay, Priority.NORMAL, callback);
+	}
+
+	/**
+	 * Runs callback at end of next world tick. Never deferred by tick budget.
+	 */
+	public void addTickCallback(World world, Runnable callback) {
+		schedule(world, 0, Priority.HIGH, callback);
+	}
+
+	public Metrics getMetrics(int dimension) {
+		final ScheduledTaskQueue queue = queues.get(dimension);
+		return queue != null? queue.getMetrics() : new Metrics(0, 0, 0, 0);
+	}
+
+	public Map<Integer, ScheduledTaskQueue> getQueues() {
+		return queues;
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		final World world = evt.getWorld();
+		if (!world.isRemote) queues.remove(world.provider.getDimension());
+	}
+
+	@SubscribeEvent
+	public void onWorldTick(WorldTickEvent evt) {
+		if (evt.side == Side.SERVER && evt.phase == Phase.END) {
+			final int worldId = evt.world.provider.getDimension();
+			getWorldQueue(worldId).tick(TimeUnit.MICROSECONDS.toNanos(LibConfig.scheduledTaskBudget));
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package openmods.colors;
+
+import java.util.Random;
+import net.minecraft.init.Bootstrap;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ColorUtilsTest {
+
+	static {
+		Bootstrap.register();
+	}
+
+	// with 5 bits per channel, every color is at most 4 units (per channel) away from center of its cell - that gives distance of ~12
+	private static final double CELL_ERROR = 12;
+
+	private static final int NO_LIMIT = 1000;
+
+	private static double distance(ColorMeta meta, RGB color) {
+		return Math.sqrt(meta.rgbWrap.distance(color));
+	}
+
+	private static void checkColor(RGB color) {
+		final ColorMeta exact = ColorUtils.findNearestColorExact(color, NO_LIMIT);
+		final ColorMeta approx = ColorUtils.findNearestColor(color, NO_LIMIT);
+		Assert.assertNotNull(exact);
+		Assert.assertNotNull(approx);
+
+		if (exact != approx) {
+			final double error = distance(approx, color) - distance(exact, color);
+			Assert.assertTrue("Color " + Integer.toHexString(color.getColor()) + ": " + approx + " vs " + exact, error <= 2 * CELL_ERROR);
+		}
+	}
+
+	@Test
+	public void testPaletteColorsMatchThemselves() {
+		for (ColorMeta meta : ColorMeta.VALUES) {
+			Assert.assertEquals(meta, ColorUtils.findNearestColor(new RGB(meta.rgb), 1));
+			Assert.assertEquals(meta, ColorUtils.findNearestColorExact(new RGB(meta.rgb), 1));
+		}
+	}
+
+	@Test
+	public void testRandomColorsWithinQuantizationError() {
+		final Random random = new Random(0);
+		int mismatches = 0;
+		final int count = 100000;
+		for (int i = 0; i < count; i++) {
+			final RGB color = new RGB(random.nextInt(0x1000000));
+			checkColor(color);
+			if (ColorUtils.findNearestColor(color, NO_LIMIT) != ColorUtils.findNearestColorExact(color, NO_LIMIT)) mismatches++;
+		}
+
+		// only colors near boundaries between palette entries should differ
+		Assert.assertTrue("Mismatches: " + mismatches, mismatches < count / 20);
+	}
+
+	@Test
+	public void testCubeCorners() {
+		for (int r = 0; r <= 255; r += 255)
+			for (int g = 0; g <= 255; g += 255)
+				for (int b = 0; b <= 255; b += 255)
+					checkColor(new RGB(r, g, b));
+	}
+
+	@Test
+	public void testTolerance() {
+		final RGB almostRed = new RGB(ColorMeta.RED.rgb + 0x010101);
+		Assert.assertEquals(ColorMeta.RED, ColorUtils.findNearestColor(almostRed, 5));
+		Assert.assertNull(ColorUtils.findNearestColor(new RGB(0x00FFFF), 5));
+		Assert.assertNull(ColorUtils.findNearestColorExact(new RGB(0x00FFFF), 5));
+	}
+
+	@Test
+	public void testBulkMatchesSingle() {
+		final Random random = new Random(1);
+		final int[] pixels = new int[4096];
+		for (int i = 0; i < pixels.length; i++)
+			pixels[i] = random.nextInt();
+
+		for (int tolerance : new int[] { 10, 50, NO_LIMIT }) {
+			final ColorMeta[] result = ColorUtils.findNearestColors(pixels, tolerance);
+			for (int i = 0; i < pixels.length; i++)
+				Assert.assertEquals(ColorUtils.findNearestColor(new RGB(pixels[i]), tolerance), result[i]);
+		}
+	}
+
+	@Test
+	public void testBulkRange() {
+		final int[] pixels = new int[] { ColorMeta.RED.rgb, ColorMeta.GREEN.rgb, ColorMeta.BLUE.rgb, ColorMeta.WHITE.rgb };
+		final ColorMeta[] result = new ColorMeta[3];
+		ColorUtils.findNearestColors(pixels, 1, 2, result, 1, 1);
+		Assert.assertArrayEquals(new ColorMeta[] { null, ColorMeta.GREEN, ColorMeta.BLUE }, result);
+	}
+}
@@ -0,0 +1,182 @@
+package openmods.container;
+
+import java.util.List;
+import java.util.Random;
+import javax.annotation.Nonnull;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.inventory.IInventory;
+import net.minecraft.inventory.InventoryBasic;
+import net.minecraft.inventory.Slot;
+import net.minecraft.item.ItemStack;
+import openmods.utils.InventoryUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ContainerBaseTest {
+
+	static {
+		Bootstrap.register();
+	}
+
+	private static final int OWNER_SIZE = 54;
+
+	private static class TestContainer extends ContainerBase<Void> {
+		public TestContainer(IInventory playerInventory, IInventory ownerInventory) {
+			super(playerInventory, ownerInventory, null);
+			addInventoryGrid(8, 18, 9);
+			addPlayerInventorySlots(140);
+		}
+	}
+
+	// copy of full-scan merge, used as reference
+	private static class LegacyContainer extends TestContainer {
+		public LegacyContainer(IInventory playerInventory, IInventory ownerInventory) {
+			super(playerInventory, ownerInventory);
+		}
+
+		@Override
+		protected boolean mergeItemStackSafe(@Nonnull ItemStack stackToMerge, int start, int stop, boolean reverse) {
+			boolean inventoryChanged = false;
+
+			final int delta = reverse? -1 : 1;
+			List<Slot> slots = getSlots();
+
+			if (stackToMerge.isStackable()) {
+				int slotId = reverse? stop - 1 : start;
+				while (!stackToMerge.isEmpty() && ((!reverse && slotId < stop) || (reverse && slotId >= start))) {
+					Slot slot = slots.get(slotId);
+
+					if (canTransferItemsIn(slot)) {
+						ItemStack stackInSlot = slot.getStack();
+
+						if (InventoryUtils.tryMergeStacks(stackToMerge, stackInSlot)) {
+							slot.onSlotChanged();
+							inventoryChanged = true;
+						}
+					}
+
+					slotId += delta;
+				}
+			}
+
+			if (!stackToMerge.isEmpty()) {
+				int slotId = reverse? stop - 1 : start;
+
+				while ((!reverse && slotId < stop) || (reverse && slotId >= start)) {
+					Slot slot = slots.get(slotId);
+					ItemStack stackInSlot = slot.getStack();
+
+					if (stackInSlot.isEmpty() && canTransferItemsIn(slot) && slot.isItemValid(stackToMerge)) {
+						slot.putStack(stackToMerge.copy());
+						slot.onSlotChanged();
+						stackToMerge.setCount(0);
+						return true;
+					}
+
+					slotId += delta;
+				}
+			}
+
+			return inventoryChanged;
+		}
+	}
+
+	private static ItemStack randomStack(Random random) {
+		switch (random.nextInt(6)) {
+			case 0:
+				return ItemStack.EMPTY;
+			case 1:
+				return new ItemStack(Items.APPLE, 1 + random.nextInt(64));
+			case 2:
+				return new ItemStack(Items.DYE, 1 + random.nextInt(64), random.nextInt(3));
+			case 3: {
+				final ItemStack result = new ItemStack(Items.STICK, 1 + random.nextInt(64));
+				if (random.nextBoolean()) result.setStackDisplayName("named");
+				return result;
+			}
+			case 4:
+				return new ItemStack(Items.DIAMOND_SWORD);
+			default:
+				return ItemStack.EMPTY;
+		}
+	}
+
+	private static void assertSameContents(IInventory expected, IInventory actual) {
+		for (int i = 0; i < expected.getSizeInventory(); i++)
+			Assert.assertTrue("Slot " + i, ItemStack.areItemStacksEqual(expected.getStackInSlot(i), actual.getStackInSlot(i)));
+	}
+
+	@Test
+	public void testShiftClickMatchesFullScan() {
+		final Random random = new Random(0);
+
+		final InventoryBasic legacyOwner = new InventoryBasic("owner", false, OWNER_SIZE);
+		final InventoryBasic legacyPlayer = new InventoryBasic("player", false, 36);
+		final InventoryBasic indexedOwner = new InventoryBasic("owner", false, OWNER_SIZE);
+		final InventoryBasic indexedPlayer = new InventoryBasic("player", false, 36);
+
+		final ContainerBase<Void> legacy = new LegacyContainer(legacyPlayer, legacyOwner);
+		final ContainerBase<Void> indexed = new TestContainer(indexedPlayer, indexedOwner);
+		final int slotCount = indexed.inventorySlots.size();
+
+		for (int round = 0; round < 2000; round++) {
+			if (random.nextInt(10) == 0) {
+				// modification not reported to container, picked on next tick
+				final int slot = random.nextInt(36);
+				final ItemStack stack = randomStack(random);
+				legacyPlayer.setInventorySlotContents(slot, stack.copy());
+				indexedPlayer.setInventorySlotContents(slot, stack.copy());
+				legacy.detectAndSendChanges();
+				indexed.detectAndSendChanges();
+			}
+
+			if (random.nextInt(10) == 0) {
+				// tag edited in place
+				final int slot = random.nextInt(36);
+				final String name = "renamed" + random.nextInt(2);
+				final ItemStack legacyStack = legacyPlayer.getStackInSlot(slot);
+				if (!legacyStack.isEmpty()) legacyStack.setStackDisplayName(name);
+				final ItemStack indexedStack = indexedPlayer.getStackInSlot(slot);
+				if (!indexedStack.isEmpty()) indexedStack.setStackDisplayName(name);
+				legacy.detectAndSendChanges();
+				indexed.detectAndSendChanges();
+			}
+
+			final int slotId = random.nextInt(slotCount);
+			final EntityPlayer player = null;
+			final ItemStack legacyResult = legacy.transferStackInSlot(player, slotId);
+			final ItemStack indexedResult = indexed.transferStackInSlot(player, slotId);
+			Assert.assertTrue(ItemStack.areItemStacksEqual(legacyResult, indexedResult));
+
+			assertSameContents(legacyOwner, indexedOwner);
+			assertSameContents(legacyPlayer, indexedPlayer);
+		}
+	}
+
+	@Test
+	public void testInPlaceTagChange() {
+		final InventoryBasic owner = new InventoryBasic("owner", false, OWNER_SIZE);
+		final InventoryBasic player = new InventoryBasic("player", false, 36);
+		final ContainerBase<Void> container = new TestContainer(player, owner);
+
+		final ItemStack named = new ItemStack(Items.STICK, 10);
+		named.setStackDisplayName("a");
+		owner.setInventorySlotContents(5, named);
+		player.setInventorySlotContents(0, new ItemStack(Items.STICK, 10));
+		player.setInventorySlotContents(9, new ItemStack(Items.APPLE, 1));
+
+		// first merge builds index
+		container.transferStackInSlot(null, OWNER_SIZE);
+		Assert.assertTrue(player.getStackInSlot(9).isEmpty());
+
+		owner.getStackInSlot(5).clearCustomName();
+		container.detectAndSendChanges();
+
+		// hotbar slot 0
+		container.transferStackInSlot(null, OWNER_SIZE + 27);
+		Assert.assertEquals(20, owner.getStackInSlot(5).getCount());
+		Assert.assertTrue(player.getStackInSlot(0).isEmpty());
+	}
+}
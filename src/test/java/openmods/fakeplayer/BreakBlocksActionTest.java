@@ -0,0 +1,140 @@
+package openmods.fakeplayer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.minecraft.block.Block;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.InventoryPlayer;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.World;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import openmods.world.DropCapture;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+public class BreakBlocksActionTest {
+
+	static {
+		Bootstrap.register();
+	}
+
+	private static final BlockPos A = new BlockPos(10, 64, 10);
+
+	private static final BlockPos B = new BlockPos(11, 64, 10);
+
+	private static final BlockPos C = new BlockPos(40, 64, 10);
+
+	private final Map<BlockPos, IBlockState> blocks = Maps.newHashMap();
+
+	private final Set<BlockPos> protectedBlocks = Sets.newHashSet();
+
+	private World world;
+
+	private Block block;
+
+	private OpenModsFakePlayer player;
+
+	@Before
+	public void setup() {
+		world = Mockito.mock(World.class);
+		Mockito.when(world.getBlockState(Matchers.any(BlockPos.class))).thenAnswer(invocation -> {
+			final IBlockState state = blocks.get(invocation.getArguments()[0]);
+			return state != null? state : Blocks.AIR.getDefaultState();
+		});
+		Mockito.when(world.isBlockModifiable(Matchers.any(EntityPlayer.class), Matchers.any(BlockPos.class))).thenAnswer(invocation -> !protectedBlocks.contains(invocation.getArguments()[1]));
+
+		block = Mockito.mock(Block.class);
+		Mockito.when(block.getActualState(Matchers.any(IBlockState.class), Matchers.any(IBlockAccess.class), Matchers.any(BlockPos.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+		Mockito.when(block.canHarvestBlock(Matchers.any(IBlockAccess.class), Matchers.any(BlockPos.class), Matchers.any(EntityPlayer.class))).thenReturn(true);
+		Mockito.when(block.removedByPlayer(Matchers.any(IBlockState.class), Matchers.any(World.class), Matchers.any(BlockPos.class), Matchers.any(EntityPlayer.class), Matchers.anyBoolean())).thenAnswer(invocation -> {
+			blocks.remove(invocation.getArguments()[2]);
+			return true;
+		});
+		Mockito.doAnswer(invocation -> {
+			spawnDrop((BlockPos)invocation.getArguments()[2]);
+			return null;
+		}).when(block).harvestBlock(Matchers.any(World.class), Matchers.any(EntityPlayer.class), Matchers.any(BlockPos.class), Matchers.any(IBlockState.class), Matchers.any(TileEntity.class), Matchers.any(ItemStack.class));
+
+		player = Mockito.mock(OpenModsFakePlayer.class);
+		player.inventory = new InventoryPlayer(player);
+		Mockito.when(player.getHeldItemMainhand()).thenReturn(ItemStack.EMPTY);
+	}
+
+	private void spawnDrop(BlockPos pos) {
+		final EntityItem item = new EntityItem(null, pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5, new ItemStack(Items.COAL));
+		item.world = world;
+		DropCapture.instance.onEntityConstruct(new EntityJoinWorldEvent(item, world));
+	}
+
+	private void placeBlock(BlockPos pos) {
+		final IBlockState state = Mockito.mock(IBlockState.class);
+		Mockito.when(state.getBlock()).thenReturn(block);
+		Mockito.when(state.getMaterial()).thenReturn(Material.GROUND);
+		blocks.put(pos, state);
+	}
+
+	private static void assertDropAt(BlockPos pos, List<EntityItem> drops) {
+		Assert.assertEquals(1, drops.size());
+		final EntityItem drop = drops.get(0);
+		Assert.assertEquals(pos, new BlockPos(drop));
+	}
+
+	@Test
+	public void testDropsAttributedToPositions() {
+		placeBlock(A);
+		placeBlock(B);
+		placeBlock(C);
+
+		final Map<BlockPos, List<EntityItem>> result = new BreakBlocksAction(world, ImmutableList.of(A, B, C)).usePlayer(player);
+
+		Assert.assertEquals(ImmutableList.of(A, B, C), ImmutableList.copyOf(result.keySet()));
+		assertDropAt(A, result.get(A));
+		assertDropAt(B, result.get(B));
+		assertDropAt(C, result.get(C));
+		Assert.assertTrue(blocks.isEmpty());
+	}
+
+	@Test
+	public void testAirAndProtectedBlocksSkipped() {
+		placeBlock(A);
+		placeBlock(C);
+		protectedBlocks.add(C);
+
+		final Map<BlockPos, List<EntityItem>> result = new BreakBlocksAction(world, ImmutableList.of(A, B, C)).usePlayer(player);
+
+		Assert.assertEquals(ImmutableList.of(A, B, C), ImmutableList.copyOf(result.keySet()));
+		assertDropAt(A, result.get(A));
+		Assert.assertTrue(result.get(B).isEmpty());
+		Assert.assertTrue(result.get(C).isEmpty());
+		Assert.assertTrue(blocks.containsKey(C));
+	}
+
+	@Test
+	public void testToolEquipped() {
+		placeBlock(A);
+		placeBlock(B);
+
+		final ItemStack tool = new ItemStack(Items.IRON_SHOVEL);
+		new BreakBlocksAction(world, ImmutableList.of(A, B)).setStackToUse(tool).usePlayer(player);
+
+		Assert.assertEquals(0, player.inventory.currentItem);
+		Assert.assertTrue(ItemStack.areItemStacksEqual(tool, player.inventory.getStackInSlot(0)));
+		Mockito.verify(block, Mockito.times(2)).harvestBlock(Matchers.eq(world), Matchers.eq(player), Matchers.any(BlockPos.class), Matchers.any(IBlockState.class), Matchers.any(TileEntity.class), Matchers.eq(tool));
+	}
+}
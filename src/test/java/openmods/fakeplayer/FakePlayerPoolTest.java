@@ -0,0 +1,107 @@
+package openmods.fakeplayer;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.world.WorldServer;
+import openmods.LibConfig;
+import openmods.fakeplayer.FakePlayerPool.WorldPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class FakePlayerPoolTest {
+
+	static {
+		Bootstrap.register();
+	}
+
+	private final List<OpenModsFakePlayer> created = Lists.newArrayList();
+
+	private final WorldServer world = Mockito.mock(WorldServer.class);
+
+	private int oldThreshold;
+
+	private WorldPool pool;
+
+	@Before
+	public void setup() {
+		oldThreshold = LibConfig.fakePlayerThreshold;
+		LibConfig.fakePlayerThreshold = 10;
+
+		pool = new WorldPool() {
+			@Override
+			OpenModsFakePlayer newPlayer(WorldServer world, int id) {
+				final OpenModsFakePlayer player = Mockito.mock(OpenModsFakePlayer.class);
+				created.add(player);
+				return player;
+			}
+		};
+	}
+
+	@After
+	public void restore() {
+		LibConfig.fakePlayerThreshold = oldThreshold;
+	}
+
+	private OpenModsFakePlayer usePlayer() {
+		return pool.executeOnPlayer(world, fakePlayer -> fakePlayer);
+	}
+
+	@Test
+	public void testPlayerReused() {
+		final OpenModsFakePlayer first = usePlayer();
+		final OpenModsFakePlayer second = usePlayer();
+		Assert.assertSame(first, second);
+		Assert.assertEquals(1, pool.createdPlayers());
+	}
+
+	@Test
+	public void testWarmupCreatesPlayersOnce() {
+		pool.warmup(world, 3);
+		Assert.assertEquals(3, pool.createdPlayers());
+
+		pool.warmup(world, 3);
+		Assert.assertEquals(3, pool.createdPlayers());
+
+		pool.warmup(world, 5);
+		Assert.assertEquals(5, pool.createdPlayers());
+	}
+
+	@Test
+	public void testWarmedPlayerUsed() {
+		pool.warmup(world, 2);
+		final OpenModsFakePlayer player = usePlayer();
+		Assert.assertTrue(created.contains(player));
+		Assert.assertEquals(2, pool.createdPlayers());
+	}
+
+	@Test
+	public void testNestedUseCreatesPlayer() {
+		pool.warmup(world, 1);
+		final OpenModsFakePlayer inner = pool.executeOnPlayer(world, outer -> {
+			final OpenModsFakePlayer result = usePlayer();
+			Assert.assertNotSame(outer, result);
+			return result;
+		});
+
+		Assert.assertEquals(2, pool.createdPlayers());
+		Assert.assertTrue(created.contains(inner));
+	}
+
+	@Test
+	public void testThreshold() {
+		Assert.assertFalse(pool.isOverThreshold(10));
+		Assert.assertTrue(pool.isOverThreshold(11));
+	}
+
+	@Test
+	public void testWarmupNotCountedAsLeak() {
+		pool.warmup(world, 15);
+		Assert.assertFalse(pool.isOverThreshold(15));
+		Assert.assertFalse(pool.isOverThreshold(25));
+		Assert.assertTrue(pool.isOverThreshold(26));
+	}
+}
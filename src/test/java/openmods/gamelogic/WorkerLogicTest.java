@@ -0,0 +1,197 @@
+package openmods.gamelogic;
+
+import com.google.common.collect.Lists;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import openmods.sync.SyncableInt;
+import openmods.world.ScheduledTaskQueue;
+import openmods.world.ScheduledTaskQueue.Priority;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WorkerLogicTest {
+
+	private static final int TICKS = 200;
+
+	private interface OwnerActions {
+		public void beforeUpdate(long tick, WorkerLogic logic);
+	}
+
+	private static class FakeWorld implements WorkerLogic.IWakeupScheduler {
+		private long tick;
+
+		private final TreeMap<Long, List<Runnable>> wakeups = new TreeMap<>();
+
+		private int scheduled;
+
+		@Override
+		public void schedule(int delay, Runnable callback) {
+			Assert.assertTrue(delay >= 0);
+			wakeups.computeIfAbsent(tick + delay, t -> Lists.newArrayList()).add(callback);
+			scheduled++;
+		}
+
+		public void endTick() {
+			final Iterator<Map.Entry<Long, List<Runnable>>> it = wakeups.headMap(tick, true).entrySet().iterator();
+			final List<Runnable> due = Lists.newArrayList();
+			while (it.hasNext()) {
+				due.addAll(it.next().getValue());
+				it.remove();
+			}
+
+			for (Runnable r : due)
+				r.run();
+
+			tick++;
+		}
+	}
+
+	private static List<Long> runIncremental(int maxProgress, int initialProgress, OwnerActions actions) {
+		final List<Long> completions = Lists.newArrayList();
+		final WorkerLogic logic = new WorkerLogic(new SyncableInt(initialProgress), maxProgress);
+		for (long tick = 0; tick < TICKS; tick++) {
+			actions.beforeUpdate(tick, logic);
+			if (logic.update()) completions.add(tick);
+		}
+		return completions;
+	}
+
+	private static List<Long> runScheduled(int maxProgress, int initialProgress, OwnerActions actions) {
+		final List<Long> completions = Lists.newArrayList();
+		final FakeWorld world = new FakeWorld();
+		final WorkerLogic logic = new WorkerLogic(new SyncableInt(initialProgress), maxProgress, () -> world.tick, world, () -> completions.add(world.tick));
+		for (int tick = 0; tick < TICKS; tick++) {
+			actions.beforeUpdate(tick, logic);
+			Assert.assertFalse(logic.update());
+			world.endTick();
+		}
+		return completions;
+	}
+
+	private static void compare(int maxProgress, int initialProgress, OwnerActions actions) {
+		final List<Long> expected = runIncremental(maxProgress, initialProgress, actions);
+		final List<Long> actual = runScheduled(maxProgress, initialProgress, actions);
+		Assert.assertFalse(expected.isEmpty());
+		Assert.assertEquals("max progress: " + maxProgress, expected, actual);
+	}
+
+	@Test
+	public void testContinuousWork() {
+		for (int maxProgress : new int[] { 0, 1, 2, 5, 20, 100 })
+			compare(maxProgress, 0, (tick, logic) -> logic.checkWorkCondition(true));
+	}
+
+	@Test
+	public void testDelayedStart() {
+		for (int maxProgress : new int[] { 0, 1, 7, 30 })
+			compare(maxProgress, 0, (tick, logic) -> logic.checkWorkCondition(tick >= 13));
+	}
+
+	@Test
+	public void testInitialProgress() {
+		compare(20, 15, (tick, logic) -> logic.checkWorkCondition(true));
+		compare(20, 25, (tick, logic) -> logic.checkWorkCondition(true));
+	}
+
+	@Test
+	public void testIntermittentCondition() {
+		// condition loss resets progress
+		compare(10, 0, (tick, logic) -> logic.checkWorkCondition(tick % 17 != 3));
+	}
+
+	@Test
+	public void testPauseAndResume() {
+		compare(30, 0, (tick, logic) -> {
+			if (tick % 40 == 10) logic.pause();
+			else if (tick % 40 == 15 || tick == 0) logic.start();
+			else if (!logic.isWorking() && tick % 40 > 15) logic.start();
+		});
+	}
+
+	@Test
+	public void testOneWakeupPerJob() {
+		final FakeWorld world = new FakeWorld();
+		final List<Long> completions = Lists.newArrayList();
+		final WorkerLogic logic = new WorkerLogic(new SyncableInt(), 40, () -> world.tick, world, () -> completions.add(world.tick));
+
+		logic.start();
+		for (int i = 0; i < 100; i++) {
+			world.endTick();
+			logic.start();
+		}
+
+		Assert.assertEquals(2, completions.size());
+		Assert.assertEquals(3, world.scheduled);
+	}
+
+	@Test
+	public void testInterpolatedProgress() {
+		final FakeWorld world = new FakeWorld();
+		final SyncableInt progress = new SyncableInt();
+		final WorkerLogic logic = new WorkerLogic(progress, 10, () -> world.tick, world, () -> {});
+
+		logic.start();
+		// incremental mode would already do one step in this tick
+		Assert.assertEquals(1, logic.getProgress());
+
+		for (int i = 0; i < 4; i++)
+			world.endTick();
+
+		Assert.assertEquals(5, logic.getProgress());
+		Assert.assertEquals(0, progress.get());
+
+		logic.syncProgress();
+		Assert.assertEquals(5, progress.get());
+
+		// no progress on tick of pause
+		world.endTick();
+		logic.pause();
+		Assert.assertEquals(5, progress.get());
+		Assert.assertEquals(5, logic.getProgress());
+
+		world.endTick();
+		world.endTick();
+		Assert.assertEquals(5, logic.getProgress());
+		Assert.assertFalse(logic.isWorking());
+	}
+
+	@Test
+	public void testStaleWakeupIgnored() {
+		final FakeWorld world = new FakeWorld();
+		final List<Long> completions = Lists.newArrayList();
+		final WorkerLogic logic = new WorkerLogic(new SyncableInt(), 5, () -> world.tick, world, () -> completions.add(world.tick));
+
+		logic.start();
+		world.endTick();
+		logic.reset();
+		world.endTick();
+		logic.start();
+		for (int i = 0; i < 10; i++)
+			world.endTick();
+
+		// only second run completes: started on tick 2, 5 ticks of progress
+		Assert.assertEquals(Lists.newArrayList(7L), completions);
+	}
+
+	@Test
+	public void testWakeupNotDeferredByBudget() {
+		final ScheduledTaskQueue queue = new ScheduledTaskQueue();
+		final long[] tick = { 0 };
+		final List<Long> completions = Lists.newArrayList();
+		final WorkerLogic logic = new WorkerLogic(new SyncableInt(), 10, () -> tick[0], (delay, callback) -> queue.add(delay, Priority.HIGH, callback), () -> completions.add(tick[0]));
+
+		// with zero budget only first task in tick runs, unless it's high priority
+		for (int i = 0; i < 5; i++)
+			queue.add(10, Priority.HIGH, () -> {});
+		for (int i = 0; i < 50; i++)
+			queue.add(0, Priority.NORMAL, () -> {});
+
+		logic.start();
+		for (; tick[0] < 20; tick[0]++)
+			queue.tick(0);
+
+		Assert.assertEquals(Lists.newArrayList(10L), completions);
+	}
+}
@@ -0,0 +1,153 @@
+package openmods.geometry;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.RayTraceResult;
+import net.minecraft.util.math.Vec3d;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BoundingBoxIndexTest {
+
+	private static final int QUERY_COUNT = 500;
+
+	private static BoundingBoxMap<Integer> randomMap(Random random, int count) {
+		final BoundingBoxMap<Integer> result = BoundingBoxMap.create();
+		for (int i = 0; i < count; i++) {
+			final double x = random.nextDouble() * 16;
+			final double y = random.nextDouble() * 16;
+			final double z = random.nextDouble() * 16;
+			result.addBox(new AxisAlignedBB(x, y, z, x + random.nextDouble() * 4, y + random.nextDouble() * 4, z + random.nextDouble() * 4), i);
+		}
+		return result;
+	}
+
+	private static Vec3d randomPoint(Random random) {
+		return new Vec3d(random.nextDouble() * 20, random.nextDouble() * 20, random.nextDouble() * 20);
+	}
+
+	private static <T> Set<T> values(Iterable<Map.Entry<AxisAlignedBB, T>> entries) {
+		final Set<T> result = Sets.newHashSet();
+		for (Map.Entry<AxisAlignedBB, T> e : entries)
+			result.add(e.getValue());
+		return result;
+	}
+
+	private static void testPointQueries(int count) {
+		final Random random = new Random(count);
+		final BoundingBoxMap<Integer> map = randomMap(random, count);
+		final BoundingBoxIndex<Integer> index = map.buildIndex();
+		Assert.assertEquals(count, index.size());
+
+		for (int i = 0; i < QUERY_COUNT; i++) {
+			final Vec3d point = randomPoint(random);
+
+			Assert.assertEquals(map.findEntryContainingPoint(point), index.findEntryContainingPoint(point));
+
+			final List<Map.Entry<AxisAlignedBB, Integer>> expected = Lists.newArrayList();
+			map.findAllEntriesContainingPoint(point, expected);
+
+			final List<Map.Entry<AxisAlignedBB, Integer>> actual = Lists.newArrayList();
+			index.findAllEntriesContainingPoint(point, actual);
+			Assert.assertEquals(values(expected), values(actual));
+
+			final Set<Integer> visited = Sets.newHashSet();
+			Assert.assertTrue(index.visitEntriesContainingPoint(point.x, point.y, point.z, (box, value) -> visited.add(value)));
+			Assert.assertEquals(values(expected), visited);
+		}
+	}
+
+	@Test
+	public void testPointQueriesSmall() {
+		testPointQueries(10);
+	}
+
+	@Test
+	public void testPointQueriesLarge() {
+		testPointQueries(1000);
+	}
+
+	private static List<AxisAlignedBB> allBoxes(BoundingBoxIndex<?> index) {
+		final List<AxisAlignedBB> result = Lists.newArrayList();
+		index.visitEntriesIntersecting(new AxisAlignedBB(-100, -100, -100, 100, 100, 100), (box, value) -> result.add(box));
+		return result;
+	}
+
+	@Test
+	public void testBoxQueries() {
+		final Random random = new Random(0);
+		final BoundingBoxIndex<Integer> index = randomMap(random, 100).buildIndex();
+		final List<AxisAlignedBB> boxes = allBoxes(index);
+		Assert.assertEquals(100, boxes.size());
+
+		for (int i = 0; i < QUERY_COUNT; i++) {
+			final Vec3d corner = randomPoint(random);
+			final AxisAlignedBB query = new AxisAlignedBB(corner, corner.addVector(random.nextDouble() * 3, random.nextDouble() * 3, random.nextDouble() * 3));
+
+			final Set<AxisAlignedBB> expected = Sets.newHashSet();
+			for (AxisAlignedBB box : boxes)
+				if (box.intersects(query)) expected.add(box);
+
+			final Set<AxisAlignedBB> actual = Sets.newHashSet();
+			index.visitEntriesIntersecting(query, (box, value) -> actual.add(box));
+			Assert.assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	public void testRayQueries() {
+		final Random random = new Random(1);
+		final BoundingBoxIndex<Integer> index = randomMap(random, 100).buildIndex();
+		final List<AxisAlignedBB> boxes = allBoxes(index);
+
+		for (int i = 0; i < QUERY_COUNT; i++) {
+			// always start outside of any box, otherwise vanilla intercept finds exit point
+			final Vec3d start = new Vec3d(-5, random.nextDouble() * 20, random.nextDouble() * 20);
+			final Vec3d end = new Vec3d(25, random.nextDouble() * 20, random.nextDouble() * 20);
+
+			final Set<AxisAlignedBB> expected = Sets.newHashSet();
+			double expectedDistance = Double.POSITIVE_INFINITY;
+			for (AxisAlignedBB box : boxes) {
+				final RayTraceResult hit = box.calculateIntercept(start, end);
+				if (hit != null) {
+					expected.add(box);
+					expectedDistance = Math.min(expectedDistance, hit.hitVec.distanceTo(start));
+				}
+			}
+
+			final Set<AxisAlignedBB> actual = Sets.newHashSet();
+			index.visitEntriesOnRay(start, end, (box, value) -> actual.add(box));
+			Assert.assertEquals(expected, actual);
+
+			final Map.Entry<AxisAlignedBB, Integer> closest = index.findClosestEntryOnRay(start, end);
+			if (expected.isEmpty()) {
+				Assert.assertNull(closest);
+			} else {
+				final RayTraceResult hit = closest.getKey().calculateIntercept(start, end);
+				Assert.assertEquals(expectedDistance, hit.hitVec.distanceTo(start), 0.0001);
+			}
+		}
+	}
+
+	@Test
+	public void testVisitorStop() {
+		final BoundingBoxMap<Integer> map = BoundingBoxMap.create();
+		for (int i = 0; i < 20; i++)
+			map.addBox(new AxisAlignedBB(0, 0, 0, 1, 1, 1), i);
+
+		final BoundingBoxIndex<Integer> index = map.buildIndex();
+		final List<Integer> visited = Lists.newArrayList();
+		Assert.assertFalse(index.visitEntriesContainingPoint(0.5, 0.5, 0.5, (box, value) -> {
+			visited.add(value);
+			return visited.size() < 3;
+		}));
+		Assert.assertEquals(3, visited.size());
+
+		Assert.assertEquals(Integer.valueOf(0), index.findEntryContainingPoint(new Vec3d(0.5, 0.5, 0.5)).getValue());
+	}
+}
@@ -0,0 +1,126 @@
+package openmods.inventory;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GenericInventoryIndexTest {
+
+	static {
+		Bootstrap.register();
+	}
+
+	private static GenericInventory inv(boolean indexed, ItemStack... items) {
+		final GenericInventory inv = new GenericInventory("", false, items.length);
+		if (indexed) inv.enableItemIndex();
+		for (int i = 0; i < items.length; i++)
+			inv.setInventorySlotContents(i, items[i]);
+		return inv;
+	}
+
+	private static ItemStack tagged(ItemStack stack, int value) {
+		final NBTTagCompound tag = new NBTTagCompound();
+		tag.setInteger("test", value);
+		stack.setTagCompound(tag);
+		return stack;
+	}
+
+	private static void testQueries(boolean indexed) {
+		final GenericInventory inv = inv(indexed, Utils.itemA(5), ItemStack.EMPTY, Utils.itemB(64), tagged(Utils.itemA(3), 1), Utils.itemA(64), ItemStack.EMPTY);
+
+		Assert.assertTrue(inv.containsItem(Utils.itemA(1)));
+		Assert.assertFalse(inv.containsItem(Utils.itemC(1)));
+		Assert.assertFalse(inv.containsItem(ItemStack.EMPTY));
+
+		Assert.assertEquals(69, inv.countItems(Utils.itemA(1)));
+		Assert.assertEquals(3, inv.countItems(tagged(Utils.itemA(1), 1)));
+		Assert.assertEquals(0, inv.countItems(tagged(Utils.itemA(1), 2)));
+
+		Assert.assertEquals(0, inv.findFirstSlot(Utils.itemA(1)));
+		Assert.assertArrayEquals(new int[] { 0, 4 }, inv.findSlots(Utils.itemA(1)));
+		Assert.assertEquals(1, inv.findFirstEmptySlot());
+
+		Assert.assertEquals(0, inv.findInsertionSlot(Utils.itemA(1)));
+		Assert.assertEquals(1, inv.findInsertionSlot(Utils.itemB(1)));
+		Assert.assertEquals(3, inv.findInsertionSlot(tagged(Utils.itemA(1), 1)));
+
+		inv.decrStackSize(0, 5);
+		Assert.assertArrayEquals(new int[] { 4 }, inv.findSlots(Utils.itemA(1)));
+		Assert.assertEquals(0, inv.findFirstEmptySlot());
+		Assert.assertEquals(0, inv.findInsertionSlot(Utils.itemA(1)));
+
+		inv.setInventorySlotContents(5, Utils.itemC(1));
+		Assert.assertEquals(5, inv.findFirstSlot(Utils.itemC(1)));
+
+		inv.removeStackFromSlot(5);
+		Assert.assertEquals(-1, inv.findFirstSlot(Utils.itemC(1)));
+
+		inv.getStackInSlot(2).setCount(10);
+		inv.markDirty();
+		Assert.assertEquals(2, inv.findInsertionSlot(Utils.itemB(1)));
+	}
+
+	@Test
+	public void testLinearQueries() {
+		testQueries(false);
+	}
+
+	@Test
+	public void testIndexedQueries() {
+		testQueries(true);
+	}
+
+	@Test
+	public void testStaleEntryAfterInPlaceChange() {
+		final GenericInventory inv = inv(true, Utils.itemA(5), Utils.itemB(5));
+
+		Assert.assertEquals(0, inv.findFirstSlot(Utils.itemA(1)));
+		inv.getStackInSlot(0).setCount(0);
+		Assert.assertEquals(-1, inv.findFirstSlot(Utils.itemA(1)));
+	}
+
+	@Test
+	public void testHandlerLookup() {
+		final GenericInventory inv = inv(true, Utils.itemA(5), ItemStack.EMPTY, Utils.itemA(10));
+		final IItemLookup lookup = (IItemLookup)inv.getHandler();
+
+		Assert.assertEquals(15, lookup.countItems(Utils.itemA(1)));
+
+		inv.getHandler().insertItem(1, Utils.itemB(3), false);
+		Assert.assertEquals(1, lookup.findFirstSlot(Utils.itemB(1)));
+		Assert.assertEquals(-1, lookup.findFirstEmptySlot());
+	}
+
+	@Test
+	public void testHandlerTransfers() {
+		final GenericInventory inv = inv(true, Utils.itemA(5), Utils.itemB(5), Utils.itemA(10));
+		final IItemLookup lookup = (IItemLookup)inv.getHandler();
+
+		Assert.assertEquals(-1, lookup.findFirstEmptySlot());
+
+		Assert.assertEquals(5, inv.getHandler().extractItem(0, 64, false).getCount());
+		Assert.assertEquals(0, lookup.findFirstEmptySlot());
+		Assert.assertArrayEquals(new int[] { 2 }, lookup.findSlots(Utils.itemA(1)));
+
+		Assert.assertTrue(inv.getHandler().insertItem(0, Utils.itemC(2), false).isEmpty());
+		Assert.assertTrue(inv.getHandler().insertItem(1, Utils.itemB(3), false).isEmpty());
+		Assert.assertEquals(-1, lookup.findFirstEmptySlot());
+		Assert.assertEquals(0, lookup.findFirstSlot(Utils.itemC(1)));
+		Assert.assertEquals(8, lookup.countItems(Utils.itemB(1)));
+	}
+
+	@Test
+	public void testShrinkInPlace() {
+		final GenericInventory inv = inv(true, Utils.itemA(5), Utils.itemB(5), Utils.itemA(10));
+
+		Assert.assertEquals(-1, inv.findFirstEmptySlot());
+		Assert.assertEquals(0, inv.findInsertionSlot(Utils.itemA(1)));
+
+		inv.getStackInSlot(1).shrink(5);
+		inv.markDirty();
+		Assert.assertEquals(1, inv.findFirstEmptySlot());
+		Assert.assertEquals(1, inv.findInsertionSlot(Utils.itemB(1)));
+	}
+}
@@ -263,4 +263,58 @@ public class ItemMoverTest {
 		targetB.assertContents(Utils.itemB(7), Utils.itemA(64));
 	}
 
+	@Test
+	public void testBulkPullPrefersPartialSlots() {
+		final TestHandler source = inv(Utils.itemA(5), Utils.itemB(6));
+		final TestHandler target = inv(NULL_STACK, Utils.itemA(60), Utils.itemB(1));
+
+		Assert.assertEquals(11, ItemMover.pullAll(target, 64, single(source)));
+		source.assertContents(NULL_STACK, NULL_STACK);
+		target.assertContents(Utils.itemA(1), Utils.itemA(64), Utils.itemB(7));
+	}
+
+	@Test
+	public void testBulkPullLimit() {
+		final TestHandler sourceA = inv(Utils.itemA(5), Utils.itemB(6));
+		final TestHandler sourceB = inv(Utils.itemA(7));
+		final TestHandler target = inv(NULL_STACK, NULL_STACK);
+
+		Assert.assertEquals(14, ItemMover.pullAll(target, 14, multiple(sourceA, sourceB)));
+		sourceA.assertContents(NULL_STACK, NULL_STACK);
+		sourceB.assertContents(Utils.itemA(4));
+		target.assertContents(Utils.itemA(8), Utils.itemB(6));
+	}
+
+	@Test
+	public void testBulkPullFullTarget() {
+		final TestHandler source = inv(Utils.itemA(5));
+		final TestHandler target = inv(Utils.itemA(64), Utils.itemB(3));
+
+		Assert.assertEquals(0, ItemMover.pullAll(target, 64, single(source)));
+		source.assertContents(Utils.itemA(5));
+		target.assertContents(Utils.itemA(64), Utils.itemB(3));
+	}
+
+	@Test
+	public void testBulkPushMultipleInventories() {
+		final TestHandler source = inv(Utils.itemA(64), Utils.itemB(10));
+		final TestHandler targetA = inv(Utils.itemB(6), Utils.itemA(40));
+		final TestHandler targetB = inv(Utils.itemC(1), NULL_STACK);
+
+		Assert.assertEquals(74, ItemMover.pushAll(source, 128, multiple(targetA, targetB)));
+		source.assertContents(NULL_STACK, NULL_STACK);
+		targetA.assertContents(Utils.itemB(16), Utils.itemA(64));
+		targetB.assertContents(Utils.itemC(1), Utils.itemA(40));
+	}
+
+	@Test
+	public void testBulkPushSmallStackLimit() {
+		final TestHandler source = inv(Utils.itemC(2), Utils.itemC(2));
+		final TestHandler target = inv(Utils.itemC(1), NULL_STACK, NULL_STACK);
+
+		Assert.assertEquals(4, ItemMover.pushAll(source, 64, single(target)));
+		source.assertContents(NULL_STACK, NULL_STACK);
+		target.assertContents(Utils.itemC(2), Utils.itemC(2), Utils.itemC(1));
+	}
+
 }
@@ -0,0 +1,297 @@
+package openmods.liquids;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import java.util.EnumSet;
+import java.util.Map;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.fluids.FluidRegistry;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+public class GenericTankTest {
+
+	static {
+		Bootstrap.register();
+	}
+
+	private static final BlockPos ORIGIN = new BlockPos(0, 64, 0);
+
+	private final Map<BlockPos, TileEntity> tiles = Maps.newHashMap();
+
+	private World world;
+
+	@Before
+	public void setup() {
+		world = Mockito.mock(World.class);
+		Mockito.when(world.isBlockLoaded(Matchers.any(BlockPos.class))).thenReturn(true);
+		Mockito.when(world.getTileEntity(Matchers.any(BlockPos.class))).thenAnswer(invocation -> tiles.get(invocation.getArguments()[0]));
+	}
+
+	private TileEntity place(BlockPos pos, IFluidHandler handler) {
+		final TileEntity te = Mockito.mock(TileEntity.class);
+		Mockito.when(te.getCapability(Matchers.<Capability<IFluidHandler>> any(), Matchers.any(EnumFacing.class))).thenReturn(handler);
+		tiles.put(pos, te);
+		return te;
+	}
+
+	private static IFluidHandler acceptingHandler() {
+		final IFluidHandler handler = Mockito.mock(IFluidHandler.class);
+		Mockito.when(handler.fill(Matchers.any(FluidStack.class), Matchers.anyBoolean())).thenAnswer(invocation -> ((FluidStack)invocation.getArguments()[0]).amount);
+		return handler;
+	}
+
+	private static GenericTank tank(int capacity, int water) {
+		final GenericTank tank = new GenericTank(capacity);
+		if (water > 0) tank.setFluid(new FluidStack(FluidRegistry.WATER, water));
+		return tank;
+	}
+
+	private static void assertWater(int expected, GenericTank tank) {
+		Assert.assertEquals(expected, tank.getFluidAmount());
+	}
+
+	@Test
+	public void testHandlersAreCached() {
+		final IFluidHandler handler = acceptingHandler();
+		place(ORIGIN.east(), handler);
+
+		final GenericTank tank = tank(1000, 1000);
+		tank.updateNeighbours(world, ORIGIN);
+		Mockito.verify(world, Mockito.times(6)).getTileEntity(Matchers.any(BlockPos.class));
+
+		for (int i = 0; i < 3; i++)
+			tank.distributeToSides(100, world, ORIGIN, null);
+
+		Mockito.verify(world, Mockito.times(6)).getTileEntity(Matchers.any(BlockPos.class));
+		Mockito.verify(handler, Mockito.times(3)).fill(Matchers.any(FluidStack.class), Matchers.eq(true));
+		assertWater(700, tank);
+	}
+
+	@Test
+	public void testInvalidTileIsReplaced() {
+		final IFluidHandler oldHandler = acceptingHandler();
+		final TileEntity oldTile = place(ORIGIN.east(), oldHandler);
+
+		final GenericTank tank = tank(1000, 1000);
+		tank.updateNeighbours(world, ORIGIN);
+
+		Mockito.when(oldTile.isInvalid()).thenReturn(true);
+		final IFluidHandler newHandler = acceptingHandler();
+		place(ORIGIN.east(), newHandler);
+
+		tank.distributeToSides(100, world, ORIGIN, null);
+		Mockito.verify(oldHandler, Mockito.never()).fill(Matchers.any(FluidStack.class), Matchers.anyBoolean());
+		Mockito.verify(newHandler).fill(Matchers.any(FluidStack.class), Matchers.eq(true));
+		assertWater(900, tank);
+	}
+
+	@Test
+	public void testNeighbourChangeInvalidatesSide() {
+		final GenericTank tank = tank(1000, 1000);
+		tank.updateNeighbours(world, ORIGIN);
+
+		final IFluidHandler handler = acceptingHandler();
+		place(ORIGIN.up(), handler);
+
+		tank.distributeToSides(100, world, ORIGIN, null);
+		Mockito.verify(handler, Mockito.never()).fill(Matchers.any(FluidStack.class), Matchers.anyBoolean());
+		assertWater(1000, tank);
+
+		tank.onNeighbourChanged(ORIGIN, ORIGIN.up());
+		tank.distributeToSides(100, world, ORIGIN, null);
+		Mockito.verify(handler).fill(Matchers.any(FluidStack.class), Matchers.eq(true));
+		assertWater(900, tank);
+	}
+
+	@Test
+	public void testExcludedSidesAreIgnored() {
+		final IFluidHandler handler = acceptingHandler();
+		place(ORIGIN.down(), handler);
+
+		final GenericTank tank = tank(1000, 1000);
+		tank.updateNeighbours(world, ORIGIN, EnumSet.of(EnumFacing.DOWN));
+
+		tank.distributeToSides(100, world, ORIGIN, null);
+		Mockito.verify(handler, Mockito.never()).fill(Matchers.any(FluidStack.class), Matchers.anyBoolean());
+		assertWater(1000, tank);
+	}
+
+	@Test
+	public void testDistributionHonoursAllowedSides() {
+		final IFluidHandler east = acceptingHandler();
+		place(ORIGIN.east(), east);
+		final IFluidHandler west = acceptingHandler();
+		place(ORIGIN.west(), west);
+
+		final GenericTank tank = tank(1000, 1000);
+		tank.updateNeighbours(world, ORIGIN);
+
+		for (int i = 0; i < 10; i++)
+			tank.distributeToSides(10, world, ORIGIN, EnumSet.of(EnumFacing.EAST));
+
+		Mockito.verify(east, Mockito.times(10)).fill(Matchers.any(FluidStack.class), Matchers.eq(true));
+		Mockito.verify(west, Mockito.never()).fill(Matchers.any(FluidStack.class), Matchers.anyBoolean());
+		assertWater(900, tank);
+	}
+
+	@Test
+	public void testFillFromSidesUsesCachedHandler() {
+		final IFluidHandler source = Mockito.mock(IFluidHandler.class);
+		Mockito.when(source.getTankProperties()).thenReturn(tank(1000, 500).getTankProperties());
+		Mockito.when(source.drain(Matchers.anyInt(), Matchers.eq(true))).thenReturn(new FluidStack(FluidRegistry.WATER, 50));
+		place(ORIGIN.north(), source);
+
+		final GenericTank tank = tank(1000, 0);
+		tank.updateNeighbours(world, ORIGIN);
+		tank.fillFromSides(50, world, ORIGIN);
+		tank.fillFromSides(50, world, ORIGIN);
+
+		Mockito.verify(world, Mockito.times(6)).getTileEntity(Matchers.any(BlockPos.class));
+		assertWater(100, tank);
+	}
+
+	@Test
+	public void testBalanceProportionalToCapacity() {
+		final GenericTank a = tank(1000, 900);
+		final GenericTank b = tank(1000, 0);
+		final GenericTank c = tank(2000, 100);
+
+		GenericTank.balance(ImmutableList.of(a, b, c), new FluidStack(FluidRegistry.WATER, 0));
+		assertWater(250, a);
+		assertWater(250, b);
+		assertWater(500, c);
+	}
+
+	@Test
+	public void testBalanceConservesRemainder() {
+		final GenericTank a = tank(1000, 1000);
+		final GenericTank b = tank(1000, 0);
+		final GenericTank c = tank(1000, 0);
+
+		GenericTank.balance(ImmutableList.of(a, b, c), new FluidStack(FluidRegistry.WATER, 0));
+		assertWater(334, a);
+		assertWater(333, b);
+		assertWater(333, c);
+	}
+
+	@Test
+	public void testBalanceEmptiesTanks() {
+		final GenericTank a = tank(1000, 1);
+		final GenericTank b = tank(1000, 0);
+
+		GenericTank.balance(ImmutableList.of(a, b), new FluidStack(FluidRegistry.WATER, 0));
+		assertWater(1, a);
+		assertWater(0, b);
+		Assert.assertNull(b.getFluid());
+	}
+
+	@Test
+	public void testBalanceSkipsLockedTanks() {
+		final GenericTank drainLocked = tank(1000, 900);
+		drainLocked.setCanDrain(false);
+		final GenericTank a = tank(1000, 600);
+		final GenericTank fillLocked = tank(1000, 0);
+		fillLocked.setCanFill(false);
+		final GenericTank b = tank(1000, 0);
+
+		GenericTank.balance(ImmutableList.of(drainLocked, a, fillLocked, b), new FluidStack(FluidRegistry.WATER, 0));
+		assertWater(900, drainLocked);
+		assertWater(300, a);
+		Assert.assertNull(fillLocked.getFluid());
+		assertWater(300, b);
+	}
+
+	@Test
+	public void testBalanceNotifiesChangedTanks() {
+		final int[] changes = new int[2];
+		final GenericTank a = new GenericTank(1000) {
+			@Override
+			protected void onContentsChanged() {
+				changes[0]++;
+			}
+		};
+		a.setFluid(new FluidStack(FluidRegistry.WATER, 1000));
+
+		final GenericTank b = new GenericTank(1000) {
+			@Override
+			protected void onContentsChanged() {
+				changes[1]++;
+			}
+		};
+
+		GenericTank.balance(ImmutableList.of(a, b), new FluidStack(FluidRegistry.WATER, 0));
+		assertWater(500, a);
+		assertWater(500, b);
+		Assert.assertArrayEquals(new int[] { 1, 1 }, changes);
+	}
+
+	@Test
+	public void testNetworkBalancing() {
+		final GenericTank a = tank(1000, 900);
+		final GenericTank b = tank(1000, 0);
+		final GenericTank c = tank(1000, 0);
+		final GenericTank lava = new GenericTank(1000);
+		lava.setFluid(new FluidStack(FluidRegistry.LAVA, 600));
+		final GenericTank lavaOnly = new GenericTank(1000, FluidRegistry.LAVA);
+
+		// chain a - b - c, with incompatible tanks attached to a
+		place(ORIGIN, a);
+		place(ORIGIN.east(), b);
+		place(ORIGIN.east(2), c);
+		place(ORIGIN.west(), lava);
+		place(ORIGIN.up(), lavaOnly);
+
+		a.updateNeighbours(world, ORIGIN);
+		b.updateNeighbours(world, ORIGIN.east());
+		c.updateNeighbours(world, ORIGIN.east(2));
+
+		Mockito.when(world.getTotalWorldTime()).thenReturn(10L);
+		a.balanceNetwork(world);
+		assertWater(300, a);
+		assertWater(300, b);
+		assertWater(300, c);
+		Assert.assertEquals(600, lava.getFluidAmount());
+		Assert.assertNull(lavaOnly.getFluid());
+
+		// other members are already done in this tick
+		a.setFluid(new FluidStack(FluidRegistry.WATER, 600));
+		c.balanceNetwork(world);
+		assertWater(600, a);
+		assertWater(300, c);
+
+		Mockito.when(world.getTotalWorldTime()).thenReturn(11L);
+		c.balanceNetwork(world);
+		assertWater(400, a);
+		assertWater(400, b);
+		assertWater(400, c);
+	}
+
+	@Test
+	public void testEmptyTankDoesNotClaimTick() {
+		final GenericTank a = tank(1000, 0);
+		final GenericTank b = tank(1000, 800);
+		place(ORIGIN, a);
+		place(ORIGIN.east(), b);
+		a.updateNeighbours(world, ORIGIN);
+		b.updateNeighbours(world, ORIGIN.east());
+
+		Mockito.when(world.getTotalWorldTime()).thenReturn(5L);
+		a.balanceNetwork(world);
+		assertWater(0, a);
+
+		b.balanceNetwork(world);
+		assertWater(400, a);
+		assertWater(400, b);
+	}
+}
@@ -0,0 +1,137 @@
+package openmods.network;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import openmods.LibConfig;
+import openmods.network.NetworkMetrics.Category;
+import openmods.network.NetworkMetrics.Entry;
+import openmods.network.NetworkMetrics.Snapshot;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NetworkMetricsTest {
+
+	private static final String CHANNEL_A = "Test|A";
+	private static final String CHANNEL_B = "Test|B";
+
+	private static class EventA {}
+
+	private static class EventB {}
+
+	private interface RpcA {}
+
+	private NetworkMetrics metrics;
+
+	@Before
+	public void setup() {
+		metrics = new NetworkMetrics();
+		metrics.setEnabled(true);
+	}
+
+	@After
+	public void cleanup() {
+		LibConfig.networkMetrics = false;
+	}
+
+	private static void assertEntry(Entry entry, long packets, long bytes, long encodeNanos) {
+		Assert.assertNotNull(entry);
+		Assert.assertEquals(packets, entry.packets);
+		Assert.assertEquals(bytes, entry.bytes);
+		Assert.assertEquals(encodeNanos, entry.encodeNanos);
+	}
+
+	@Test
+	public void testCountsPerCategory() {
+		metrics.recordPacket(CHANNEL_A, Category.EVENT, EventA.class, 10, 100);
+		metrics.recordPacket(CHANNEL_A, Category.EVENT, EventA.class, 20, 200);
+		metrics.recordPacket(CHANNEL_A, Category.EVENT, EventB.class, 5, 50);
+		metrics.recordPacket(CHANNEL_B, Category.RPC, RpcA.class, 7, 70);
+
+		final Snapshot snapshot = metrics.snapshot();
+		assertEntry(snapshot.get(Category.CHANNEL, CHANNEL_A), 3, 35, 350);
+		assertEntry(snapshot.get(Category.CHANNEL, CHANNEL_B), 1, 7, 70);
+		assertEntry(snapshot.get(Category.EVENT, EventA.class.getName()), 2, 30, 300);
+		assertEntry(snapshot.get(Category.EVENT, EventB.class.getName()), 1, 5, 50);
+		assertEntry(snapshot.get(Category.RPC, RpcA.class.getName()), 1, 7, 70);
+		Assert.assertTrue(snapshot.get(Category.SYNC_OWNER).isEmpty());
+	}
+
+	@Test
+	public void testSyncOwnerCountedWithChannel() {
+		metrics.recordPacket(CHANNEL_A, Category.SYNC_OWNER, EventA.class, 12, 30);
+		metrics.recordPacket(CHANNEL_A, Category.SYNC_OWNER, EventA.class, 12, 30);
+		final Snapshot snapshot = metrics.snapshot();
+		assertEntry(snapshot.get(Category.SYNC_OWNER, EventA.class.getName()), 2, 24, 60);
+		assertEntry(snapshot.get(Category.CHANNEL, CHANNEL_A), 2, 24, 60);
+	}
+
+	@Test
+	public void testSortedByBytes() {
+		metrics.recordPacket(CHANNEL_A, Category.EVENT, EventA.class, 10, 0);
+		metrics.recordPacket(CHANNEL_B, Category.EVENT, EventB.class, 1000, 0);
+
+		final List<Entry> channels = metrics.snapshot().get(Category.CHANNEL);
+		Assert.assertEquals(2, channels.size());
+		Assert.assertEquals(CHANNEL_B, channels.get(0).key);
+		Assert.assertEquals(CHANNEL_A, channels.get(1).key);
+	}
+
+	@Test
+	public void testDisabled() {
+		metrics.setEnabled(false);
+		Assert.assertFalse(metrics.isEnabled());
+		metrics.recordPacket(CHANNEL_A, Category.EVENT, EventA.class, 10, 100);
+
+		final Snapshot snapshot = metrics.snapshot();
+		for (Category category : Category.values())
+			Assert.assertTrue(snapshot.get(category).isEmpty());
+	}
+
+	@Test
+	public void testSnapshotIsImmutableCopy() {
+		metrics.recordPacket(CHANNEL_A, Category.EVENT, EventA.class, 10, 100);
+		final Snapshot snapshot = metrics.snapshot();
+		metrics.recordPacket(CHANNEL_A, Category.EVENT, EventA.class, 10, 100);
+		assertEntry(snapshot.get(Category.CHANNEL, CHANNEL_A), 1, 10, 100);
+
+		metrics.reset();
+		Assert.assertTrue(metrics.snapshot().get(Category.CHANNEL).isEmpty());
+		assertEntry(snapshot.get(Category.CHANNEL, CHANNEL_A), 1, 10, 100);
+	}
+
+	@Test
+	public void testConcurrentRecording() throws InterruptedException {
+		final int threadCount = 8;
+		final int packetsPerThread = 10000;
+		final CountDownLatch start = new CountDownLatch(1);
+
+		final List<Thread> threads = Lists.newArrayList();
+		for (int i = 0; i < threadCount; i++) {
+			final Class<?> source = (i % 2 == 0)? EventA.class : EventB.class;
+			final Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+				for (int p = 0; p < packetsPerThread; p++)
+					metrics.recordPacket(CHANNEL_A, Category.EVENT, source, 3, 1);
+			});
+			thread.start();
+			threads.add(thread);
+		}
+
+		start.countDown();
+		for (Thread thread : threads)
+			thread.join();
+
+		final Snapshot snapshot = metrics.snapshot();
+		final long total = threadCount * packetsPerThread;
+		assertEntry(snapshot.get(Category.CHANNEL, CHANNEL_A), total, 3 * total, total);
+		assertEntry(snapshot.get(Category.EVENT, EventA.class.getName()), total / 2, 3 * total / 2, total / 2);
+		assertEntry(snapshot.get(Category.EVENT, EventB.class.getName()), total / 2, 3 * total / 2, total / 2);
+	}
+}
@@ -0,0 +1,98 @@
+package openmods.physics;
+
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArrayClothTest {
+
+	private static final int STEPS = 100;
+
+	private static void assertSameState(Cloth expected, ArrayCloth actual) {
+		Assert.assertEquals(expected.points.length, actual.numY);
+		for (int i = 0; i < actual.numY; i++) {
+			Assert.assertEquals(expected.points[i].length, actual.numX);
+			for (int j = 0; j < actual.numX; j++) {
+				final FastVector point = expected.points[i][j].getCurrent();
+				final int index = actual.index(i, j);
+				Assert.assertEquals(point.x, actual.getX(index), 0);
+				Assert.assertEquals(point.y, actual.getY(index), 0);
+				Assert.assertEquals(point.z, actual.getZ(index), 0);
+			}
+		}
+	}
+
+	private static void testSameAsCloth(int density, double width, double height) {
+		final Cloth expected = new Cloth(density, width, height);
+		final ArrayCloth actual = new ArrayCloth(density, width, height);
+		assertSameState(expected, actual);
+
+		for (int step = 0; step < STEPS; step++) {
+			expected.update();
+			actual.update();
+			assertSameState(expected, actual);
+		}
+	}
+
+	@Test
+	public void testSameAsClothSquare() {
+		testSameAsCloth(10, 1, 1);
+	}
+
+	@Test
+	public void testSameAsClothWide() {
+		testSameAsCloth(25, 2, 1);
+	}
+
+	@Test
+	public void testSameAsClothTall() {
+		testSameAsCloth(16, 1, 3);
+	}
+
+	@Test
+	public void testClosestPoint() {
+		final Cloth expected = new Cloth(20, 1, 1);
+		final ArrayCloth actual = new ArrayCloth(20, 1, 1);
+		for (int step = 0; step < 10; step++) {
+			expected.update();
+			actual.update();
+		}
+
+		final Random random = new Random(0);
+		for (int i = 0; i < 1000; i++) {
+			final double x = random.nextDouble() * 1.5 - 0.25;
+			final double y = random.nextDouble() * 1.5 - 0.25;
+			final double z = random.nextDouble() - 0.5;
+
+			final Point expectedPoint = expected.getClosestPoint(new FastVector(x, y, z));
+			final int actualPoint = actual.getClosestPoint(x, y, z);
+
+			if (expectedPoint == null) {
+				Assert.assertEquals(-1, actualPoint);
+			} else {
+				Assert.assertEquals(expectedPoint.getCurrent().x, actual.getX(actualPoint), 0);
+				Assert.assertEquals(expectedPoint.getCurrent().y, actual.getY(actualPoint), 0);
+				Assert.assertEquals(expectedPoint.getCurrent().z, actual.getZ(actualPoint), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testParallelPartitionsSameAsSequential() {
+		final ArrayCloth sequential = new ArrayCloth(50, 1, 1);
+		sequential.setPartitioned(true);
+		final ArrayCloth parallel = new ArrayCloth(50, 1, 1);
+		parallel.setPartitioned(true);
+
+		for (int step = 0; step < STEPS; step++) {
+			sequential.update(false);
+			parallel.update(true);
+		}
+
+		for (int p = 0; p < sequential.getPointCount(); p++) {
+			Assert.assertEquals(sequential.getX(p), parallel.getX(p), 0);
+			Assert.assertEquals(sequential.getY(p), parallel.getY(p), 0);
+			Assert.assertEquals(sequential.getZ(p), parallel.getZ(p), 0);
+		}
+	}
+}
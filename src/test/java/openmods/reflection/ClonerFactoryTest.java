@@ -1,6 +1,11 @@
 package openmods.reflection;
 
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import openmods.reflection.ClonerFactory.ICloner;
+import openmods.utils.ConcurrentAccess;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -142,4 +147,49 @@ public class ClonerFactoryTest {
 		Assert.assertEquals(4, to.a);
 	}
 
+	@Test
+	public void concurrentFirstAccessTest() throws Exception {
+		final ClonerFactory factory = new ClonerFactory();
+		final List<ICloner<A>> cloners = ConcurrentAccess.run(() -> factory.getCloner(A.class));
+
+		final ICloner<A> first = cloners.get(0);
+		for (ICloner<A> cloner : cloners)
+			Assert.assertSame(first, cloner);
+
+		A from = new A();
+		from.a = 5;
+		A to = new A();
+		first.clone(from, to);
+		Assert.assertEquals(5, to.a);
+	}
+
+	private static class IsolatingClassLoader extends ClassLoader {
+		private IsolatingClassLoader() {
+			super(IsolatingClassLoader.class.getClassLoader());
+		}
+
+		public Class<?> defineCopy(Class<?> cls) throws IOException {
+			final String resource = cls.getName().replace('.', '/') + ".class";
+			try (InputStream is = getParent().getResourceAsStream(resource)) {
+				final byte[] data = ByteStreams.toByteArray(is);
+				return defineClass(cls.getName(), data, 0, data.length);
+			}
+		}
+	}
+
+	@Test
+	public void sameNameFromOtherLoaderTest() throws Exception {
+		final ClonerFactory factory = new ClonerFactory();
+		factory.getCloner(A.class);
+
+		final Class<?> otherA = new IsolatingClassLoader().defineCopy(A.class);
+		Assert.assertNotSame(A.class, otherA);
+
+		try {
+			factory.getCloner(otherA);
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			// expected, existing cloner is for A.class
+		}
+	}
 }
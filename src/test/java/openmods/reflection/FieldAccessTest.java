@@ -0,0 +1,144 @@
+package openmods.reflection;
+
+import java.util.function.Supplier;
+import openmods.reflection.FieldAccess.FieldAccessException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FieldAccessTest {
+
+	public static class Target {
+		public int intField = 5;
+
+		private double doubleField = 1.5;
+
+		public String stringField = "hello";
+
+		public final long finalField = 7;
+
+		private static char staticField = 'a';
+	}
+
+	private static <T> FieldAccess<T> create(String name) {
+		final FieldAccess<T> result = FieldAccess.create(Target.class, name);
+		Assert.assertTrue(result.usesMethodHandles());
+		return result;
+	}
+
+	private static Object reflectiveGet(String name, Object target) {
+		try {
+			return ReflectionHelper.getField(Target.class, name).get(target);
+		} catch (Throwable t) {
+			return t;
+		}
+	}
+
+	private static Object reflectiveSet(String name, Object target, Object value) {
+		try {
+			ReflectionHelper.getField(Target.class, name).set(target, value);
+			return null;
+		} catch (Throwable t) {
+			return t;
+		}
+	}
+
+	private static Object capture(Supplier<Object> call) {
+		try {
+			return call.get();
+		} catch (FieldAccessException e) {
+			return e.getCause();
+		}
+	}
+
+	private static void assertParity(Object expected, Object actual) {
+		if (expected instanceof Throwable) {
+			Assert.assertTrue("Expected exception " + expected + ", got " + actual, actual instanceof Throwable);
+			Assert.assertEquals(expected.getClass(), actual.getClass());
+			Assert.assertEquals(((Throwable)expected).getMessage(), ((Throwable)actual).getMessage());
+		} else {
+			Assert.assertEquals(expected, actual);
+		}
+	}
+
+	private static <T> void assertGetParity(String name, Object target) {
+		final FieldAccess<T> access = create(name);
+		assertParity(reflectiveGet(name, target), capture(() -> access.get(target)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void assertSetParity(String name, Object value) {
+		final Target expectedTarget = new Target();
+		final Object expected = reflectiveSet(name, expectedTarget, value);
+
+		final Target actualTarget = new Target();
+		final FieldAccess<Object> access = create(name);
+		final Object actual = capture(() -> {
+			access.set(actualTarget, value);
+			return null;
+		});
+
+		assertParity(expected, actual);
+		assertParity(reflectiveGet(name, expectedTarget), reflectiveGet(name, actualTarget));
+	}
+
+	@Test
+	public void testGet() {
+		final Target target = new Target();
+		target.intField = 42;
+		target.doubleField = 2.5;
+		target.stringField = null;
+
+		assertGetParity("intField", target);
+		assertGetParity("doubleField", target);
+		assertGetParity("stringField", target);
+		assertGetParity("finalField", target);
+		assertGetParity("staticField", target);
+		assertGetParity("staticField", null);
+
+		Assert.assertEquals(Integer.valueOf(42), FieldAccess.create(Target.class, "intField").get(target));
+	}
+
+	@Test
+	public void testInvalidTarget() {
+		assertGetParity("intField", null);
+		assertGetParity("intField", "hello");
+
+		assertParity(reflectiveSet("intField", null, 3), capture(() -> {
+			FieldAccess.<Integer> create(Target.class, "intField").set(null, 3);
+			return null;
+		}));
+	}
+
+	@Test
+	public void testSet() {
+		assertSetParity("intField", 12);
+		assertSetParity("doubleField", 4.5);
+		assertSetParity("stringField", "world");
+		assertSetParity("stringField", null);
+	}
+
+	@Test
+	public void testSetStatic() {
+		final FieldAccess<Character> access = create("staticField");
+		access.set(null, 'z');
+		Assert.assertEquals(Character.valueOf('z'), access.get(new Target()));
+		access.set(new Target(), 'a');
+		Assert.assertEquals(Character.valueOf('a'), reflectiveGet("staticField", null));
+	}
+
+	@Test
+	public void testSetConversions() {
+		// widening
+		assertSetParity("doubleField", 3);
+		assertSetParity("intField", (short)3);
+		// invalid values
+		assertSetParity("intField", null);
+		assertSetParity("intField", 3L);
+		assertSetParity("stringField", 5);
+	}
+
+	@Test
+	public void testSetFinal() {
+		assertSetParity("finalField", 8L);
+	}
+}
@@ -0,0 +1,203 @@
+package openmods.reflection;
+
+import com.google.common.base.Joiner;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+import openmods.reflection.MethodAccess.Backend;
+import openmods.reflection.MethodAccess.Function0;
+import openmods.reflection.MethodAccess.Function1;
+import openmods.reflection.MethodAccess.Function2;
+import openmods.reflection.MethodAccess.Function3;
+import openmods.reflection.MethodAccess.Function5;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MethodAccessTest {
+
+	public static class Target {
+		public int counter;
+
+		public int add(int a, int b) {
+			return a + b;
+		}
+
+		public long twice(long value) {
+			return value * 2;
+		}
+
+		public String primitives(boolean z, byte b, char c, short s, float f) {
+			return z + ":" + b + ":" + c + ":" + s + ":" + f;
+		}
+
+		public String join(String separator, String... parts) {
+			return Joiner.on(separator).join(parts);
+		}
+
+		public String fail(String message) {
+			throw new IllegalStateException(message);
+		}
+
+		public void increment(int amount) {
+			counter += amount;
+		}
+
+		private int secret() {
+			return 42;
+		}
+
+		private static double mix(int i, long l, double d) {
+			return i + l * d;
+		}
+
+		private static int sum(int... values) {
+			int result = 0;
+			for (int v : values)
+				result += v;
+			return result;
+		}
+
+		private static Object failChecked() throws IOException {
+			throw new IOException("checked");
+		}
+	}
+
+	private static Object invokeReflective(Class<?> cls, String name, Class<?>[] params, Object target, Object... args) {
+		try {
+			final Method method = cls.getDeclaredMethod(name, params);
+			method.setAccessible(true);
+			return method.invoke(target, args);
+		} catch (ReflectiveOperationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static Object invokeReflective(String name, Class<?>[] params, Object target, Object... args) {
+		return invokeReflective(Target.class, name, params, target, args);
+	}
+
+	private static Object capture(Supplier<Object> call) {
+		try {
+			return call.get();
+		} catch (Throwable t) {
+			return t;
+		}
+	}
+
+	private static void assertSameThrowable(Throwable expected, Throwable actual) {
+		while (expected != null) {
+			Assert.assertNotNull(actual);
+			Assert.assertEquals(expected.getClass(), actual.getClass());
+			Assert.assertEquals(expected.getMessage(), actual.getMessage());
+			expected = expected.getCause();
+			actual = actual.getCause();
+		}
+		Assert.assertNull(actual);
+	}
+
+	private static void assertParity(Supplier<Object> reflective, Supplier<Object> accessor) {
+		final Object expected = capture(reflective);
+		final Object actual = capture(accessor);
+
+		if (expected instanceof Throwable) {
+			Assert.assertTrue("Expected exception " + expected + ", got " + actual, actual instanceof Throwable);
+			assertSameThrowable((Throwable)expected, (Throwable)actual);
+		} else {
+			Assert.assertEquals(expected, actual);
+		}
+	}
+
+	private static Class<?>[] params(Class<?>... cls) {
+		return cls;
+	}
+
+	@Test
+	public void testPrimitiveArgs() {
+		final Function2<Integer, Integer, Integer> add = MethodAccess.create(int.class, Target.class, int.class, int.class, "add");
+		Assert.assertEquals(Backend.LAMBDA, MethodAccess.getBackend(add));
+
+		final Target target = new Target();
+		assertParity(() -> invokeReflective("add", params(int.class, int.class), target, 3, 4), () -> add.call(target, 3, 4));
+		Assert.assertEquals(Integer.valueOf(7), add.call(target, 3, 4));
+
+		final Function5<String, Boolean, Byte, Character, Short, Float> primitives = MethodAccess.create(String.class, Target.class, boolean.class, byte.class, char.class, short.class, float.class, "primitives");
+		Assert.assertEquals(Backend.LAMBDA, MethodAccess.getBackend(primitives));
+		assertParity(() -> invokeReflective("primitives", params(boolean.class, byte.class, char.class, short.class, float.class), target, true, (byte)-3, 'x', (short)1000, 2.5f),
+				() -> primitives.call(target, true, (byte)-3, 'x', (short)1000, 2.5f));
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void testPrimitiveConversions() {
+		final Function1 twice = MethodAccess.create(long.class, Target.class, long.class, "twice");
+		final Target target = new Target();
+
+		// widening is only supported by reflection, so it must still work
+		assertParity(() -> invokeReflective("twice", params(long.class), target, 5), () -> twice.call(target, 5));
+		Assert.assertEquals(Long.valueOf(10), twice.call(target, 5));
+
+		assertParity(() -> invokeReflective("twice", params(long.class), target, (Object)null), () -> twice.call(target, null));
+		assertParity(() -> invokeReflective("twice", params(long.class), target, "5"), () -> twice.call(target, "5"));
+	}
+
+	@Test
+	public void testInvalidTarget() {
+		final Function2<Integer, Integer, Integer> add = MethodAccess.create(int.class, Target.class, int.class, int.class, "add");
+		assertParity(() -> invokeReflective("add", params(int.class, int.class), null, 1, 2), () -> add.call(null, 1, 2));
+		assertParity(() -> invokeReflective("add", params(int.class, int.class), "hello", 1, 2), () -> add.call("hello", 1, 2));
+	}
+
+	@Test
+	public void testNonPublicAndStatic() {
+		final Target target = new Target();
+
+		final Function0<Integer> secret = MethodAccess.create(int.class, Target.class, "secret");
+		Assert.assertEquals(Backend.METHOD_HANDLE, MethodAccess.getBackend(secret));
+		assertParity(() -> invokeReflective("secret", params(), target), () -> secret.call(target));
+
+		final Function3<Double, Integer, Long, Double> mix = MethodAccess.create(double.class, Target.class, int.class, long.class, double.class, "mix");
+		Assert.assertEquals(Backend.METHOD_HANDLE, MethodAccess.getBackend(mix));
+		assertParity(() -> invokeReflective("mix", params(int.class, long.class, double.class), null, 1, 2L, 0.5), () -> mix.call(null, 1, 2L, 0.5));
+		assertParity(() -> invokeReflective("mix", params(int.class, long.class, double.class), target, 1, 2L, 0.5), () -> mix.call(target, 1, 2L, 0.5));
+	}
+
+	@Test
+	public void testVoid() {
+		final Function1<Void, Integer> increment = MethodAccess.create(void.class, Target.class, int.class, "increment");
+		Assert.assertEquals(Backend.METHOD_HANDLE, MethodAccess.getBackend(increment));
+
+		final Target target = new Target();
+		assertParity(() -> invokeReflective("increment", params(int.class), target, 3), () -> increment.call(target, 3));
+		Assert.assertEquals(6, target.counter);
+	}
+
+	@Test
+	public void testVarargs() {
+		final Target target = new Target();
+
+		final Function2<String, String, String[]> join = MethodAccess.create(String.class, Target.class, String.class, String[].class, "join");
+		Assert.assertEquals(Backend.LAMBDA, MethodAccess.getBackend(join));
+		assertParity(() -> invokeReflective("join", params(String.class, String[].class), target, ",", new String[] { "a", "b", "c" }),
+				() -> join.call(target, ",", new String[] { "a", "b", "c" }));
+		Assert.assertEquals("a,b,c", join.call(target, ",", new String[] { "a", "b", "c" }));
+		assertParity(() -> invokeReflective("join", params(String.class, String[].class), target, ",", null), () -> join.call(target, ",", null));
+
+		final Function1<Integer, int[]> sum = MethodAccess.create(int.class, Target.class, int[].class, "sum");
+		Assert.assertEquals(Backend.METHOD_HANDLE, MethodAccess.getBackend(sum));
+		assertParity(() -> invokeReflective("sum", params(int[].class), null, new int[] { 1, 2, 3 }), () -> sum.call(null, new int[] { 1, 2, 3 }));
+		assertParity(() -> invokeReflective("sum", params(int[].class), null, new int[0]), () -> sum.call(null, new int[0]));
+	}
+
+	@Test
+	public void testExceptions() {
+		final Target target = new Target();
+
+		final Function1<String, String> fail = MethodAccess.create(String.class, Target.class, String.class, "fail");
+		Assert.assertEquals(Backend.LAMBDA, MethodAccess.getBackend(fail));
+		assertParity(() -> invokeReflective("fail", params(String.class), target, "boom"), () -> fail.call(target, "boom"));
+
+		final Function0<Object> failChecked = MethodAccess.create(Object.class, Target.class, "failChecked");
+		Assert.assertEquals(Backend.METHOD_HANDLE, MethodAccess.getBackend(failChecked));
+		assertParity(() -> invokeReflective("failChecked", params(), null), () -> failChecked.call(null));
+	}
+}
@@ -0,0 +1,133 @@
+package openmods.renderer;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.Random;
+import openmods.renderer.MaxRectsPacker.Rect;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MaxRectsPackerTest {
+
+	private static void assertValid(MaxRectsPacker packer, List<Rect> rects) {
+		long area = 0;
+		for (int i = 0; i < rects.size(); i++) {
+			final Rect a = rects.get(i);
+			Assert.assertTrue("Out of bounds: " + a, a.x >= 0 && a.y >= 0 && a.maxX() <= packer.getWidth() && a.maxY() <= packer.getHeight());
+			area += a.area();
+
+			for (int j = i + 1; j < rects.size(); j++) {
+				final Rect b = rects.get(j);
+				Assert.assertFalse(a + " overlaps " + b, a.intersects(b));
+			}
+		}
+
+		Assert.assertEquals(area, packer.getUsedArea());
+	}
+
+	private static List<Rect> fill(MaxRectsPacker packer, Random random, int minSize, int maxSize) {
+		final List<Rect> result = Lists.newArrayList();
+		int failures = 0;
+		while (failures < 20) {
+			final int w = minSize + random.nextInt(maxSize - minSize + 1);
+			final int h = minSize + random.nextInt(maxSize - minSize + 1);
+			final Rect rect = packer.insert(w, h);
+			if (rect == null) {
+				failures++;
+			} else {
+				Assert.assertEquals(w, rect.width);
+				Assert.assertEquals(h, rect.height);
+				result.add(rect);
+			}
+		}
+		return result;
+	}
+
+	@Test
+	public void testEqualSquaresFillCompletely() {
+		final MaxRectsPacker packer = new MaxRectsPacker(256, 128);
+		final List<Rect> rects = Lists.newArrayList();
+		for (int i = 0; i < 32; i++) {
+			final Rect rect = packer.insert(32, 32);
+			Assert.assertNotNull(rect);
+			rects.add(rect);
+		}
+
+		Assert.assertNull(packer.insert(32, 32));
+		Assert.assertNull(packer.insert(1, 1));
+		assertValid(packer, rects);
+		Assert.assertEquals(1.0f, packer.getOccupancy(), 0);
+	}
+
+	@Test
+	public void testMixedSizesOccupancy() {
+		final Random random = new Random(0);
+		for (int i = 0; i < 10; i++) {
+			final MaxRectsPacker packer = new MaxRectsPacker(512, 512);
+			final List<Rect> rects = fill(packer, random, 8, 64);
+			assertValid(packer, rects);
+			Assert.assertTrue("Occupancy: " + packer.getOccupancy(), packer.getOccupancy() > 0.85f);
+		}
+	}
+
+	@Test
+	public void testPowerOfTwoSizesOccupancy() {
+		final Random random = new Random(1);
+		final MaxRectsPacker packer = new MaxRectsPacker(1024, 1024);
+		final List<Rect> rects = Lists.newArrayList();
+		for (int i = 0; i < 200; i++) {
+			final int size = 16 << random.nextInt(3);
+			final Rect rect = packer.insert(size, size);
+			Assert.assertNotNull(rect);
+			rects.add(rect);
+		}
+		assertValid(packer, rects);
+	}
+
+	@Test
+	public void testTooLarge() {
+		final MaxRectsPacker packer = new MaxRectsPacker(64, 32);
+		Assert.assertNull(packer.insert(65, 1));
+		Assert.assertNull(packer.insert(1, 33));
+		Assert.assertNotNull(packer.insert(64, 32));
+	}
+
+	@Test
+	public void testGrowKeepsPlacementsAndAddsSpace() {
+		final Random random = new Random(2);
+		final MaxRectsPacker packer = new MaxRectsPacker(128, 128);
+		final List<Rect> rects = fill(packer, random, 8, 48);
+		assertValid(packer, rects);
+
+		packer.grow(256, 128);
+		final Rect wide = packer.insert(128, 128);
+		Assert.assertNotNull(wide);
+		rects.add(wide);
+
+		packer.grow(256, 256);
+		rects.addAll(fill(packer, random, 8, 48));
+		assertValid(packer, rects);
+		Assert.assertTrue("Occupancy: " + packer.getOccupancy(), packer.getOccupancy() > 0.85f);
+	}
+
+	@Test
+	public void testGrowExtendsBorderSpace() {
+		final MaxRectsPacker packer = new MaxRectsPacker(64, 64);
+		Assert.assertNotNull(packer.insert(32, 64));
+		packer.grow(128, 64);
+		// free space from old bin joined with new one
+		final Rect rect = packer.insert(96, 64);
+		Assert.assertNotNull(rect);
+		Assert.assertEquals(32, rect.x);
+	}
+
+	@Test
+	public void testClear() {
+		final MaxRectsPacker packer = new MaxRectsPacker(64, 64);
+		Assert.assertNotNull(packer.insert(64, 64));
+		Assert.assertNull(packer.insert(1, 1));
+		packer.clear();
+		Assert.assertEquals(0, packer.getUsedArea());
+		Assert.assertNotNull(packer.insert(64, 64));
+	}
+}
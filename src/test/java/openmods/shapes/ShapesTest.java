@@ -2,8 +2,14 @@ package openmods.shapes;
 
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
+import com.google.common.collect.Sets;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.Set;
 import openmods.utils.Coord;
+import openmods.utils.render.GeometryUtils.Octant;
+import openmods.utils.render.GeometryUtils.Quadrant;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -109,4 +115,101 @@ public class ShapesTest {
 		checkBasicBehaviour(generator);
 	}
 
+	private static long sectionKey(int x, int y, int z) {
+		// same order as ShapeStream: chunk x, chunk z, section y
+		return ((long)((x >> 4) + 0x1000) << 32) | ((long)((z >> 4) + 0x1000) << 16) | ((y >> 4) + 0x1000);
+	}
+
+	public static Set<Coord> stream(ShapeStream stream, int budget) {
+		final Set<Coord> result = Sets.newHashSet();
+		final long[] lastSection = { Long.MIN_VALUE };
+
+		boolean hasMore = true;
+		while (hasMore) {
+			final int[] emitted = { 0 };
+			hasMore = stream.advance(budget, (minX, maxX, y, z) -> {
+				Assert.assertTrue(minX <= maxX);
+				Assert.assertEquals("Span crosses chunk boundary", minX >> 4, maxX >> 4);
+
+				final long section = sectionKey(minX, y, z);
+				Assert.assertTrue("Sections out of order", section >= lastSection[0]);
+				lastSection[0] = section;
+
+				for (int x = minX; x <= maxX; x++)
+					Assert.assertTrue("Duplicate block", result.add(new Coord(x, y, z)));
+
+				emitted[0] += maxX - minX + 1;
+			});
+
+			Assert.assertTrue(emitted[0] <= budget);
+		}
+
+		Assert.assertTrue(stream.isFinished());
+		Assert.assertEquals(result.size(), stream.getEmittedBlocks());
+		return result;
+	}
+
+	public static void checkStreamEquivalence(IShapeGenerator generator, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+		final Set<Coord> expected = generate(generator, minX, minY, minZ, maxX, maxY, maxZ).elementSet();
+
+		Assert.assertEquals(expected, stream(ShapeStream.create(generator, minX, minY, minZ, maxX, maxY, maxZ), Integer.MAX_VALUE));
+		Assert.assertEquals(expected, stream(ShapeStream.create(generator, minX, minY, minZ, maxX, maxY, maxZ), 7));
+
+		if (generator instanceof IStreamingShapeGenerator) {
+			final Set<Coord> solid = stream(ShapeStream.create((IStreamingShapeGenerator)generator, minX, minY, minZ, maxX, maxY, maxZ, false), 100);
+			Assert.assertTrue(solid.containsAll(expected));
+		}
+	}
+
+	public static void checkStreamEquivalence(IShapeGenerator generator) {
+		checkStreamEquivalence(generator, 0, 0, 0, 0, 0, 0);
+		checkStreamEquivalence(generator, -5, -5, -5, 5, 5, 5);
+		checkStreamEquivalence(generator, 1, 1, 1, 4, 4, 4);
+		checkStreamEquivalence(generator, -3, 0, -8, 0, 1, -6);
+
+		// multiple chunk sections
+		checkStreamEquivalence(generator, -20, 10, 5, 17, 40, 31);
+
+		final Random random = new Random(generator.getClass().getName().hashCode());
+		for (int i = 0; i < 50; i++) {
+			final int minX = random.nextInt(64) - 32;
+			final int minY = random.nextInt(64) - 32;
+			final int minZ = random.nextInt(64) - 32;
+			checkStreamEquivalence(generator, minX, minY, minZ, minX + random.nextInt(24), minY + random.nextInt(24), minZ + random.nextInt(24));
+		}
+	}
+
+	@Test
+	public void testEllipsoidStream() {
+		checkStreamEquivalence(new ShapeSphereGenerator());
+		checkStreamEquivalence(new ShapeSphereGenerator(Octant.TOP));
+		checkStreamEquivalence(new ShapeSphereGenerator(EnumSet.of(Octant.TopNorthEast, Octant.BottomSouthWest)));
+	}
+
+	@Test
+	public void testCylinderStream() {
+		checkStreamEquivalence(new ShapeCylinderGenerator());
+		checkStreamEquivalence(new ShapeCylinderGenerator(EnumSet.of(Quadrant.TopNorthEast)));
+		checkStreamEquivalence(new ShapeCylinderGenerator(EnumSet.of(Quadrant.TopNorthWest, Quadrant.TopSouthEast)));
+	}
+
+	@Test
+	public void testCuboidStream() {
+		checkStreamEquivalence(new ShapeCuboidGenerator());
+		checkStreamEquivalence(new ShapeCuboidGenerator(ShapeCuboidGenerator.Elements.EDGES));
+		checkStreamEquivalence(new ShapeCuboidGenerator(ShapeCuboidGenerator.Elements.CORNERS));
+	}
+
+	@Test
+	public void testGenericStream() {
+		checkStreamEquivalence(new ShapeAxesGenerator());
+		checkStreamEquivalence(new ShapePlanesGenerator());
+	}
+
+	@Test
+	public void testSolidCuboid() {
+		final Set<Coord> solid = stream(ShapeStream.create(new ShapeCuboidGenerator(), -2, 0, 5, 20, 3, 6, false), 10);
+		Assert.assertEquals(23 * 4 * 2, solid.size());
+	}
+
 }
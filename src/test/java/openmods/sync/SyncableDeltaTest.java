@@ -0,0 +1,226 @@
+package openmods.sync;
+
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fluids.FluidRegistry;
+import net.minecraftforge.fluids.FluidStack;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SyncableDeltaTest {
+
+	static {
+		Bootstrap.register();
+	}
+
+	private static PacketBuffer writeFull(ISyncableObject obj) throws IOException {
+		final PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+		obj.writeToStream(buf);
+		return buf;
+	}
+
+	private static PacketBuffer writeDelta(ISyncableDeltaObject obj) throws IOException {
+		final PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+		obj.writeDeltaToStream(buf);
+		return buf;
+	}
+
+	private static void read(ISyncableObject obj, PacketBuffer buf) throws IOException {
+		obj.readFromStream(buf);
+		Assert.assertEquals(0, buf.readableBytes());
+	}
+
+	private static ItemStack createSword(int damage, String name) {
+		final ItemStack result = new ItemStack(Items.DIAMOND_SWORD, 1, damage);
+		result.setStackDisplayName(name);
+		final NBTTagCompound tag = result.getTagCompound();
+		for (int i = 0; i < 20; i++)
+			tag.setString("padding" + i, "some long value that should not be resent");
+		return result;
+	}
+
+	private static void assertStacksEqual(ItemStack expected, ItemStack actual) {
+		Assert.assertTrue(ItemStack.areItemStacksEqual(expected, actual));
+	}
+
+	@Test
+	public void testItemCountDelta() throws IOException {
+		final SyncableItemStack server = new SyncableItemStack();
+		final SyncableItemStack client = new SyncableItemStack();
+
+		server.set(new ItemStack(Items.APPLE, 5));
+		final int fullSize = writeFull(server).readableBytes();
+		read(client, writeDelta(server));
+
+		server.set(new ItemStack(Items.APPLE, 7));
+		final PacketBuffer delta = writeDelta(server);
+		Assert.assertTrue(delta.readableBytes() < fullSize);
+		read(client, delta);
+		assertStacksEqual(server.get(), client.get());
+
+		server.set(new ItemStack(Items.BREAD, 7));
+		read(client, writeDelta(server));
+		assertStacksEqual(server.get(), client.get());
+
+		server.set(ItemStack.EMPTY);
+		read(client, writeDelta(server));
+		Assert.assertTrue(client.get().isEmpty());
+	}
+
+	@Test
+	public void testItemTagDelta() throws IOException {
+		final SyncableItemStack server = new SyncableItemStack();
+		final SyncableItemStack client = new SyncableItemStack();
+
+		server.set(createSword(3, "hello"));
+		read(client, writeDelta(server));
+		assertStacksEqual(server.get(), client.get());
+
+		final ItemStack renamed = createSword(3, "world");
+		renamed.getTagCompound().removeTag("padding5");
+		server.set(renamed);
+
+		final SyncableItemStack reference = new SyncableItemStack();
+		reference.set(renamed);
+		final int fullSize = writeFull(reference).readableBytes();
+
+		final PacketBuffer delta = writeDelta(server);
+		Assert.assertTrue(delta.readableBytes() < fullSize);
+		read(client, delta);
+		assertStacksEqual(server.get(), client.get());
+	}
+
+	@Test
+	public void testInitializationResetsBase() throws IOException {
+		final SyncableItemStack server = new SyncableItemStack();
+		final SyncableItemStack oldClient = new SyncableItemStack();
+
+		server.set(new ItemStack(Items.APPLE, 5));
+		read(oldClient, writeDelta(server));
+
+		// new receiver initialized with state not yet sent to old one
+		server.set(new ItemStack(Items.BREAD, 5));
+		final SyncableItemStack newClient = new SyncableItemStack();
+		read(newClient, writeFull(server));
+
+		server.set(new ItemStack(Items.BREAD, 6));
+		final PacketBuffer update = writeDelta(server);
+		final PacketBuffer updateCopy = new PacketBuffer(update.copy());
+		read(oldClient, update);
+		read(newClient, updateCopy);
+
+		assertStacksEqual(server.get(), oldClient.get());
+		assertStacksEqual(server.get(), newClient.get());
+	}
+
+	@Test
+	public void testReceiverJoiningAgain() throws IOException {
+		final SyncableItemStack server = new SyncableItemStack();
+		final SyncableItemStack stayingClient = new SyncableItemStack();
+		final SyncableItemStack returningClient = new SyncableItemStack();
+
+		server.set(new ItemStack(Items.APPLE, 5));
+		final PacketBuffer initial = writeDelta(server);
+		final PacketBuffer initialCopy = new PacketBuffer(initial.copy());
+		read(stayingClient, initial);
+		read(returningClient, initialCopy);
+
+		// returning client is out of range for these updates
+		server.set(ItemStack.EMPTY);
+		read(stayingClient, writeDelta(server));
+		server.set(createSword(2, "hello"));
+		read(stayingClient, writeDelta(server));
+
+		// back in range - full state for returning client, deltas for others
+		server.set(createSword(2, "world"));
+		read(stayingClient, writeDelta(server));
+		read(returningClient, writeFull(server));
+		assertStacksEqual(server.get(), returningClient.get());
+
+		server.set(createSword(4, "world"));
+		final PacketBuffer update = writeDelta(server);
+		final PacketBuffer updateCopy = new PacketBuffer(update.copy());
+		read(stayingClient, update);
+		read(returningClient, updateCopy);
+
+		assertStacksEqual(server.get(), stayingClient.get());
+		assertStacksEqual(server.get(), returningClient.get());
+	}
+
+	@Test
+	public void testTankReceiverJoiningAgain() throws IOException {
+		final SyncableTank server = new SyncableTank(1000);
+		final SyncableTank stayingClient = new SyncableTank(1000);
+		final SyncableTank returningClient = new SyncableTank(1000);
+
+		server.setFluid(new FluidStack(FluidRegistry.WATER, 100));
+		final PacketBuffer initial = writeDelta(server);
+		final PacketBuffer initialCopy = new PacketBuffer(initial.copy());
+		read(stayingClient, initial);
+		read(returningClient, initialCopy);
+
+		server.setFluid(null);
+		read(stayingClient, writeDelta(server));
+		server.setFluid(new FluidStack(FluidRegistry.LAVA, 200));
+		read(stayingClient, writeDelta(server));
+
+		read(returningClient, writeFull(server));
+
+		server.setFluid(new FluidStack(FluidRegistry.LAVA, 300));
+		final PacketBuffer update = writeDelta(server);
+		final PacketBuffer updateCopy = new PacketBuffer(update.copy());
+		read(stayingClient, update);
+		read(returningClient, updateCopy);
+
+		Assert.assertTrue(server.getFluid().isFluidStackIdentical(stayingClient.getFluid()));
+		Assert.assertTrue(server.getFluid().isFluidStackIdentical(returningClient.getFluid()));
+	}
+
+	@Test
+	public void testNbtDelta() throws IOException {
+		final NBTTagCompound initial = new NBTTagCompound();
+		for (int i = 0; i < 20; i++)
+			initial.setInteger("key" + i, i);
+
+		final SyncableNBT server = new SyncableNBT(initial);
+		final SyncableNBT client = new SyncableNBT();
+		read(client, writeDelta(server));
+		Assert.assertEquals(initial, client.getValue());
+
+		final NBTTagCompound modified = initial.copy();
+		modified.setInteger("key3", 42);
+		modified.removeTag("key7");
+		modified.setString("new", "value");
+		server.setValue(modified);
+
+		final int fullSize = writeFull(new SyncableNBT(modified)).readableBytes();
+		final PacketBuffer delta = writeDelta(server);
+		Assert.assertTrue(delta.readableBytes() < fullSize);
+		read(client, delta);
+		Assert.assertEquals(modified, client.getValue());
+	}
+
+	@Test
+	public void testNbtFallbackToFull() throws IOException {
+		final NBTTagCompound initial = new NBTTagCompound();
+		initial.setInteger("a", 1);
+
+		final SyncableNBT server = new SyncableNBT(initial);
+		final SyncableNBT client = new SyncableNBT();
+		read(client, writeDelta(server));
+
+		final NBTTagCompound replaced = new NBTTagCompound();
+		replaced.setInteger("b", 2);
+		server.setValue(replaced);
+
+		final PacketBuffer delta = writeDelta(server);
+		Assert.assertEquals(writeFull(new SyncableNBT(replaced)).readableBytes(), delta.readableBytes());
+		read(client, delta);
+		Assert.assertEquals(replaced, client.getValue());
+	}
+}
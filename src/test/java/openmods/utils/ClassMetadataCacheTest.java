@@ -0,0 +1,123 @@
+package openmods.utils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ClassMetadataCacheTest {
+
+	private static final List<Class<?>> CLASSES = ImmutableList.of(String.class, Integer.class, Long.class, Double.class, Object.class, List.class, Thread.class, Field.class);
+
+	private static class CountingCache extends ClassMetadataCache<Object> {
+		private final AtomicInteger created = new AtomicInteger();
+
+		@Override
+		protected Object create(Class<?> cls) {
+			created.incrementAndGet();
+			// widen window for races
+			Thread.yield();
+			return new Object();
+		}
+	}
+
+	private static void assertAllSame(List<?> values) {
+		final Object first = values.get(0);
+		for (Object value : values)
+			Assert.assertSame(first, value);
+	}
+
+	@Test
+	public void testConcurrentFirstAccess() throws Exception {
+		final CountingCache cache = new CountingCache();
+
+		final List<List<Object>> results = ConcurrentAccess.run(() -> {
+			final List<Object> values = Lists.newArrayList();
+			for (Class<?> cls : CLASSES)
+				values.add(cache.get(cls));
+			return values;
+		});
+
+		final Set<Object> distinct = Sets.newIdentityHashSet();
+		for (int i = 0; i < CLASSES.size(); i++) {
+			final List<Object> valuesForClass = Lists.newArrayList();
+			for (List<Object> threadResult : results)
+				valuesForClass.add(threadResult.get(i));
+
+			assertAllSame(valuesForClass);
+			distinct.add(valuesForClass.get(0));
+		}
+
+		Assert.assertEquals(CLASSES.size(), distinct.size());
+		Assert.assertTrue(cache.created.get() >= CLASSES.size());
+
+		// no new values after first access
+		final int created = cache.created.get();
+		for (Class<?> cls : CLASSES)
+			cache.get(cls);
+		Assert.assertEquals(created, cache.created.get());
+	}
+
+	@Test
+	public void testInvalidate() {
+		final CountingCache cache = new CountingCache();
+		final Object first = cache.get(String.class);
+		Assert.assertSame(first, cache.get(String.class));
+
+		cache.invalidate(String.class);
+		Assert.assertNotSame(first, cache.get(String.class));
+		Assert.assertEquals(2, cache.created.get());
+	}
+
+	@Test
+	public void testSeparateCaches() {
+		final CountingCache cacheA = new CountingCache();
+		final CountingCache cacheB = new CountingCache();
+		Assert.assertNotSame(cacheA.get(String.class), cacheB.get(String.class));
+	}
+
+	public static class Fields {
+		public int a;
+		public String b;
+		public long c;
+	}
+
+	@Test
+	public void testFieldsSelectorConcurrentFirstAccess() throws Exception {
+		final FieldsSelector selector = new FieldsSelector() {
+			@Override
+			protected List<FieldEntry> listFields(Class<?> cls) {
+				final List<FieldEntry> result = Lists.newArrayList();
+				for (Field f : cls.getDeclaredFields())
+					result.add(new FieldEntry(f, 0));
+				return result;
+			}
+		};
+
+		final List<Collection<Field>> results = ConcurrentAccess.run(() -> selector.getFields(Fields.class));
+		assertAllSame(results);
+		Assert.assertEquals(3, results.get(0).size());
+	}
+
+	@Test
+	public void testCachedFactoryConcurrentFirstAccess() throws Exception {
+		final AtomicInteger created = new AtomicInteger();
+		final CachedFactory<String, Object> factory = new CachedFactory<String, Object>() {
+			@Override
+			protected Object create(String key) {
+				created.incrementAndGet();
+				Thread.yield();
+				return new Object();
+			}
+		};
+
+		assertAllSame(ConcurrentAccess.run(() -> factory.getOrCreate("key")));
+		Assert.assertTrue(created.get() >= 1);
+	}
+}
@@ -0,0 +1,40 @@
+package openmods.utils;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class ConcurrentAccess {
+
+	public static final int THREAD_COUNT = 16;
+
+	/**
+	 * Runs task on multiple threads, all started at the same time.
+	 */
+	public static <T> List<T> run(Callable<T> task) throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+		try {
+			final CountDownLatch start = new CountDownLatch(1);
+			final List<Future<T>> futures = Lists.newArrayList();
+			for (int i = 0; i < THREAD_COUNT; i++)
+				futures.add(executor.submit(() -> {
+					start.await();
+					return task.call();
+				}));
+
+			start.countDown();
+
+			final List<T> results = Lists.newArrayList();
+			for (Future<T> f : futures)
+				results.add(f.get(10, TimeUnit.SECONDS));
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package openmods.utils;
+
+import com.google.common.collect.Maps;
+import java.util.Map;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+public class EnchantingPowerCacheTest {
+
+	static {
+		Bootstrap.register();
+	}
+
+	private static final BlockPos TABLE = new BlockPos(10, 64, -20);
+
+	private final Map<BlockPos, IBlockState> blocks = Maps.newHashMap();
+
+	private int blockQueries;
+
+	private World world;
+
+	private EnchantingPowerCache cache;
+
+	private IWorldEventListener listener;
+
+	@Before
+	public void setup() {
+		world = Mockito.mock(World.class);
+		Mockito.when(world.getBlockState(Matchers.any(BlockPos.class))).thenAnswer(invocation -> {
+			blockQueries++;
+			final IBlockState state = blocks.get(invocation.getArguments()[0]);
+			return state != null? state : Blocks.AIR.getDefaultState();
+		});
+		Mockito.when(world.isAirBlock(Matchers.any(BlockPos.class))).thenAnswer(invocation -> {
+			blockQueries++;
+			return !blocks.containsKey(invocation.getArguments()[0]);
+		});
+
+		cache = new EnchantingPowerCache();
+	}
+
+	private float getPower() {
+		final float result = cache.getPower(world, TABLE);
+		if (listener == null) {
+			final ArgumentCaptor<IWorldEventListener> captor = ArgumentCaptor.forClass(IWorldEventListener.class);
+			Mockito.verify(world).addEventListener(captor.capture());
+			listener = captor.getValue();
+		}
+		return result;
+	}
+
+	private void setBlock(BlockPos pos, IBlockState state) {
+		final IBlockState oldState = blocks.get(pos);
+		if (state.getBlock() == Blocks.AIR) blocks.remove(pos);
+		else blocks.put(pos, state);
+
+		if (listener != null) listener.notifyBlockUpdate(world, pos, oldState, state, 3);
+	}
+
+	private void placeShelf(int dx, int dy, int dz) {
+		setBlock(TABLE.add(dx, dy, dz), Blocks.BOOKSHELF.getDefaultState());
+	}
+
+	private void assertPower(float expected) {
+		Assert.assertEquals(expected, EnchantmentUtils.getPower(world, TABLE), 0);
+		Assert.assertEquals(expected, getPower(), 0);
+	}
+
+	@Test
+	public void testCachedValueIsReused() {
+		placeShelf(2, 0, 0);
+		placeShelf(-2, 1, 1);
+		assertPower(2);
+
+		final int queries = blockQueries;
+		for (int i = 0; i < 10; i++)
+			Assert.assertEquals(2, getPower(), 0);
+
+		Assert.assertEquals(queries, blockQueries);
+		Assert.assertEquals(1, cache.size(world));
+	}
+
+	@Test
+	public void testAddingShelfInvalidates() {
+		placeShelf(2, 0, 0);
+		assertPower(1);
+
+		placeShelf(0, 1, -2);
+		Assert.assertEquals(0, cache.size(world));
+		assertPower(2);
+
+		placeShelf(2, 1, 2);
+		assertPower(3);
+	}
+
+	@Test
+	public void testRemovingShelfInvalidates() {
+		placeShelf(2, 0, 0);
+		placeShelf(-2, 0, 0);
+		assertPower(2);
+
+		setBlock(TABLE.add(-2, 0, 0), Blocks.AIR.getDefaultState());
+		assertPower(1);
+	}
+
+	@Test
+	public void testBlockingAirGapInvalidates() {
+		placeShelf(2, 0, 0);
+		assertPower(1);
+
+		setBlock(TABLE.add(1, 1, 0), Blocks.STONE.getDefaultState());
+		assertPower(0);
+	}
+
+	@Test
+	public void testChangesOutsideAreIgnored() {
+		placeShelf(2, 0, 0);
+		assertPower(1);
+
+		placeShelf(3, 0, 0);
+		placeShelf(0, 2, 0);
+		placeShelf(0, -1, 0);
+		Assert.assertEquals(1, cache.size(world));
+
+		final int queries = blockQueries;
+		Assert.assertEquals(1, getPower(), 0);
+		Assert.assertEquals(queries, blockQueries);
+	}
+
+	@Test
+	public void testOnlyAffectedEntriesAreRemoved() {
+		final BlockPos otherTable = TABLE.add(4, 0, 0);
+		placeShelf(2, 0, 0);
+		assertPower(1);
+		Assert.assertEquals(1, cache.getPower(world, otherTable), 0);
+		Assert.assertEquals(2, cache.size(world));
+
+		// only visible from second table
+		placeShelf(6, 0, 0);
+		Assert.assertEquals(1, cache.size(world));
+		Assert.assertEquals(2, cache.getPower(world, otherTable), 0);
+
+		// visible from both
+		setBlock(TABLE.add(2, 0, 0), Blocks.AIR.getDefaultState());
+		Assert.assertEquals(0, cache.size(world));
+		assertPower(0);
+		Assert.assertEquals(1, cache.getPower(world, otherTable), 0);
+	}
+
+	@Test
+	public void testManualInvalidation() {
+		assertPower(0);
+
+		// change not reported to listeners
+		blocks.put(TABLE.add(-2, 0, -2), Blocks.BOOKSHELF.getDefaultState());
+		Assert.assertEquals(0, getPower(), 0);
+
+		cache.onBlockChanged(world, TABLE.add(-2, 0, -2));
+		assertPower(1);
+	}
+}
@@ -0,0 +1,115 @@
+package openmods.utils;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import java.util.Set;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityTracker;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+public class EntityWatcherCacheTest {
+
+	static {
+		Bootstrap.register();
+	}
+
+	private final Set<EntityPlayerMP> tracking = Sets.newHashSet();
+
+	private WorldServer world;
+
+	private EntityTracker tracker;
+
+	private Entity entity;
+
+	private EntityPlayerMP playerA;
+
+	private EntityPlayerMP playerB;
+
+	private EntityWatcherCache cache;
+
+	@Before
+	public void setup() {
+		tracker = Mockito.mock(EntityTracker.class);
+		Mockito.when(tracker.getTrackingPlayers(Matchers.any(Entity.class))).thenAnswer(invocation -> ImmutableSet.copyOf(tracking));
+
+		world = Mockito.mock(WorldServer.class);
+		Mockito.when(world.getEntityTracker()).thenReturn(tracker);
+
+		entity = Mockito.mock(Entity.class);
+		playerA = Mockito.mock(EntityPlayerMP.class);
+		playerB = Mockito.mock(EntityPlayerMP.class);
+
+		cache = new EntityWatcherCache();
+		startTick();
+	}
+
+	private void startTick() {
+		cache.onServerTick(new ServerTickEvent(Phase.START));
+	}
+
+	private Set<EntityPlayerMP> lookup() {
+		return cache.getPlayersWatching(world, entity);
+	}
+
+	@Test
+	public void testLookupIsCachedForTick() {
+		tracking.add(playerA);
+		Assert.assertEquals(ImmutableSet.of(playerA), lookup());
+
+		tracking.add(playerB);
+		Assert.assertEquals(ImmutableSet.of(playerA), lookup());
+		Mockito.verify(tracker, Mockito.times(1)).getTrackingPlayers(entity);
+
+		startTick();
+		Assert.assertEquals(1, cache.getLastTickMisses());
+		Assert.assertEquals(2, cache.getLastTickLookups());
+
+		Assert.assertEquals(ImmutableSet.of(playerA, playerB), lookup());
+		Mockito.verify(tracker, Mockito.times(2)).getTrackingPlayers(entity);
+	}
+
+	@Test
+	public void testInvalidate() {
+		tracking.add(playerA);
+		Assert.assertEquals(ImmutableSet.of(playerA), lookup());
+
+		tracking.add(playerB);
+		cache.invalidate(entity);
+		Assert.assertEquals(ImmutableSet.of(playerA, playerB), lookup());
+		Mockito.verify(tracker, Mockito.times(2)).getTrackingPlayers(entity);
+	}
+
+	@Test
+	public void testOtherThreadsNotCached() throws Exception {
+		tracking.add(playerA);
+		final Thread thread = new Thread(() -> {
+			lookup();
+			lookup();
+		});
+		thread.start();
+		thread.join();
+
+		Mockito.verify(tracker, Mockito.times(2)).getTrackingPlayers(entity);
+		Assert.assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testWorldUnloadClearsEntries() {
+		tracking.add(playerA);
+		lookup();
+		Assert.assertEquals(1, cache.size());
+
+		cache.onWorldUnload(new WorldEvent.Unload(world));
+		Assert.assertEquals(0, cache.size());
+	}
+}
@@ -0,0 +1,118 @@
+package openmods.world;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import openmods.world.ScheduledTaskQueue.Metrics;
+import openmods.world.ScheduledTaskQueue.Priority;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ScheduledTaskQueueTest {
+
+	private static final long BUDGET = 100;
+
+	private long time;
+
+	private final ScheduledTaskQueue queue = new ScheduledTaskQueue(() -> time);
+
+	private final List<String> log = Lists.newArrayList();
+
+	private Runnable task(String id, long cost) {
+		return () -> {
+			log.add(id);
+			time += cost;
+		};
+	}
+
+	private List<String> tick() {
+		log.clear();
+		queue.tick(BUDGET);
+		return Lists.newArrayList(log);
+	}
+
+	@Test
+	public void testOrderAndPriority() {
+		queue.add(0, Priority.LOW, task("low", 0));
+		queue.add(0, Priority.NORMAL, task("normal1", 0));
+		queue.add(0, Priority.HIGH, task("high", 0));
+		queue.add(0, Priority.NORMAL, task("normal2", 0));
+
+		Assert.assertEquals(Lists.newArrayList("high", "normal1", "normal2", "low"), tick());
+		Assert.assertTrue(tick().isEmpty());
+	}
+
+	@Test
+	public void testDelay() {
+		queue.add(2, Priority.NORMAL, task("delayed", 0));
+		queue.add(0, Priority.NORMAL, task("now", 0));
+
+		Assert.assertEquals(Lists.newArrayList("now"), tick());
+		Assert.assertTrue(tick().isEmpty());
+		Assert.assertEquals(Lists.newArrayList("delayed"), tick());
+	}
+
+	@Test
+	public void testBudget() {
+		for (int i = 0; i < 5; i++)
+			queue.add(0, Priority.NORMAL, task("t" + i, 40));
+
+		// 3rd task starts at 80 < 100, so it still runs
+		Assert.assertEquals(Lists.newArrayList("t0", "t1", "t2"), tick());
+
+		// 20 over budget in previous tick
+		Assert.assertEquals(Lists.newArrayList("t3", "t4"), tick());
+
+		final Metrics metrics = queue.getMetrics();
+		Assert.assertEquals(0, metrics.queued);
+		Assert.assertEquals(5, metrics.executed);
+		Assert.assertEquals(2, metrics.deferred);
+		Assert.assertEquals(1, metrics.maxLatency);
+	}
+
+	@Test
+	public void testOverrunCarriedOver() {
+		queue.add(0, Priority.NORMAL, task("long", 250));
+		queue.add(0, Priority.NORMAL, task("a", 10));
+		queue.add(0, Priority.NORMAL, task("b", 10));
+
+		Assert.assertEquals(Lists.newArrayList("long"), tick());
+		// whole budget used by overrun (150 over, so also 50 in next tick), but at least one task always runs
+		Assert.assertEquals(Lists.newArrayList("a"), tick());
+		Assert.assertEquals(Lists.newArrayList("b"), tick());
+	}
+
+	@Test
+	public void testLargeOverrunNotDropped() {
+		queue.add(0, Priority.NORMAL, task("long", 350));
+		for (int i = 0; i < 4; i++)
+			queue.add(0, Priority.NORMAL, task("t" + i, 40));
+
+		Assert.assertEquals(Lists.newArrayList("long"), tick());
+		// 250 over budget is paid off in following ticks, so each of them runs only single task
+		Assert.assertEquals(Lists.newArrayList("t0"), tick());
+		Assert.assertEquals(Lists.newArrayList("t1"), tick());
+		Assert.assertEquals(Lists.newArrayList("t2"), tick());
+		Assert.assertEquals(Lists.newArrayList("t3"), tick());
+	}
+
+	@Test
+	public void testHighPriorityNotDeferred() {
+		for (int i = 0; i < 3; i++)
+			queue.add(0, Priority.HIGH, task("high" + i, 100));
+		queue.add(0, Priority.NORMAL, task("normal", 0));
+
+		Assert.assertEquals(Lists.newArrayList("high0", "high1", "high2"), tick());
+		Assert.assertEquals(0, queue.getMetrics().maxLatency);
+		Assert.assertEquals(Lists.newArrayList("normal"), tick());
+	}
+
+	@Test
+	public void testHighPriorityOvertakesDeferred() {
+		for (int i = 0; i < 3; i++)
+			queue.add(0, Priority.LOW, task("low" + i, 100));
+
+		Assert.assertEquals(Lists.newArrayList("low0"), tick());
+		queue.add(0, Priority.HIGH, task("high", 0));
+		Assert.assertEquals(Lists.newArrayList("high", "low1"), tick());
+	}
+}